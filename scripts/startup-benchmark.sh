@@ -0,0 +1,141 @@
+#!/usr/bin/env bash
+#
+# Measures time to first HTTP response and resident memory (RSS) of the application in each startup mode:
+#
+#   jvm          plain boot jar
+#   jvm-cds      extracted jar started from a class data sharing archive
+#   jvm-cds-aot  same, with the AOT-generated bean definitions (-Dspring.aot.enabled=true)
+#   native       GraalVM native executable
+#
+# Build the artifacts first:
+#
+#   ./gradlew bootJar            # jvm modes
+#   ./gradlew nativeCompile      # native mode (needs GraalVM native-image)
+#
+# Usage: scripts/startup-benchmark.sh [mode...]     (default: every mode whose artifact exists)
+# Environment: RUNS (default 5), PORT (default 18080), TIMEOUT_SECONDS (default 60)
+#
+# Time to first response is measured from process launch until /actuator/health answers with any status; Redis
+# does not need to be running. RSS is read right after that first response. Medians across RUNS are reported.
+# Linux only: RSS comes from /proc.
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RUNS="${RUNS:-5}"
+PORT="${PORT:-18080}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-60}"
+
+JAR="$(ls "$ROOT"/build/libs/*.jar 2>/dev/null | grep -v -- '-plain\.jar$' | head -n 1 || true)"
+NATIVE="$ROOT/build/native/nativeCompile/linkedin"
+WORK="$ROOT/build/startup-benchmark"
+
+export LINKEDIN_CLIENT_ID="${LINKEDIN_CLIENT_ID:-startup-benchmark}"
+export LINKEDIN_CLIENT_SECRET="${LINKEDIN_CLIENT_SECRET:-startup-benchmark}"
+
+APP_ARGS=(
+    "--server.port=$PORT"
+    "--linkedin.session.keyspace-events=false"
+    "--linkedin.saved.poll-enabled=false"
+    "--linkedin.local-index.directory=$WORK/job-index"
+)
+
+command_for() {
+    case "$1" in
+        jvm) echo java -jar "$JAR" ;;
+        jvm-cds) echo java -XX:SharedArchiveFile="$WORK/app.jsa" -jar "$WORK/extracted/app.jar" ;;
+        jvm-cds-aot) echo java -XX:SharedArchiveFile="$WORK/app-aot.jsa" -Dspring.aot.enabled=true -jar "$WORK/extracted/app.jar" ;;
+        native) echo "$NATIVE" ;;
+        *) echo "Unknown mode $1" >&2; exit 1 ;;
+    esac
+}
+
+available() {
+    case "$1" in
+        native) [[ -x "$NATIVE" ]] ;;
+        *) [[ -n "$JAR" ]] ;;
+    esac
+}
+
+# Extracts the boot jar and records one CDS archive per JVM flag set with a training run that exits after refresh
+prepare_cds() {
+    rm -rf "$WORK/extracted"
+    java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/extracted" --application-filename app.jar > /dev/null
+    java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.context.exit=onRefresh \
+        -jar "$WORK/extracted/app.jar" "${APP_ARGS[@]}" > "$WORK/cds-training.log" 2>&1
+    java -XX:ArchiveClassesAtExit="$WORK/app-aot.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+        -jar "$WORK/extracted/app.jar" "${APP_ARGS[@]}" > "$WORK/cds-aot-training.log" 2>&1
+}
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Prints "<milliseconds to first response> <RSS in KiB>" for one start of the given mode
+measure() {
+    local mode="$1" started pid code elapsed rss
+    started="$(now_ms)"
+    # shellcheck disable=SC2046
+    $(command_for "$mode") "${APP_ARGS[@]}" > "$WORK/$mode.log" 2>&1 &
+    pid=$!
+    while true; do
+        code="$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health" || true)"
+        [[ "$code" != "000" ]] && break
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "$mode exited before answering, see $WORK/$mode.log" >&2
+            exit 1
+        fi
+        if (( $(now_ms) - started > TIMEOUT_SECONDS * 1000 )); then
+            kill "$pid"
+            echo "$mode did not answer within ${TIMEOUT_SECONDS}s, see $WORK/$mode.log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    elapsed=$(( $(now_ms) - started ))
+    rss="$(awk '/^VmRSS:/ { print $2 }' "/proc/$pid/status")"
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$elapsed $rss"
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print (NR % 2 ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2)) }'
+}
+
+main() {
+    local modes=("$@") mode run result times rsses
+    if (( ${#modes[@]} == 0 )); then
+        for mode in jvm jvm-cds jvm-cds-aot native; do
+            available "$mode" && modes+=("$mode")
+        done
+    fi
+    if (( ${#modes[@]} == 0 )); then
+        echo "Nothing to measure: run ./gradlew bootJar and/or ./gradlew nativeCompile first" >&2
+        exit 1
+    fi
+
+    mkdir -p "$WORK"
+    if printf '%s\n' "${modes[@]}" | grep -q '^jvm-cds'; then
+        echo "Preparing CDS archives..." >&2
+        prepare_cds
+    fi
+
+    printf '%-12s %22s %14s\n' mode "first response (ms)" "RSS (MiB)"
+    for mode in "${modes[@]}"; do
+        available "$mode" || { echo "No artifact for $mode, skipping" >&2; continue; }
+        times=()
+        rsses=()
+        for (( run = 1; run <= RUNS; run++ )); do
+            read -r -a result <<< "$(measure "$mode")"
+            (( ${#result[@]} == 2 )) || exit 1
+            times+=("${result[0]}")
+            rsses+=("${result[1]}")
+        done
+        printf '%-12s %22s %14s\n' "$mode" \
+            "$(printf '%s\n' "${times[@]}" | median)" \
+            "$(( $(printf '%s\n' "${rsses[@]}" | median) / 1024 ))"
+    done
+}
+
+main "$@"
@@ -0,0 +1,76 @@
+package com.example.linkedin.bench;
+
+import com.example.linkedin.codec.JobStreamDecoder;
+import com.example.linkedin.model.Job;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares binding every upstream element to {@link Job} and filtering afterwards (the former
+ * {@code bodyToFlux(Job.class).filter(..)} path) with {@link JobStreamDecoder}. Scores are per job;
+ * run with the {@code gc} profiler (configured in {@code build.gradle}) to read allocations per job
+ * from {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JobDecodingBenchmark {
+    private static final int JOBS = 1_000;
+    private static final ResolvableType JOB_TYPE = ResolvableType.forClass(Job.class);
+
+    @Param({"0.0", "0.5", "0.9"})
+    public double easyApplyShare;
+
+    private byte[] payload;
+    private Jackson2JsonDecoder bindingDecoder;
+    private JobStreamDecoder streamDecoder;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        payload = JobPayloads.jobsArray(JOBS, easyApplyShare);
+        bindingDecoder = new Jackson2JsonDecoder(objectMapper);
+        streamDecoder = new JobStreamDecoder(objectMapper);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(JOBS)
+    public void bindThenFilter(Blackhole blackhole) {
+        bindingDecoder.decode(JobPayloads.chunked(payload), JOB_TYPE, MediaType.APPLICATION_JSON, Map.of())
+            .cast(Job.class)
+            .filter(job -> !job.easyApply())
+            .map(Job::applyUrl)
+            .doOnNext(blackhole::consume)
+            .blockLast();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(JOBS)
+    public void streamingDecoder(Blackhole blackhole) {
+        streamDecoder.decode(JobPayloads.chunked(payload))
+            .map(Job::applyUrl)
+            .doOnNext(blackhole::consume)
+            .blockLast();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.linkedin.bench;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic upstream payloads shaped like the LinkedIn jobs response, including fields the search never reads.
+ */
+final class JobPayloads {
+    static final int CHUNK_SIZE = 8 * 1024;
+
+    private JobPayloads() {
+    }
+
+    static byte[] jobsArray(int jobs, double easyApplyShare) {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder json = new StringBuilder(jobs * 400).append('[');
+        for (int i = 0; i < jobs; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            boolean easyApply = random.nextDouble() < easyApplyShare;
+            json.append("{\"id\":\"").append(1_000_000 + i).append('"')
+                .append(",\"title\":\"Senior Software Engineer ").append(i).append('"')
+                .append(",\"company\":{\"name\":\"Company ").append(i % 97).append("\",\"followers\":").append(i * 13).append('}')
+                .append(",\"location\":\"Berlin, Germany\"")
+                .append(",\"skills\":[\"Java\",\"Spring\",\"Kubernetes\"]")
+                .append(",\"easyApply\":").append(easyApply)
+                .append(",\"applyUrl\":\"https://careers.company").append(i % 97).append(".com/jobs/").append(i).append('"')
+                .append(",\"description\":\"Build and run reactive services handling millions of requests per day.\"")
+                .append('}');
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Splits {@code payload} into network-sized buffers without copying it.
+     */
+    static Flux<DataBuffer> chunked(byte[] payload) {
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < payload.length; offset += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, payload.length - offset);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(payload, offset, length).slice()));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
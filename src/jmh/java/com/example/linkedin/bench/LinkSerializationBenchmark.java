@@ -0,0 +1,102 @@
+package com.example.linkedin.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Encodes large link lists the way {@code JobController} responses are written: a {@code Mono<List<String>>}
+ * as one JSON, CBOR or Smile array, and a {@code Flux<String>} as NDJSON. The score is the encoding time; the
+ * returned byte count shows the size of each format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkSerializationBenchmark {
+    private static final ResolvableType LIST_OF_STRINGS = ResolvableType.forClassWithGenerics(List.class, String.class);
+    private static final ResolvableType STRING = ResolvableType.forClass(String.class);
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Param({"100", "10000"})
+    public int links;
+
+    private List<String> applyUrls;
+    private Jackson2JsonEncoder encoder;
+    private Jackson2CborEncoder cborEncoder;
+    private Jackson2SmileEncoder smileEncoder;
+
+    @Setup
+    public void setUp() {
+        applyUrls = IntStream.range(0, links)
+            .mapToObj(i -> "https://careers.company" + (i % 97) + ".com/jobs/" + i)
+            .toList();
+        encoder = new Jackson2JsonEncoder(new ObjectMapper());
+        cborEncoder = new Jackson2CborEncoder(new ObjectMapper(new CBORFactory()));
+        smileEncoder = new Jackson2SmileEncoder(new ObjectMapper(new SmileFactory()));
+    }
+
+    @Benchmark
+    public long jsonArray() {
+        return drain(encoder.encode(Mono.just(applyUrls), DefaultDataBufferFactory.sharedInstance,
+            LIST_OF_STRINGS, MediaType.APPLICATION_JSON, Map.of()));
+    }
+
+    @Benchmark
+    public long cbor() {
+        return drain(cborEncoder.encode(Mono.just(applyUrls), DefaultDataBufferFactory.sharedInstance,
+            LIST_OF_STRINGS, MediaType.APPLICATION_CBOR, Map.of()));
+    }
+
+    @Benchmark
+    public long smile() {
+        return drain(smileEncoder.encode(Mono.just(applyUrls), DefaultDataBufferFactory.sharedInstance,
+            LIST_OF_STRINGS, SMILE, Map.of()));
+    }
+
+    @Benchmark
+    public long ndjson() {
+        return drain(encoder.encode(Flux.fromIterable(applyUrls), DefaultDataBufferFactory.sharedInstance,
+            STRING, MediaType.APPLICATION_NDJSON, Map.of()));
+    }
+
+    private static long drain(Flux<DataBuffer> buffers) {
+        Long bytes = buffers
+            .map(buffer -> {
+                int readable = buffer.readableByteCount();
+                DataBufferUtils.release(buffer);
+                return (long) readable;
+            })
+            .reduce(0L, Long::sum)
+            .block();
+        return bytes == null ? 0 : bytes;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.linkedin.bench;
+
+import com.example.linkedin.security.NoNonceValidationOidcManager;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthorizationCodeAuthenticationToken;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationExchange;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationResponse;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link NoNonceValidationOidcManager#authenticate} with the token endpoint and the userinfo endpoint
+ * stubbed out. What remains is the manager's own work plus real RS256 signature verification of the ID token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OidcLoginBenchmark {
+    private NoNonceValidationOidcManager manager;
+    private Authentication authorizationCode;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("bench").generate();
+        String idToken = signIdToken(key);
+
+        ClientRegistration registration = ClientRegistration.withRegistrationId("linkedin")
+            .clientId("client")
+            .clientSecret("secret")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri("http://localhost:8080/login/oauth2/code/linkedin")
+            .scope("openid", "profile", "email")
+            .authorizationUri("https://www.linkedin.com/oauth/v2/authorization")
+            .tokenUri("https://www.linkedin.com/oauth/v2/accessToken")
+            .jwkSetUri("https://www.linkedin.com/oauth/openid/jwks")
+            .userNameAttributeName("sub")
+            .build();
+
+        OAuth2AccessTokenResponse tokenResponse = OAuth2AccessTokenResponse.withToken("access-token")
+            .tokenType(OAuth2AccessToken.TokenType.BEARER)
+            .expiresIn(3600)
+            .scopes(Set.of("openid", "profile", "email"))
+            .additionalParameters(Map.of("id_token", idToken))
+            .build();
+
+        ReactiveJwtDecoder jwtDecoder = NimbusReactiveJwtDecoder.withPublicKey(key.toRSAPublicKey()).build();
+
+        manager = new NoNonceValidationOidcManager(
+            grantRequest -> Mono.just(tokenResponse),
+            userRequest -> Mono.just(new DefaultOidcUser(
+                AuthorityUtils.createAuthorityList("OIDC_USER"), userRequest.getIdToken()))
+        );
+        manager.setJwtDecoderFactory(clientRegistration -> jwtDecoder);
+
+        OAuth2AuthorizationRequest authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
+            .authorizationUri(registration.getProviderDetails().getAuthorizationUri())
+            .clientId(registration.getClientId())
+            .redirectUri(registration.getRedirectUri())
+            .scopes(registration.getScopes())
+            .state("state")
+            .build();
+        OAuth2AuthorizationResponse authorizationResponse = OAuth2AuthorizationResponse.success("code")
+            .redirectUri(registration.getRedirectUri())
+            .state("state")
+            .build();
+        authorizationCode = new OAuth2AuthorizationCodeAuthenticationToken(
+            registration, new OAuth2AuthorizationExchange(authorizationRequest, authorizationResponse));
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return manager.authenticate(authorizationCode).block();
+    }
+
+    private static String signIdToken(RSAKey key) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+            .subject("member")
+            .issuer("https://www.linkedin.com/oauth")
+            .audience("client")
+            .issueTime(Date.from(now))
+            // Long-lived so that the token stays valid for the whole benchmark run
+            .expirationTime(Date.from(now.plusSeconds(86_400)))
+            .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
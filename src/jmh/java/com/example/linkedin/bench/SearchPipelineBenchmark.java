@@ -0,0 +1,110 @@
+package com.example.linkedin.bench;
+
+import com.example.linkedin.codec.JobStreamDecoder;
+import com.example.linkedin.config.LinkedInApiProperties;
+import com.example.linkedin.config.MetricsProperties;
+import com.example.linkedin.config.SearchProperties;
+import com.example.linkedin.filter.FilterProperties;
+import com.example.linkedin.filter.JobFilter;
+import com.example.linkedin.localindex.JobIndex;
+import com.example.linkedin.localindex.LocalIndexProperties;
+import com.example.linkedin.model.Job;
+import com.example.linkedin.ratelimit.RateLimitProperties;
+import com.example.linkedin.ratelimit.UpstreamScheduler;
+import com.example.linkedin.resilience.ResilienceProperties;
+import com.example.linkedin.resilience.UpstreamGuard;
+import com.example.linkedin.service.JobSearchPaginator;
+import com.example.linkedin.service.SearchObservations;
+import com.example.linkedin.service.UpstreamJobsClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a whole search through {@link JobSearchPaginator}: request building, WebClient exchange, decoding and
+ * filtering of every page. The network is replaced by an in-memory exchange function returning canned pages,
+ * so the score is the CPU cost of the pipeline itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchPipelineBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1", "10"})
+    public int pages;
+
+    private JobSearchPaginator paginator;
+
+    @Setup
+    public void setUp() {
+        byte[] fullPage = JobPayloads.jobsArray(PAGE_SIZE, 0.5);
+        byte[] lastPage = JobPayloads.jobsArray(PAGE_SIZE / 2, 0.5);
+
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+            String start = UriComponentsBuilder.fromUri(request.url()).build().getQueryParams().getFirst("start");
+            int index = Integer.parseInt(start) / PAGE_SIZE;
+            byte[] body = index < pages - 1 ? fullPage : index == pages - 1 ? lastPage : new byte[] {'[', ']'};
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(JobPayloads.chunked(body))
+                .build());
+        });
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UpstreamJobsClient client = new UpstreamJobsClient(
+            webClientBuilder,
+            new LinkedInApiProperties("http://upstream.invalid", 500, Duration.ofSeconds(45)),
+            new JobStreamDecoder(new ObjectMapper()),
+            new SearchObservations(meterRegistry, new MetricsProperties(1.0)),
+            // Limits high enough that the scheduler never queues: the benchmark measures its admission overhead only
+            new UpstreamScheduler(new RateLimitProperties(1e9, Integer.MAX_VALUE, 1e9, Integer.MAX_VALUE,
+                1000, 500, 200, 3, Duration.ofMillis(200), Duration.ofSeconds(30)), meterRegistry),
+            new UpstreamGuard(new ResilienceProperties(Duration.ofSeconds(5), true, Duration.ofMillis(750),
+                0.5, 50, 20, Duration.ofSeconds(30), 3), meterRegistry),
+            Clock.systemUTC()
+        );
+        // Indexing disabled: it runs on its own writer thread and is not part of the request path
+        JobIndex jobIndex = new JobIndex(new LocalIndexProperties(false, Path.of("build/job-index"), 10_000,
+            DataSize.ofMegabytes(256), 10_000, Duration.ofMinutes(10), 0.3), meterRegistry);
+        JobFilter jobFilter = new JobFilter(new FilterProperties(false, "linkedin:filter:", Duration.ofSeconds(30), List.of()),
+            null, meterRegistry);
+        paginator = new JobSearchPaginator(client, jobFilter, jobIndex, new SearchProperties(PAGE_SIZE, 40, 4, true, 4),
+            meterRegistry);
+    }
+
+    @Benchmark
+    public List<String> search() {
+        return paginator.search("token", "Java", "de")
+            .map(Job::applyUrl)
+            .collectList()
+            .block();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.linkedin.admission;
+
+/**
+ * Concurrency limit following measured latency, after the gradient approach of Netflix' concurrency-limits.
+ * <p>
+ * Latency samples are averaged over short windows and compared with a slowly moving long-term average. While
+ * recent latency stays within {@code tolerance} times the long-term one the limit grows by about its square
+ * root per window; beyond that it shrinks in proportion, down to half per window. The limit does not grow
+ * while less than half of it is in use, so an idle period does not leave it inflated.
+ * <p>
+ * Not thread-safe; callers hold their own lock.
+ */
+final class AdaptiveLimit {
+    private static final int WINDOW_SAMPLES = 20;
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    private static final int LONG_WINDOW = 100;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private double limit;
+    private double longRtt;
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, long now) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = initialLimit;
+        this.windowStart = now;
+    }
+
+    int get() {
+        return (int) limit;
+    }
+
+    void onSample(long rttNanos, int inFlight, long now) {
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+        if (windowSamples < WINDOW_SAMPLES && now - windowStart < WINDOW_NANOS) {
+            return;
+        }
+
+        double shortRtt = (double) windowRttSum / windowSamples;
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / LONG_WINDOW;
+        if (longRtt > 2 * shortRtt) {
+            // Latency dropped for good (for example after a slow dependency recovered); let the baseline follow faster
+            longRtt *= 0.95;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        if (windowMaxInFlight < limit / 2) {
+            target = Math.min(target, limit);
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+    }
+}
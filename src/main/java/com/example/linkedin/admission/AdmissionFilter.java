@@ -0,0 +1,86 @@
+package com.example.linkedin.admission;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Runs search requests through the {@link AdmissionGate}, keyed by the authenticated principal, or by client
+ * address for anonymous requests. Registered as a plain {@link WebFilter}, it runs after the Spring Security
+ * filter chain, so the principal is known and unauthenticated requests never take a permit.
+ * <p>
+ * The permit is held until the response is complete, streamed responses included. Only the hold time of
+ * successful non-streamed responses feeds the adaptive limit.
+ */
+@Component
+public class AdmissionFilter implements WebFilter {
+    private static final List<MediaType> STREAMING_TYPES = List.of(MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM);
+
+    private final AdmissionGate gate;
+    private final AdmissionProperties properties;
+    private final List<PathPattern> paths;
+
+    public AdmissionFilter(AdmissionGate gate, AdmissionProperties properties) {
+        this.gate = gate;
+        this.properties = properties;
+        this.paths = properties.paths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.enabled() || !matches(exchange.getRequest().getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+        return exchange.getPrincipal()
+            .map(Principal::getName)
+            .switchIfEmpty(Mono.fromSupplier(() -> "anonymous:" + clientAddress(exchange)))
+            .flatMap(principal -> Mono.usingWhen(
+                gate.acquire(principal),
+                permit -> chain.filter(exchange),
+                permit -> release(permit, exchange),
+                (permit, error) -> Mono.fromRunnable(() -> permit.release(false)),
+                permit -> Mono.fromRunnable(() -> permit.release(false))
+            ));
+    }
+
+    private boolean matches(PathContainer path) {
+        for (PathPattern pattern : paths) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Mono<Void> release(AdmissionGate.Permit permit, ServerWebExchange exchange) {
+        return Mono.fromRunnable(() -> permit.release(isLatencySample(exchange.getResponse())));
+    }
+
+    /**
+     * Fast failures (upstream breaker open, rate limited) say nothing about how loaded this instance is, and the
+     * duration of a streamed response mostly reflects how fast the client reads it.
+     */
+    static boolean isLatencySample(ServerHttpResponse response) {
+        if (response.getStatusCode() != null && response.getStatusCode().isError()) {
+            return false;
+        }
+        MediaType contentType = response.getHeaders().getContentType();
+        return contentType == null || STREAMING_TYPES.stream().noneMatch(contentType::isCompatibleWith);
+    }
+
+    private static String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        return address == null || address.getAddress() == null ? "unknown" : address.getAddress().getHostAddress();
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.linkedin.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Bounds the searches handled at once, per principal and overall. The overall limit adapts to measured latency
+ * ({@link AdaptiveLimit}), so that an overloaded instance sheds load instead of queueing ever longer.
+ * <p>
+ * Requests that cannot start right away wait in a short queue per principal. Principals take turns when
+ * capacity frees up, so one client firing many requests only delays its own. Requests are rejected with
+ * {@link AdmissionRejectedException} when their principal's queue or the overall queue is full, or when they
+ * waited longer than {@code maxWait}.
+ */
+@Component
+public class AdmissionGate {
+    private final AdmissionProperties properties;
+    private final Object lock = new Object();
+    private final Map<String, Lane> lanes = new HashMap<>();
+    /** Lanes with waiting requests and room under the per-principal limit, in turn order. */
+    private final ArrayDeque<Lane> ready = new ArrayDeque<>();
+    private final AdaptiveLimit limit;
+
+    private int inFlight;
+    private int queued;
+
+    private final Timer waitTimer;
+    private final Timer latencyTimer;
+    private final Counter queueFull;
+    private final Counter userQueueFull;
+    private final Counter timedOut;
+
+    public AdmissionGate(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limit = new AdaptiveLimit(properties.initialLimit(), properties.minLimit(), properties.maxLimit(),
+            properties.latencyTolerance(), System.nanoTime());
+        this.waitTimer = Timer.builder("linkedin.admission.queue.wait")
+            .description("Time a search waited for admission")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.latencyTimer = Timer.builder("linkedin.admission.latency")
+            .description("Time an admitted search held its permit")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.queueFull = meterRegistry.counter("linkedin.admission.rejected", "reason", "queue_full");
+        this.userQueueFull = meterRegistry.counter("linkedin.admission.rejected", "reason", "user_queue_full");
+        this.timedOut = meterRegistry.counter("linkedin.admission.rejected", "reason", "timeout");
+        meterRegistry.gauge("linkedin.admission.limit", this, gate -> gate.read(() -> gate.currentLimit()));
+        meterRegistry.gauge("linkedin.admission.inflight", this, gate -> gate.read(() -> gate.inFlight));
+        meterRegistry.gauge("linkedin.admission.queue.depth", this, gate -> gate.read(() -> gate.queued));
+    }
+
+    /**
+     * Emits a {@link Permit} once the request of {@code principal} may start. The permit must be released when
+     * the request is done. Cancelling while waiting gives up the place in the queue.
+     */
+    public Mono<Permit> acquire(String principal) {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(principal, sink, System.nanoTime());
+            sink.onCancel(() -> cancel(waiter));
+            AdmissionRejectedException rejection = null;
+            synchronized (lock) {
+                Lane lane = lanes.computeIfAbsent(principal, Lane::new);
+                if (lane.waiters.size() >= properties.perUserQueue()) {
+                    userQueueFull.increment();
+                    rejection = reject("Too many searches of this user waiting");
+                } else if (queued >= properties.queueCapacity()) {
+                    queueFull.increment();
+                    rejection = reject("Too many searches waiting");
+                } else {
+                    lane.waiters.addLast(waiter);
+                    queued++;
+                    if (lane.waiters.size() == 1 && lane.inFlight < properties.perUserLimit()) {
+                        ready.addLast(lane);
+                    }
+                }
+                if (rejection != null) {
+                    removeIfIdle(lane);
+                }
+            }
+            if (rejection != null) {
+                sink.error(rejection);
+                return;
+            }
+            waiter.timeout = Schedulers.parallel().schedule(() -> expire(waiter),
+                properties.maxWait().toNanos(), TimeUnit.NANOSECONDS);
+            dispatch();
+        });
+    }
+
+    private void expire(Waiter waiter) {
+        if (withdraw(waiter)) {
+            timedOut.increment();
+            waiter.sink.error(reject("Search waited too long for admission"));
+        }
+    }
+
+    private void cancel(Waiter waiter) {
+        if (!withdraw(waiter) && waiter.permit != null) {
+            // Admitted just as the caller went away; the permit never reached it
+            waiter.permit.release(false);
+        }
+    }
+
+    private boolean withdraw(Waiter waiter) {
+        synchronized (lock) {
+            Lane lane = lanes.get(waiter.principal);
+            if (lane == null || !lane.waiters.remove(waiter)) {
+                return false;
+            }
+            queued--;
+            if (lane.waiters.isEmpty()) {
+                ready.remove(lane);
+            }
+            removeIfIdle(lane);
+            return true;
+        }
+    }
+
+    private void release(Permit permit, boolean sample) {
+        long now = System.nanoTime();
+        long held = now - permit.admittedAt;
+        latencyTimer.record(held, TimeUnit.NANOSECONDS);
+        synchronized (lock) {
+            if (sample && properties.adaptive()) {
+                limit.onSample(held, inFlight, now);
+            }
+            inFlight--;
+            Lane lane = permit.lane;
+            lane.inFlight--;
+            if (lane.inFlight == properties.perUserLimit() - 1 && !lane.waiters.isEmpty()) {
+                ready.addLast(lane);
+            }
+            removeIfIdle(lane);
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        List<Waiter> admitted = new ArrayList<>();
+        synchronized (lock) {
+            while (inFlight < currentLimit() && !ready.isEmpty()) {
+                Lane lane = ready.pollFirst();
+                Waiter waiter = lane.waiters.pollFirst();
+                queued--;
+                inFlight++;
+                lane.inFlight++;
+                waiter.permit = new Permit(lane, System.nanoTime());
+                admitted.add(waiter);
+                if (!lane.waiters.isEmpty() && lane.inFlight < properties.perUserLimit()) {
+                    ready.addLast(lane);
+                }
+            }
+        }
+        for (Waiter waiter : admitted) {
+            if (waiter.timeout != null) {
+                waiter.timeout.dispose();
+            }
+            waitTimer.record(waiter.permit.admittedAt - waiter.queuedAt, TimeUnit.NANOSECONDS);
+            waiter.sink.success(waiter.permit);
+        }
+    }
+
+    private int currentLimit() {
+        return properties.adaptive() ? limit.get() : properties.initialLimit();
+    }
+
+    private void removeIfIdle(Lane lane) {
+        if (lane.inFlight == 0 && lane.waiters.isEmpty()) {
+            lanes.remove(lane.principal);
+        }
+    }
+
+    private AdmissionRejectedException reject(String reason) {
+        return new AdmissionRejectedException(reason, properties.retryAfter());
+    }
+
+    private double read(IntSupplier value) {
+        synchronized (lock) {
+            return value.getAsInt();
+        }
+    }
+
+    /**
+     * Right to run one request. Release exactly once.
+     */
+    public final class Permit {
+        private final Lane lane;
+        private final long admittedAt;
+        private boolean released;
+
+        private Permit(Lane lane, long admittedAt) {
+            this.lane = lane;
+            this.admittedAt = admittedAt;
+        }
+
+        /**
+         * @param sample  whether the time the permit was held is a meaningful latency sample for the adaptive
+         *                limit; pass {@code false} for failed or cancelled requests
+         */
+        public void release(boolean sample) {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            AdmissionGate.this.release(this, sample);
+        }
+    }
+
+    private static final class Lane {
+        private final String principal;
+        private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+        private int inFlight;
+
+        private Lane(String principal) {
+            this.principal = principal;
+        }
+    }
+
+    private static final class Waiter {
+        private final String principal;
+        private final MonoSink<Permit> sink;
+        private final long queuedAt;
+        private volatile Disposable timeout;
+        private volatile Permit permit;
+
+        private Waiter(String principal, MonoSink<Permit> sink, long queuedAt) {
+            this.principal = principal;
+            this.sink = sink;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
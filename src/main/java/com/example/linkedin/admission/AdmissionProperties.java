@@ -0,0 +1,40 @@
+package com.example.linkedin.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Limits on concurrent search requests handled by this instance.
+ *
+ * @param enabled            whether requests to {@code paths} go through admission control
+ * @param paths              path patterns of the requests subject to admission control
+ * @param perUserLimit       requests of one principal handled at once
+ * @param initialLimit       requests handled at once across all principals, before latency samples adjust it
+ * @param minLimit           lower bound of the adaptive overall limit
+ * @param maxLimit           upper bound of the adaptive overall limit
+ * @param adaptive           whether the overall limit follows measured latency; if not it stays at {@code initialLimit}
+ * @param latencyTolerance   ratio of recent to long-term latency tolerated before the overall limit shrinks
+ * @param queueCapacity      requests allowed to wait across all principals before new ones are rejected
+ * @param perUserQueue       requests of one principal allowed to wait before its new ones are rejected
+ * @param maxWait            time a request may wait for admission before it is rejected
+ * @param retryAfter         {@code Retry-After} sent with rejections
+ */
+@ConfigurationProperties("linkedin.admission")
+public record AdmissionProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue({"/jobs/search", "/jobs/search/**"}) List<String> paths,
+    @DefaultValue("4") int perUserLimit,
+    @DefaultValue("64") int initialLimit,
+    @DefaultValue("8") int minLimit,
+    @DefaultValue("512") int maxLimit,
+    @DefaultValue("true") boolean adaptive,
+    @DefaultValue("2.0") double latencyTolerance,
+    @DefaultValue("200") int queueCapacity,
+    @DefaultValue("8") int perUserQueue,
+    @DefaultValue("500ms") Duration maxWait,
+    @DefaultValue("1s") Duration retryAfter
+) {
+}
@@ -0,0 +1,27 @@
+package com.example.linkedin.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the two-tier search result cache.
+ *
+ * @param localMaxEntries upper bound on entries kept in the in-process tier
+ * @param freshTtl        age up to which an entry is served without touching the upstream
+ * @param staleTtl        age up to which an entry is still served, while a refresh runs in the background
+ * @param fallbackTtl     age up to which an entry is kept to be served only when the upstream is unavailable
+ * @param redisEnabled    whether the shared Redis tier sits behind the in-process tier
+ * @param redisKeyPrefix  prefix of every Redis key written by the cache
+ */
+@ConfigurationProperties("linkedin.cache")
+public record CacheProperties(
+    @DefaultValue("10000") long localMaxEntries,
+    @DefaultValue("5m") Duration freshTtl,
+    @DefaultValue("30m") Duration staleTtl,
+    @DefaultValue("24h") Duration fallbackTtl,
+    @DefaultValue("true") boolean redisEnabled,
+    @DefaultValue("linkedin:jobs:search:") String redisKeyPrefix
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.linkedin.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public record CachedLinks(List<String> links, Instant fetchedAt) {
+
+    boolean isFresh(Duration freshTtl, Instant now) {
+        return fetchedAt.plus(freshTtl).isAfter(now);
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.linkedin.cache;
+
+import com.example.linkedin.ratelimit.Priority;
+import com.example.linkedin.resilience.UpstreamUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Search results cached in a bounded in-process tier in front of a shared Redis tier.
+ * Entries younger than {@code freshTtl} are served as is. Entries between {@code freshTtl} and {@code staleTtl}
+ * are still served, and one background reload per key replaces them. Older entries are kept up to {@code fallbackTtl}
+ * and served only when a reload fails with {@link UpstreamUnavailableException}. Redis failures degrade to a cache miss.
+ */
+@Component
+public class JobSearchCache {
+    private static final Logger logger = LoggerFactory.getLogger(JobSearchCache.class);
+
+    private final CacheProperties properties;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Cache<SearchKey, CachedLinks> local;
+    private final Set<SearchKey> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+    private final Counter staleHits;
+    private final Counter fallbackHits;
+    private final Counter evictions;
+
+    public JobSearchCache(
+        CacheProperties properties,
+        ReactiveStringRedisTemplate redisTemplate,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        Clock clock
+    ) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.localHits = meterRegistry.counter("linkedin.cache.requests", "tier", "local", "result", "hit");
+        this.redisHits = meterRegistry.counter("linkedin.cache.requests", "tier", "redis", "result", "hit");
+        this.misses = meterRegistry.counter("linkedin.cache.requests", "tier", "all", "result", "miss");
+        this.staleHits = meterRegistry.counter("linkedin.cache.stale.served");
+        this.fallbackHits = meterRegistry.counter("linkedin.cache.fallback.served");
+        this.evictions = meterRegistry.counter("linkedin.cache.evictions");
+        this.local = Caffeine.newBuilder()
+            .maximumSize(properties.localMaxEntries())
+            .expireAfterWrite(properties.fallbackTtl())
+            .removalListener((SearchKey key, CachedLinks value, RemovalCause cause) -> {
+                if (cause.wasEvicted()) {
+                    evictions.increment();
+                }
+            })
+            .build();
+        meterRegistry.gaugeMapSize("linkedin.cache.local.size", List.of(), local.asMap());
+    }
+
+    public Mono<List<String>> get(SearchKey key, Mono<List<String>> loader) {
+        return Mono.defer(() -> {
+            CachedLinks cached = local.getIfPresent(key);
+            if (cached != null && isServable(cached)) {
+                localHits.increment();
+                return Mono.just(serve(key, cached, loader));
+            }
+            return readRedis(key)
+                .doOnNext(fromRedis -> local.asMap().merge(key, fromRedis, JobSearchCache::newer))
+                .filter(this::isServable)
+                .doOnNext(fromRedis -> redisHits.increment())
+                .map(fromRedis -> serve(key, fromRedis, loader))
+                .switchIfEmpty(Mono.defer(() -> {
+                    misses.increment();
+                    return load(key, loader)
+                        .onErrorResume(UpstreamUnavailableException.class, error -> fallback(key, error));
+                }));
+        });
+    }
+
+    /**
+     * Drops every entry matching {@code query} and {@code country} from both tiers. A {@code null} argument
+     * matches any value, so {@code invalidate(null, null)} clears the whole cache.
+     *
+     * @return the number of entries removed from each tier
+     */
+    public Mono<InvalidationResult> invalidate(String query, String country) {
+        int before = local.asMap().size();
+        local.asMap().keySet().removeIf(key -> key.matches(query, country));
+        int localRemoved = before - local.asMap().size();
+
+        if (!properties.redisEnabled()) {
+            return Mono.just(new InvalidationResult(localRemoved, 0));
+        }
+        String pattern = properties.redisKeyPrefix()
+            + (country == null ? "*" : escapeGlob(SearchKey.keyPart(SearchKey.normalize(country)))) + ":"
+            + (query == null ? "*" : escapeGlob(SearchKey.keyPart(SearchKey.normalize(query)))) + ":*";
+        return redisTemplate.scan(ScanOptions.scanOptions().match(pattern).count(500).build())
+            .buffer(500)
+            .flatMap(keys -> redisTemplate.delete(keys.toArray(String[]::new)))
+            .reduce(0L, Long::sum)
+            .map(redisRemoved -> new InvalidationResult(localRemoved, redisRemoved));
+    }
+
+    private List<String> serve(SearchKey key, CachedLinks cached, Mono<List<String>> loader) {
+        if (!cached.isFresh(properties.freshTtl(), clock.instant())) {
+            staleHits.increment();
+            revalidate(key, loader);
+        }
+        return cached.links();
+    }
+
+    private Mono<List<String>> fallback(SearchKey key, UpstreamUnavailableException error) {
+        CachedLinks expired = local.getIfPresent(key);
+        if (expired == null) {
+            return Mono.error(error);
+        }
+        fallbackHits.increment();
+        logger.debug("Serving cached search {} from {} while the upstream is unavailable", key, expired.fetchedAt());
+        return Mono.just(expired.links());
+    }
+
+    private boolean isServable(CachedLinks entry) {
+        return entry.fetchedAt().plus(properties.staleTtl()).isAfter(clock.instant());
+    }
+
+    private static CachedLinks newer(CachedLinks a, CachedLinks b) {
+        return a.fetchedAt().isAfter(b.fetchedAt()) ? a : b;
+    }
+
+    private void revalidate(SearchKey key, Mono<List<String>> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        load(key, loader)
+            .doFinally(signal -> refreshing.remove(key))
+            .contextWrite(Priority.BACKGROUND.asContext())
+            .subscribe(
+                links -> logger.debug("Revalidated cached search {}", key),
+                error -> logger.warn("Background refresh of cached search {} failed", key, error)
+            );
+    }
+
+    private Mono<List<String>> load(SearchKey key, Mono<List<String>> loader) {
+        return loader.doOnNext(links -> {
+            CachedLinks entry = new CachedLinks(links, clock.instant());
+            local.put(key, entry);
+            writeRedis(key, entry);
+        });
+    }
+
+    private Mono<CachedLinks> readRedis(SearchKey key) {
+        if (!properties.redisEnabled()) {
+            return Mono.empty();
+        }
+        return redisTemplate.opsForValue().get(key.redisKey(properties.redisKeyPrefix()))
+            .flatMap(json -> Mono.fromCallable(() -> objectMapper.readValue(json, CachedLinks.class)))
+            .filter(entry -> entry.fetchedAt().plus(properties.fallbackTtl()).isAfter(clock.instant()))
+            .onErrorResume(error -> {
+                logger.debug("Redis read for cached search {} failed, treating as a miss", key, error);
+                return Mono.empty();
+            });
+    }
+
+    private void writeRedis(SearchKey key, CachedLinks entry) {
+        if (!properties.redisEnabled()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize cached search {}", key, e);
+            return;
+        }
+        redisTemplate.opsForValue()
+            .set(key.redisKey(properties.redisKeyPrefix()), json, properties.fallbackTtl())
+            .subscribe(
+                written -> { },
+                error -> logger.debug("Redis write for cached search {} failed", key, error)
+            );
+    }
+
+    private static String escapeGlob(String value) {
+        return value.replaceAll("([*?\\[\\]\\\\])", "\\\\$1");
+    }
+
+    public record InvalidationResult(long localEntries, long redisEntries) {
+    }
+}
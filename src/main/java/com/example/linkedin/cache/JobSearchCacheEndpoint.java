@@ -0,0 +1,26 @@
+package com.example.linkedin.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code DELETE /actuator/jobsearchcache?query=..&country=..} invalidates cached searches.
+ * Omitting a parameter matches every value for it. Only members with {@code ROLE_ADMIN} may call it.
+ */
+@Component
+@Endpoint(id = "jobsearchcache")
+public class JobSearchCacheEndpoint {
+    private final JobSearchCache jobSearchCache;
+
+    public JobSearchCacheEndpoint(JobSearchCache jobSearchCache) {
+        this.jobSearchCache = jobSearchCache;
+    }
+
+    @DeleteOperation
+    public Mono<JobSearchCache.InvalidationResult> invalidate(@Nullable String query, @Nullable String country) {
+        return jobSearchCache.invalidate(query, country);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.linkedin.cache;
+
+import java.util.Locale;
+
+/**
+ * Normalized identity of a search: case, surrounding whitespace and repeated inner whitespace
+ * do not produce distinct entries. A {@code null} limit means "all results".
+ */
+public record SearchKey(String query, String country, Integer limit) {
+
+    public static SearchKey of(String query, String country, Integer limit) {
+        return new SearchKey(normalize(query), normalize(country), limit);
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public boolean matches(String query, String country) {
+        return (query == null || this.query.equals(normalize(query)))
+            && (country == null || this.country.equals(normalize(country)));
+    }
+
+    String redisKey(String prefix) {
+        return prefix + keyPart(country) + ":" + keyPart(query) + ":" + (limit == null ? "all" : limit);
+    }
+
+    /**
+     * Percent-encodes {@code %} and the {@code :} separator, so every key has exactly three parts and
+     * a query or country containing {@code :} cannot collide with a different pair.
+     */
+    static String keyPart(String value) {
+        return value.replace("%", "%25").replace(":", "%3A");
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.linkedin.codec;
+
+import com.example.linkedin.model.Job;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Decodes an upstream jobs payload token by token instead of binding every element to a {@link Job}.
+ * Only the fields the search needs are read, in whatever order they appear: {@code id}, {@code applyUrl},
+ * {@code easyApply}, {@code title}, {@code location} and {@code company}, either as a string or as an object
+ * with a {@code name}. Every other value, nested objects included, is skipped without being materialized.
+ * Easy Apply jobs are counted and dropped before a {@code Job} is ever allocated for them.
+ * <p>
+ * The payload is either a JSON array of job objects or a single job object, mirroring {@code bodyToFlux(Job.class)}.
+ */
+@Component
+public class JobStreamDecoder {
+    private final JsonFactory jsonFactory;
+
+    public JobStreamDecoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public Flux<Job> decode(Flux<DataBuffer> body) {
+        return decode(body, scanned -> { });
+    }
+
+    /**
+     * @param scanned  called once the whole body is decoded, with the number of jobs in it, Easy Apply ones included
+     */
+    public Flux<Job> decode(Flux<DataBuffer> body, IntConsumer scanned) {
+        return Flux.defer(() -> {
+            JobTokenizer tokenizer = new JobTokenizer(jsonFactory);
+            return body
+                .concatMapIterable(tokenizer::feed)
+                .concatWith(Flux.defer(() -> {
+                    List<Job> last = tokenizer.endOfInput();
+                    scanned.accept(tokenizer.scanned());
+                    return Flux.fromIterable(last);
+                }))
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
+
+    /**
+     * Not thread-safe: one instance per response body, fed buffers in order.
+     */
+    static final class JobTokenizer {
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+
+        private int depth;
+        private int jobDepth = -1;
+        private int companyDepth = -1;
+        private String field;
+        private String companyField;
+        private String id;
+        private String applyUrl;
+        private boolean easyApply;
+        private String title;
+        private String company;
+        private String location;
+        private int scanned;
+
+        JobTokenizer(JsonFactory jsonFactory) {
+            try {
+                this.parser = jsonFactory.createNonBlockingByteBufferParser();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not create non-blocking JSON parser", e);
+            }
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        List<Job> feed(DataBuffer buffer) {
+            List<Job> jobs = new ArrayList<>();
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    ByteBuffer byteBuffer = iterator.next();
+                    feeder.feedInput(byteBuffer);
+                    parse(jobs);
+                }
+            } catch (IOException e) {
+                throw new DecodingException("Malformed upstream jobs payload", e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+            return jobs;
+        }
+
+        List<Job> endOfInput() {
+            List<Job> jobs = new ArrayList<>();
+            feeder.endOfInput();
+            try {
+                parse(jobs);
+            } catch (IOException e) {
+                throw new DecodingException("Malformed upstream jobs payload", e);
+            }
+            if (depth != 0) {
+                throw new DecodingException("Truncated upstream jobs payload");
+            }
+            return jobs;
+        }
+
+        int scanned() {
+            return scanned;
+        }
+
+        private void parse(List<Job> jobs) throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                switch (token) {
+                    case START_OBJECT -> {
+                        if (jobDepth < 0 && depth <= 1) {
+                            startJob();
+                        } else if (jobDepth >= 0 && depth == jobDepth + 1 && "company".equals(field)) {
+                            companyDepth = depth;
+                            companyField = null;
+                        }
+                        depth++;
+                    }
+                    case START_ARRAY -> depth++;
+                    case END_OBJECT -> {
+                        depth--;
+                        if (depth == jobDepth) {
+                            endJob(jobs);
+                        } else if (depth == companyDepth) {
+                            companyDepth = -1;
+                        }
+                    }
+                    case END_ARRAY -> depth--;
+                    case FIELD_NAME -> {
+                        if (depth == jobDepth + 1) {
+                            field = parser.currentName();
+                        } else if (companyDepth >= 0 && depth == companyDepth + 1) {
+                            companyField = parser.currentName();
+                        }
+                    }
+                    default -> {
+                        if (depth == jobDepth + 1) {
+                            readValue(token);
+                        } else if (companyDepth >= 0 && depth == companyDepth + 1
+                            && "name".equals(companyField) && token == JsonToken.VALUE_STRING && !easyApply) {
+                            company = parser.getText();
+                        }
+                    }
+                }
+            }
+        }
+
+        private void startJob() {
+            jobDepth = depth;
+            field = null;
+            companyDepth = -1;
+            id = null;
+            applyUrl = null;
+            easyApply = false;
+            title = null;
+            company = null;
+            location = null;
+        }
+
+        private void endJob(List<Job> jobs) {
+            scanned++;
+            jobDepth = -1;
+            if (!easyApply) {
+                jobs.add(new Job(id, applyUrl, false, title, company, location));
+            }
+        }
+
+        private String textOrNull(JsonToken token) throws IOException {
+            return easyApply || token != JsonToken.VALUE_STRING ? null : parser.getText();
+        }
+
+        private void readValue(JsonToken token) throws IOException {
+            if (field == null) {
+                return;
+            }
+            switch (field) {
+                case "easyApply" -> easyApply = token == JsonToken.VALUE_TRUE;
+                case "applyUrl" -> applyUrl = easyApply || token != JsonToken.VALUE_STRING ? null : parser.getText();
+                case "id" -> id = easyApply || !token.isScalarValue() ? null : parser.getText();
+                case "title" -> title = textOrNull(token);
+                case "company", "companyName" -> company = textOrNull(token);
+                case "location" -> location = textOrNull(token);
+                default -> {
+                }
+            }
+        }
+    }
+}
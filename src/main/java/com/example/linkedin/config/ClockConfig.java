@@ -0,0 +1,18 @@
+package com.example.linkedin.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class ClockConfig {
+
+    /**
+     * Shared time source, so tests can substitute a fixed or manually advanced clock.
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+}
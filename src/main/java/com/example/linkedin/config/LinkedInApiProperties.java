@@ -0,0 +1,19 @@
+package com.example.linkedin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param baseUrl               root of the LinkedIn REST API
+ * @param maxConnections        size of the outgoing connection pool
+ * @param pendingAcquireTimeout how long a request waits for a pooled connection before failing
+ */
+@ConfigurationProperties("linkedin.api")
+public record LinkedInApiProperties(
+    @DefaultValue("https://api.linkedin.com/v2") String baseUrl,
+    @DefaultValue("500") int maxConnections,
+    @DefaultValue("45s") Duration pendingAcquireTimeout
+) {
+}
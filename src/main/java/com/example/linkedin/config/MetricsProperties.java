@@ -0,0 +1,13 @@
+package com.example.linkedin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param stageSampleRate share of searches, between 0 and 1, whose stages are timed
+ */
+@ConfigurationProperties("linkedin.metrics")
+public record MetricsProperties(
+    @DefaultValue("1.0") double stageSampleRate
+) {
+}
@@ -0,0 +1,91 @@
+package com.example.linkedin.config;
+
+import com.example.linkedin.cache.CachedLinks;
+import com.example.linkedin.model.Job;
+import com.example.linkedin.saved.SavedSearch;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationResponseType;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+import org.springframework.security.web.server.csrf.DefaultCsrfToken;
+
+import java.util.stream.Stream;
+
+/**
+ * Reflection, serialization and resource hints for an AOT-processed or native build, covering what Spring's
+ * own AOT processing cannot infer from the bean definitions:
+ * <ul>
+ *     <li>types written to Redis as JSON by the search cache, saved searches and the authorized client store</li>
+ *     <li>{@link DefaultOidcUser}, returned as JSON by {@code MainController} and built by
+ *     {@code NoNonceValidationOidcManager}, while the controller only declares {@code OidcUser}</li>
+ *     <li>session attributes that {@code CompactSessionSerializer} hands to JDK serialization: the pending
+ *     authorization request, the CSRF token and security contexts it cannot write compactly</li>
+ *     <li>Thymeleaf templates and the Swagger UI resources</li>
+ * </ul>
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+    private static final String[] REDIS_JSON_TYPES = {
+        "com.example.linkedin.security.RedisOAuth2AuthorizedClientService$StoredClient",
+        "com.example.linkedin.security.RedisOAuth2AuthorizedClientService$StoredAccessToken",
+        "com.example.linkedin.security.RedisOAuth2AuthorizedClientService$StoredRefreshToken"
+    };
+
+    private static final String[] JDK_SERIALIZED_TYPES = {
+        "java.lang.Boolean",
+        "java.lang.Integer",
+        "java.lang.Long",
+        "java.lang.Number",
+        "java.lang.String",
+        "java.time.Instant",
+        "java.time.Ser",
+        "java.util.ArrayList",
+        "java.util.Collections$UnmodifiableCollection",
+        "java.util.Collections$UnmodifiableList",
+        "java.util.Collections$UnmodifiableMap",
+        "java.util.Collections$UnmodifiableRandomAccessList",
+        "java.util.Collections$UnmodifiableSet",
+        "java.util.CollSer",
+        "java.util.HashMap",
+        "java.util.HashSet",
+        "java.util.LinkedHashMap",
+        "java.util.LinkedHashSet",
+        "java.util.TreeSet"
+    };
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(), Job.class, CachedLinks.class, SavedSearch.class,
+            DefaultOidcUser.class, OidcIdToken.class, OidcUserInfo.class);
+        for (String type : REDIS_JSON_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.DECLARED_FIELDS);
+        }
+
+        Stream.of(SecurityContextImpl.class, OAuth2AuthenticationToken.class, DefaultOidcUser.class, DefaultOAuth2User.class,
+                OidcIdToken.class, OidcUserInfo.class, OidcUserAuthority.class, OAuth2UserAuthority.class,
+                SimpleGrantedAuthority.class, OAuth2AuthorizationRequest.class, AuthorizationGrantType.class,
+                OAuth2AuthorizationResponseType.class, DefaultCsrfToken.class)
+            .forEach(type -> hints.serialization().registerType(type));
+        for (String type : JDK_SERIALIZED_TYPES) {
+            hints.serialization().registerType(TypeReference.of(type));
+        }
+
+        hints.resources().registerPattern("templates/*");
+        hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.linkedin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Pagination settings for the upstream {@code /jobs} endpoint.
+ *
+ * @param pageSize    number of jobs requested per upstream page
+ * @param maxPages    hard upper bound on the pages fetched for a single search
+ * @param concurrency number of pages fetched at the same time
+ * @param ordered     emit pages in page order, or as soon as each one arrives
+ * @param batchConcurrency number of searches of a batch request run at the same time
+ */
+@ConfigurationProperties("linkedin.search")
+public record SearchProperties(
+    @DefaultValue("25") int pageSize,
+    @DefaultValue("40") int maxPages,
+    @DefaultValue("4") int concurrency,
+    @DefaultValue("true") boolean ordered,
+    @DefaultValue("4") int batchConcurrency
+) {
+}
@@ -0,0 +1,31 @@
+package com.example.linkedin.config;
+
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+public class UpstreamClientConfig {
+
+    /**
+     * Dedicated connection pool for outgoing calls. {@code metrics(true)} publishes the
+     * {@code reactor.netty.connection.provider.*} gauges (active, idle, pending connections) to Micrometer.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(LinkedInApiProperties apiProperties) {
+        return ConnectionProvider.builder("linkedin-upstream")
+            .maxConnections(apiProperties.maxConnections())
+            .pendingAcquireTimeout(apiProperties.pendingAcquireTimeout())
+            .metrics(true)
+            .build();
+    }
+
+    @Bean
+    public WebClientCustomizer upstreamConnectorCustomizer(ConnectionProvider upstreamConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider);
+        return builder -> builder.clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+}
@@ -1,14 +1,30 @@
 package com.example.linkedin.controller;
 
+import com.example.linkedin.model.BatchSearchRequest;
+import com.example.linkedin.model.BatchSearchResult;
 import com.example.linkedin.service.LinkedInService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 
 @RestController
@@ -21,13 +37,55 @@ public class JobController {
         this.linkedInService = linkedInService;
     }
 
-    @Operation(summary = "Search jobs and return direct apply links by country")
+    /**
+     * The response carries a weak {@code ETag} over the links, so a poller sending it back in
+     * {@code If-None-Match} gets an empty {@code 304} while the result is unchanged. It is weak because the same
+     * links may be sent as JSON, CBOR or Smile, compressed or not.
+     */
+    @Operation(summary = "Search jobs and return direct apply links by country, as JSON, CBOR or Smile")
     @GetMapping("/search")
-    public Mono<List<String>> search(
+    public Mono<ResponseEntity<List<String>>> search(
         @RequestParam String query,
-        @RequestParam String country
+        @RequestParam String country,
+        @RequestParam(required = false) @Min(1) Integer limit
     ) {
-        return linkedInService.getDirectApplyLinks(query, country);
+        return linkedInService.getDirectApplyLinks(query, country, limit)
+            .map(links -> ResponseEntity.ok()
+                .eTag("W/\"" + contentHash(links) + "\"")
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(links));
+    }
+
+    @Operation(summary = "Search jobs and stream direct apply links by country as NDJSON or server-sent events")
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<String> searchStream(
+        @RequestParam String query,
+        @RequestParam String country,
+        @RequestParam(required = false) @Min(1) Integer limit
+    ) {
+        return linkedInService.streamDirectApplyLinks(query, country, limit);
     }
-}
 
+    @Operation(summary = "Run many query and country searches at once, deduplicating apply links across them")
+    @PostMapping("/search/batch")
+    public Flux<BatchSearchResult> searchBatch(@RequestBody @Valid BatchSearchRequest request) {
+        return linkedInService.searchBatch(request.searches());
+    }
+
+    private static String contentHash(List<String> links) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        for (String link : links) {
+            digest.update(link.getBytes(StandardCharsets.UTF_8));
+            // Separator that cannot occur in a URL, so that ["ab"] and ["a", "b"] differ
+            digest.update((byte) '\n');
+        }
+        // 128 bits are plenty to tell results apart and keep the header short
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), 16));
+    }
+}
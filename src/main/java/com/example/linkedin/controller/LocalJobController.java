@@ -0,0 +1,47 @@
+package com.example.linkedin.controller;
+
+import com.example.linkedin.filter.JobFilter;
+import com.example.linkedin.localindex.JobIndex;
+import com.example.linkedin.localindex.LocalSearchQuery;
+import com.example.linkedin.model.Job;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/jobs/local")
+@Tag(name = "Local Job API", description = "Refine jobs fetched earlier without calling LinkedIn again")
+public class LocalJobController {
+    private final JobIndex jobIndex;
+    private final JobFilter jobFilter;
+
+    public LocalJobController(JobIndex jobIndex, JobFilter jobFilter) {
+        this.jobIndex = jobIndex;
+        this.jobFilter = jobFilter;
+    }
+
+    @Operation(summary = "Search previously fetched jobs by title words, company and location, newest first")
+    @GetMapping("/search")
+    public Mono<List<Job>> search(
+        @RequestParam(required = false) String q,
+        @RequestParam(required = false) String company,
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String excludeCompany,
+        @RequestParam(defaultValue = "50") @Min(1) @Max(1000) int limit
+    ) {
+        LocalSearchQuery query = new LocalSearchQuery(q, company, location, excludeCompany, limit);
+        // Segments are memory-mapped, so a search may fault pages in from disk. Jobs indexed before the current
+        // filter rules were loaded are checked against them again
+        return Mono.fromCallable(() -> jobIndex.search(query, jobFilter::accepts))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+}
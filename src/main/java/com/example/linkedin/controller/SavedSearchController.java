@@ -0,0 +1,59 @@
+package com.example.linkedin.controller;
+
+import com.example.linkedin.model.Job;
+import com.example.linkedin.model.SearchRequest;
+import com.example.linkedin.saved.SavedSearch;
+import com.example.linkedin.saved.SavedSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/jobs/saved")
+@Tag(name = "Saved Search API", description = "Save searches and fetch only the jobs posted since the last fetch")
+public class SavedSearchController {
+    private final SavedSearchService savedSearchService;
+
+    public SavedSearchController(SavedSearchService savedSearchService) {
+        this.savedSearchService = savedSearchService;
+    }
+
+    @Operation(summary = "Save a search; jobs it finds from now on are collected in the background")
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<SavedSearch> create(@RequestBody @Valid SearchRequest request) {
+        return savedSearchService.create(request);
+    }
+
+    @Operation(summary = "List the saved searches of the current member")
+    @GetMapping
+    public Flux<SavedSearch> list() {
+        return savedSearchService.list();
+    }
+
+    @Operation(summary = "Delete a saved search")
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable String id) {
+        return savedSearchService.delete(id);
+    }
+
+    @Operation(summary = "Return the jobs found by a saved search since the previous call")
+    @GetMapping("/{id}/new")
+    public Mono<List<Job>> newJobs(@PathVariable String id) {
+        return savedSearchService.takeNewJobs(id);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.linkedin.filter;
+
+import com.example.linkedin.model.Job;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Filter rules compiled into matchers whose cost per job does not grow with the number of entries: one
+ * {@link KeywordAutomaton} pass over title and company for every keyword rule together, and hash lookups for
+ * companies and apply URL domains. Immutable and safe to share between threads.
+ */
+public final class CompiledRules {
+    static final CompiledRules EMPTY = compile(List.of());
+
+    private final List<FilterRule> rules;
+    private final KeywordAutomaton keywords;
+    private final Map<String, Integer> companies;
+    private final Map<String, Integer> domains;
+    private final int entries;
+
+    private CompiledRules(
+        List<FilterRule> rules,
+        KeywordAutomaton keywords,
+        Map<String, Integer> companies,
+        Map<String, Integer> domains,
+        int entries
+    ) {
+        this.rules = rules;
+        this.keywords = keywords;
+        this.companies = companies;
+        this.domains = domains;
+        this.entries = entries;
+    }
+
+    /**
+     * An entry listed by several rules of the same type belongs to the first of them.
+     */
+    public static CompiledRules compile(List<FilterRule> rules) {
+        Map<String, Integer> keywords = new HashMap<>();
+        Map<String, Integer> companies = new HashMap<>();
+        Map<String, Integer> domains = new HashMap<>();
+        int entries = 0;
+        for (int index = 0; index < rules.size(); index++) {
+            FilterRule rule = rules.get(index);
+            for (String value : rule.values()) {
+                String key = switch (rule.type()) {
+                    case KEYWORD -> KeywordAutomaton.fold(value).strip();
+                    case COMPANY -> normalizeCompany(value);
+                    case DOMAIN -> normalizeDomain(value);
+                };
+                if (key.isEmpty()) {
+                    continue;
+                }
+                Map<String, Integer> target = switch (rule.type()) {
+                    case KEYWORD -> keywords;
+                    case COMPANY -> companies;
+                    case DOMAIN -> domains;
+                };
+                if (target.putIfAbsent(key, index) == null) {
+                    entries++;
+                }
+            }
+        }
+        return new CompiledRules(List.copyOf(rules), new KeywordAutomaton(keywords), companies, domains, entries);
+    }
+
+    /**
+     * Matchers are tried by type, not by rule order: company rules first, then domain rules, then keyword rules, where
+     * the keyword ending first in the title, or else in the company name, decides. A job matched by several rules is
+     * attributed to the first rule found this way.
+     *
+     * @return the index of the rule excluding {@code job}, or {@code -1} when no rule matches
+     */
+    public int match(Job job) {
+        if (!companies.isEmpty() && job.company() != null) {
+            Integer rule = companies.get(normalizeCompany(job.company()));
+            if (rule != null) {
+                return rule;
+            }
+        }
+        if (!domains.isEmpty() && job.applyUrl() != null) {
+            int rule = matchDomain(host(job.applyUrl()));
+            if (rule >= 0) {
+                return rule;
+            }
+        }
+        int rule = keywords.match(job.title());
+        return rule >= 0 ? rule : keywords.match(job.company());
+    }
+
+    public List<FilterRule> rules() {
+        return rules;
+    }
+
+    /**
+     * @return entries across all rules, without duplicates
+     */
+    public int entries() {
+        return entries;
+    }
+
+    private int matchDomain(String host) {
+        String domain = host;
+        while (domain != null) {
+            Integer rule = domains.get(domain);
+            if (rule != null) {
+                return rule;
+            }
+            int dot = domain.indexOf('.');
+            domain = dot < 0 ? null : domain.substring(dot + 1);
+        }
+        return -1;
+    }
+
+    static String normalizeCompany(String company) {
+        return KeywordAutomaton.fold(company).strip();
+    }
+
+    static String normalizeDomain(String domain) {
+        String host = domain.contains("://") ? host(domain) : domain.strip().toLowerCase(Locale.ROOT);
+        return host.startsWith("www.") ? host.substring(4) : host;
+    }
+
+    /**
+     * Host of an absolute URL, lower case, without parsing the rest of it.
+     */
+    static String host(String url) {
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        String authority = url.substring(start, end);
+        int at = authority.lastIndexOf('@');
+        int colon = authority.indexOf(':', at + 1);
+        return authority.substring(at + 1, colon < 0 ? authority.length() : colon).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.linkedin.filter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings for the job filter rules applied to every search on top of dropping Easy Apply jobs.
+ *
+ * @param redisEnabled    whether rules are also loaded from Redis, where they override configured rules of the same name
+ * @param redisKeyPrefix  prefix of the Redis keys holding rules
+ * @param reloadInterval  pause between two checks of the Redis rule version
+ * @param rules           rules from configuration
+ */
+@ConfigurationProperties("linkedin.filter")
+public record FilterProperties(
+    @DefaultValue("true") boolean redisEnabled,
+    @DefaultValue("linkedin:filter:") String redisKeyPrefix,
+    @DefaultValue("30s") Duration reloadInterval,
+    List<Rule> rules
+) {
+    public FilterProperties {
+        rules = rules == null ? List.of() : List.copyOf(rules);
+    }
+
+    /**
+     * @param name    rule name, used as the {@code rule} tag of the hit counter
+     * @param type    what the entries are matched against
+     * @param values  entries listed inline
+     * @param file    file with further entries, one per line; blank lines and lines starting with {@code #} are skipped
+     */
+    public record Rule(String name, RuleType type, List<String> values, Resource file) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.linkedin.filter;
+
+import java.util.List;
+
+/**
+ * A named list of entries; a job matching any entry is excluded from search results.
+ */
+public record FilterRule(String name, RuleType type, List<String> values) {
+}
@@ -0,0 +1,187 @@
+package com.example.linkedin.filter;
+
+import com.example.linkedin.model.Job;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drops jobs matched by a filter rule from search results.
+ * <p>
+ * Rules come from configuration and, optionally, from Redis: the hash {@code <prefix>rules} maps each rule
+ * name to its type, the set {@code <prefix>rule:<name>} holds its entries, and {@code <prefix>version} is
+ * changed by whoever edits them. The version is checked every {@code reloadInterval}; rules are then loaded
+ * and compiled off the request threads and swapped in atomically, so searches never wait for a reload and
+ * always see one complete rule set.
+ */
+@Component
+public class JobFilter {
+    private static final Logger logger = LoggerFactory.getLogger(JobFilter.class);
+
+    private final FilterProperties properties;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final List<FilterRule> configured;
+    private final AtomicReference<Active> active;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    private final Counter reloaded;
+    private final Counter reloadFailed;
+    private final Timer compileTimer;
+
+    public JobFilter(FilterProperties properties, ReactiveStringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.reloaded = meterRegistry.counter("linkedin.filter.reloads", "result", "success");
+        this.reloadFailed = meterRegistry.counter("linkedin.filter.reloads", "result", "failure");
+        this.compileTimer = meterRegistry.timer("linkedin.filter.compile");
+        this.configured = properties.rules().stream().map(JobFilter::resolve).toList();
+        this.active = new AtomicReference<>(activate(configured, null));
+        meterRegistry.gauge("linkedin.filter.entries", active, current -> current.get().rules().entries());
+    }
+
+    /**
+     * @return the jobs no rule matches, in their original order
+     */
+    public List<Job> retain(List<Job> jobs) {
+        Active current = active.get();
+        if (current.rules().entries() == 0 || jobs.isEmpty()) {
+            return jobs;
+        }
+        List<Job> kept = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            int rule = current.rules().match(job);
+            if (rule < 0) {
+                kept.add(job);
+            } else {
+                current.hits()[rule].increment();
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * @return whether no rule matches {@code job}; for jobs arriving one by one
+     */
+    public boolean accepts(Job job) {
+        Active current = active.get();
+        if (current.rules().entries() == 0) {
+            return true;
+        }
+        int rule = current.rules().match(job);
+        if (rule < 0) {
+            return true;
+        }
+        current.hits()[rule].increment();
+        return false;
+    }
+
+    public CompiledRules rules() {
+        return active.get().rules();
+    }
+
+    @Scheduled(fixedDelayString = "${linkedin.filter.reload-interval:PT30S}")
+    public void refresh() {
+        reload(false).subscribe(
+            rules -> { },
+            error -> logger.warn("Reloading job filter rules failed, keeping the current ones", error)
+        );
+    }
+
+    /**
+     * Loads the rules from Redis and swaps them in, unless {@code force} is {@code false} and their version has
+     * not changed. Completes empty when nothing was reloaded.
+     */
+    public Mono<CompiledRules> reload(boolean force) {
+        if (!properties.redisEnabled()) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            if (!reloading.compareAndSet(false, true)) {
+                return Mono.empty();
+            }
+            return redisTemplate.opsForValue().get(properties.redisKeyPrefix() + "version")
+                .defaultIfEmpty("")
+                .filter(version -> force || !version.equals(active.get().version()))
+                .flatMap(version -> loadRedisRules().map(rules -> Map.entry(version, rules)))
+                .publishOn(Schedulers.boundedElastic())
+                .map(loaded -> {
+                    Active next = activate(merge(configured, loaded.getValue()), loaded.getKey());
+                    active.set(next);
+                    reloaded.increment();
+                    logger.info("Loaded {} job filter rule(s) with {} entries, version '{}'",
+                        next.rules().rules().size(), next.rules().entries(), loaded.getKey());
+                    return next.rules();
+                })
+                .doOnError(error -> reloadFailed.increment())
+                .doFinally(signal -> reloading.set(false));
+        });
+    }
+
+    private Mono<List<FilterRule>> loadRedisRules() {
+        String prefix = properties.redisKeyPrefix();
+        return redisTemplate.<String, String>opsForHash().entries(prefix + "rules")
+            .concatMap(entry -> redisTemplate.opsForSet().members(prefix + "rule:" + entry.getKey())
+                .collectList()
+                .map(values -> new FilterRule(entry.getKey(), RuleType.valueOf(entry.getValue().strip().toUpperCase(Locale.ROOT)), values)))
+            .collectList();
+    }
+
+    private Active activate(List<FilterRule> rules, String version) {
+        CompiledRules compiled = compileTimer.record(() -> CompiledRules.compile(rules));
+        Counter[] hits = rules.stream()
+            .map(rule -> meterRegistry.counter("linkedin.filter.hits", "rule", rule.name()))
+            .toArray(Counter[]::new);
+        return new Active(compiled, hits, version);
+    }
+
+    private static List<FilterRule> merge(List<FilterRule> configured, List<FilterRule> fromRedis) {
+        Map<String, FilterRule> byName = new LinkedHashMap<>();
+        configured.forEach(rule -> byName.put(rule.name(), rule));
+        fromRedis.forEach(rule -> byName.put(rule.name(), rule));
+        return List.copyOf(byName.values());
+    }
+
+    private static FilterRule resolve(FilterProperties.Rule rule) {
+        List<String> values = new ArrayList<>(rule.values() == null ? List.of() : rule.values());
+        if (rule.file() != null) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(rule.file().getInputStream(), StandardCharsets.UTF_8))) {
+                reader.lines()
+                    .map(String::strip)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .forEach(values::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read entries of job filter rule " + rule.name() + " from " + rule.file(), e);
+            }
+        }
+        return new FilterRule(rule.name(), rule.type(), values);
+    }
+
+    /**
+     * @param hits     hit counter per rule, in rule order
+     * @param version  Redis rule version the rules were loaded with, {@code null} before the first load
+     */
+    private record Active(CompiledRules rules, Counter[] hits, String version) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.linkedin.filter;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/jobfilter} lists the active filter rules; {@code POST /actuator/jobfilter} reloads them
+ * from Redis right away, whatever their version. Only members with {@code ROLE_ADMIN} may reload them.
+ */
+@Component
+@Endpoint(id = "jobfilter")
+public class JobFilterEndpoint {
+    private final JobFilter jobFilter;
+
+    public JobFilterEndpoint(JobFilter jobFilter) {
+        this.jobFilter = jobFilter;
+    }
+
+    @ReadOperation
+    public List<RuleSummary> rules() {
+        return summarize(jobFilter.rules());
+    }
+
+    @WriteOperation
+    public Mono<List<RuleSummary>> reload() {
+        return jobFilter.reload(true)
+            .defaultIfEmpty(jobFilter.rules())
+            .map(JobFilterEndpoint::summarize);
+    }
+
+    private static List<RuleSummary> summarize(CompiledRules rules) {
+        return rules.rules().stream()
+            .map(rule -> new RuleSummary(rule.name(), rule.type(), rule.values().size()))
+            .toList();
+    }
+
+    public record RuleSummary(String name, RuleType type, int entries) {
+    }
+}
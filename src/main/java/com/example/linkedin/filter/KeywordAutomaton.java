@@ -0,0 +1,182 @@
+package com.example.linkedin.filter;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton finding any of many keywords in a single pass over a text, whatever the keyword count.
+ * <p>
+ * Texts and keywords are folded the same way: lower case, every run of other characters than letters and digits
+ * turned into one space, one space added on both ends. A keyword then only matches whole words, because its
+ * surrounding spaces have to match as well.
+ * <p>
+ * Immutable once built and safe to share between threads.
+ */
+final class KeywordAutomaton {
+    private static final int ROOT = 0;
+    private static final char[] NO_LABELS = new char[0];
+    private static final int[] NO_TARGETS = new int[0];
+
+    /** Per state, the characters leading to child states, sorted, and the child states in the same order. */
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    /** Per state, the rule of a keyword ending here or at a state on its failure chain, or {@code -1}. */
+    private final int[] output;
+
+    /**
+     * @param keywords  keyword to the index of the rule it belongs to
+     */
+    KeywordAutomaton(Map<String, Integer> keywords) {
+        int capacity = 1;
+        for (String keyword : keywords.keySet()) {
+            capacity += keyword.length() + 2;
+        }
+        char[][] labels = new char[capacity][];
+        int[][] targets = new int[capacity][];
+        int[] childCount = new int[capacity];
+        int[] output = new int[capacity];
+        Arrays.fill(output, -1);
+        int size = 1;
+
+        for (Map.Entry<String, Integer> entry : keywords.entrySet()) {
+            String folded = fold(entry.getKey());
+            if (folded.isBlank()) {
+                continue;
+            }
+            int state = ROOT;
+            for (int i = 0; i < folded.length(); i++) {
+                char c = folded.charAt(i);
+                int count = childCount[state];
+                char[] stateLabels = labels[state] == null ? NO_LABELS : labels[state];
+                int position = Arrays.binarySearch(stateLabels, 0, count, c);
+                if (position >= 0) {
+                    state = targets[state][position];
+                    continue;
+                }
+                position = -position - 1;
+                if (count == stateLabels.length) {
+                    labels[state] = Arrays.copyOf(stateLabels, Math.max(2, count * 2));
+                    targets[state] = Arrays.copyOf(targets[state] == null ? NO_TARGETS : targets[state], Math.max(2, count * 2));
+                }
+                System.arraycopy(labels[state], position, labels[state], position + 1, count - position);
+                System.arraycopy(targets[state], position, targets[state], position + 1, count - position);
+                labels[state][position] = c;
+                targets[state][position] = size;
+                childCount[state] = count + 1;
+                state = size++;
+            }
+            if (output[state] < 0) {
+                output[state] = entry.getValue();
+            }
+        }
+
+        this.labels = new char[size][];
+        this.targets = new int[size][];
+        for (int state = 0; state < size; state++) {
+            int count = childCount[state];
+            this.labels[state] = count == 0 ? NO_LABELS : Arrays.copyOf(labels[state], count);
+            this.targets[state] = count == 0 ? NO_TARGETS : Arrays.copyOf(targets[state], count);
+        }
+        this.output = Arrays.copyOf(output, size);
+        this.fail = new int[size];
+        linkFailures(size);
+    }
+
+    private void linkFailures(int size) {
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = ROOT;
+        while (head < tail) {
+            int state = queue[head++];
+            for (int i = 0; i < labels[state].length; i++) {
+                char c = labels[state][i];
+                int child = targets[state][i];
+                if (state != ROOT) {
+                    int candidate = fail[state];
+                    int next = child(candidate, c);
+                    while (next < 0 && candidate != ROOT) {
+                        candidate = fail[candidate];
+                        next = child(candidate, c);
+                    }
+                    fail[child] = next < 0 ? ROOT : next;
+                    if (output[child] < 0) {
+                        output[child] = output[fail[child]];
+                    }
+                }
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    /**
+     * @return the rule index of a keyword found in {@code text}, or {@code -1}
+     */
+    int match(String text) {
+        if (text == null || labels[ROOT].length == 0) {
+            return -1;
+        }
+        int state = step(ROOT, ' ');
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = foldChar(text.charAt(i));
+            if (c == ' ') {
+                if (space) {
+                    continue;
+                }
+                space = true;
+            } else {
+                space = false;
+            }
+            state = step(state, c);
+            if (output[state] >= 0) {
+                return output[state];
+            }
+        }
+        if (!space) {
+            state = step(state, ' ');
+        }
+        return output[state];
+    }
+
+    int states() {
+        return labels.length;
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            int next = child(state, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = fail[state];
+        }
+    }
+
+    private int child(int state, char c) {
+        int position = Arrays.binarySearch(labels[state], c);
+        return position < 0 ? -1 : targets[state][position];
+    }
+
+    static String fold(String text) {
+        StringBuilder folded = new StringBuilder(text.length() + 2).append(' ');
+        for (int i = 0; i < text.length(); i++) {
+            char c = foldChar(text.charAt(i));
+            if (c != ' ' || folded.charAt(folded.length() - 1) != ' ') {
+                folded.append(c);
+            }
+        }
+        if (folded.charAt(folded.length() - 1) != ' ') {
+            folded.append(' ');
+        }
+        return folded.toString();
+    }
+
+    private static char foldChar(char c) {
+        return Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : ' ';
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.linkedin.filter;
+
+/**
+ * What a {@link FilterRule} matches its entries against.
+ */
+public enum RuleType {
+    /** Words or phrases anywhere in the job title or company name, on word boundaries and ignoring case. */
+    KEYWORD,
+    /** The whole company name, ignoring case and punctuation. */
+    COMPANY,
+    /** The host of the apply URL or any domain above it, so {@code example.com} also matches {@code jobs.example.com}. */
+    DOMAIN
+}
@@ -0,0 +1,371 @@
+package com.example.linkedin.localindex;
+
+import com.example.linkedin.model.Job;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * On-disk index of every job fetched from upstream, so that results can be refined locally (by title words,
+ * company or location) without another upstream call.
+ * <p>
+ * Jobs are written to append-only {@link Segment} files by a single writer thread, fed through a bounded
+ * queue so that fetching never waits on the disk; when the queue is full further jobs are dropped and counted.
+ * A job fetched again supersedes its earlier copy, which is then skipped by searches. A periodic pass merges
+ * small or mostly superseded segments and deletes the oldest segments once {@code maxSize} is exceeded.
+ */
+@Component
+public class JobIndex {
+    private static final Logger logger = LoggerFactory.getLogger(JobIndex.class);
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.seg");
+
+    private final LocalIndexProperties properties;
+    private final BlockingQueue<Job> pending;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Scheduler writer;
+
+    /** Newest job per key ({@link #key(Job)}), as segment sequence and ordinal packed by {@link #ref}. */
+    private final Map<String, Long> latest = new ConcurrentHashMap<>();
+    /** Segments oldest first; replaced as a whole by the writer thread, read freely by searches. */
+    private volatile List<Segment> segments = List.of();
+    private Segment active;
+    private long nextSequence;
+
+    private final Counter indexed;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Counter compactions;
+    private final Counter expired;
+    private final Timer searchTimer;
+
+    public JobIndex(LocalIndexProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pending = new ArrayBlockingQueue<>(Math.max(properties.writeQueue(), 1));
+        this.writer = properties.enabled() ? Schedulers.newSingle("job-index-writer", true) : Schedulers.immediate();
+        this.indexed = meterRegistry.counter("linkedin.local_index.jobs", "result", "indexed");
+        this.dropped = meterRegistry.counter("linkedin.local_index.jobs", "result", "dropped");
+        this.failed = meterRegistry.counter("linkedin.local_index.jobs", "result", "failed");
+        this.compactions = meterRegistry.counter("linkedin.local_index.compactions");
+        this.expired = meterRegistry.counter("linkedin.local_index.segments.expired");
+        this.searchTimer = Timer.builder("linkedin.local_index.search")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        meterRegistry.gauge("linkedin.local_index.segments", this, index -> index.segments.size());
+        meterRegistry.gauge("linkedin.local_index.bytes", this,
+            index -> index.segments.stream().mapToLong(Segment::size).sum());
+        meterRegistry.gauge("linkedin.local_index.live_jobs", latest, Map::size);
+        if (properties.enabled()) {
+            load();
+        }
+    }
+
+    /**
+     * Queues jobs for indexing. Never blocks; jobs that do not fit into the write queue are dropped.
+     */
+    public void addAll(Collection<Job> jobs) {
+        if (!properties.enabled() || jobs.isEmpty()) {
+            return;
+        }
+        for (Job job : jobs) {
+            if (key(job) != null && !pending.offer(job)) {
+                dropped.increment();
+            }
+        }
+        scheduleDrain();
+    }
+
+    public List<Job> search(LocalSearchQuery query) {
+        return search(query, job -> true);
+    }
+
+    /**
+     * @param accept  decides for each matching job whether it is returned; rejected jobs do not count towards the limit
+     */
+    public List<Job> search(LocalSearchQuery query, Predicate<Job> accept) {
+        if (!properties.enabled() || query.limit() <= 0) {
+            return List.of();
+        }
+        return searchTimer.record(() -> {
+            List<String> required = new ArrayList<>(Terms.of(Terms.TITLE, query.keywords()));
+            required.addAll(Terms.of(Terms.COMPANY, query.company()));
+            required.addAll(Terms.of(Terms.LOCATION, query.location()));
+            List<String> excluded = new ArrayList<>(Terms.of(Terms.COMPANY, query.excludeCompany()));
+
+            List<Job> results = new ArrayList<>();
+            List<Segment> snapshot = segments;
+            for (int i = snapshot.size() - 1; i >= 0 && results.size() < query.limit(); i--) {
+                Segment segment = snapshot.get(i);
+                segment.search(required, excluded, ordinal -> {
+                    Job job = segment.read(ordinal);
+                    if (accept.test(job)) {
+                        results.add(job);
+                    }
+                    return results.size() < query.limit();
+                });
+            }
+            return results;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${linkedin.local-index.compaction-interval:PT10M}",
+        initialDelayString = "${linkedin.local-index.compaction-interval:PT10M}")
+    public void maintain() {
+        if (properties.enabled()) {
+            writer.schedule(() -> {
+                try {
+                    compact();
+                    expire();
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Local job index maintenance failed", e);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!properties.enabled()) {
+            return;
+        }
+        writer.schedule(() -> {
+            drain();
+            try {
+                if (active != null) {
+                    active.seal();
+                }
+            } catch (IOException e) {
+                logger.warn("Closing local job index segment {} failed", active.file, e);
+            }
+        });
+        writer.disposeGracefully().block(Duration.ofSeconds(10));
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            writer.schedule(() -> {
+                drain();
+                draining.set(false);
+                if (!pending.isEmpty()) {
+                    scheduleDrain();
+                }
+            });
+        }
+    }
+
+    private void drain() {
+        Job job;
+        while ((job = pending.poll()) != null) {
+            try {
+                write(job);
+                indexed.increment();
+            } catch (IOException | RuntimeException e) {
+                failed.increment();
+                logger.debug("Indexing job {} failed", job.id(), e);
+            }
+        }
+    }
+
+    private void write(Job job) throws IOException {
+        if (active == null || active.isFull()) {
+            if (active != null) {
+                active.seal();
+            }
+            active = Segment.create(properties.directory(), nextSequence++, properties.segmentMaxJobs());
+            List<Segment> updated = new ArrayList<>(segments);
+            updated.add(active);
+            segments = List.copyOf(updated);
+        }
+        int ordinal = active.append(job);
+        supersede(key(job), active, ordinal);
+    }
+
+    private void supersede(String key, Segment segment, int ordinal) {
+        Long previous = latest.put(key, ref(segment.sequence, ordinal));
+        if (previous != null) {
+            Segment holder = find(sequenceOf(previous));
+            if (holder != null) {
+                holder.markDead(ordinalOf(previous));
+            }
+        }
+    }
+
+    /**
+     * Rewrites runs of adjacent sealed segments whose live jobs fit into one segment, and single segments
+     * whose share of superseded jobs reached {@code maxDeadRatio}, into new segments without the dead records.
+     */
+    private void compact() throws IOException {
+        List<Segment> sealed = segments.stream().filter(Segment::isSealed).toList();
+        List<List<Segment>> groups = new ArrayList<>();
+        List<Segment> group = new ArrayList<>();
+        int groupLive = 0;
+        for (Segment segment : sealed) {
+            int live = segment.count() - segment.deadCount();
+            if (!group.isEmpty() && groupLive + live > properties.segmentMaxJobs()) {
+                groups.add(group);
+                group = new ArrayList<>();
+                groupLive = 0;
+            }
+            group.add(segment);
+            groupLive += live;
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        for (List<Segment> candidates : groups) {
+            Segment only = candidates.get(0);
+            boolean worthIt = candidates.size() > 1
+                || only.count() > 0 && (double) only.deadCount() / only.count() >= properties.maxDeadRatio();
+            if (worthIt) {
+                sealActive();
+                merge(candidates);
+            }
+        }
+    }
+
+    /**
+     * Seals the active segment, so that jobs written after a merge go to a segment with a higher sequence than
+     * the merged one. {@link #load()} replays segments in sequence order; a copy written to the old active segment
+     * would otherwise be replayed before the older copy in the merged segment and lose to it after a restart.
+     */
+    private void sealActive() throws IOException {
+        if (active != null) {
+            active.seal();
+            active = null;
+        }
+    }
+
+    private void merge(List<Segment> sources) throws IOException {
+        int capacity = Math.max(sources.stream().mapToInt(segment -> segment.count() - segment.deadCount()).sum(), 1);
+        // Placed where its oldest source was so that searches keep returning newest first. After a restart
+        // segments are ordered by sequence instead, which only changes result order: no job in it has a newer copy
+        // in any existing segment, and later copies go to segments created after it (see sealActive).
+        Segment merged = Segment.create(properties.directory(), nextSequence++, capacity);
+        List<Long> oldRefs = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (Segment source : sources) {
+            for (int ordinal = 0; ordinal < source.count(); ordinal++) {
+                if (!source.isDead(ordinal)) {
+                    Job job = source.read(ordinal);
+                    merged.append(job);
+                    oldRefs.add(ref(source.sequence, ordinal));
+                    keys.add(key(job));
+                }
+            }
+        }
+        merged.seal();
+
+        List<Segment> updated = new ArrayList<>(segments);
+        int position = updated.indexOf(sources.get(0));
+        updated.removeAll(sources);
+        updated.add(position, merged);
+        segments = List.copyOf(updated);
+        for (int ordinal = 0; ordinal < keys.size(); ordinal++) {
+            if (!latest.replace(keys.get(ordinal), oldRefs.get(ordinal), ref(merged.sequence, ordinal))) {
+                merged.markDead(ordinal);
+            }
+        }
+        for (Segment source : sources) {
+            source.delete();
+        }
+        compactions.increment();
+        logger.debug("Merged {} local job index segment(s) into {} with {} job(s)", sources.size(), merged.file, keys.size());
+    }
+
+    /**
+     * Deletes the oldest sealed segments while all segments together exceed {@code maxSize}.
+     */
+    private void expire() throws IOException {
+        long limit = properties.maxSize().toBytes();
+        long total = segments.stream().mapToLong(Segment::size).sum();
+        while (total > limit && segments.size() > 1 && segments.get(0).isSealed()) {
+            Segment oldest = segments.get(0);
+            segments = List.copyOf(segments.subList(1, segments.size()));
+            for (int ordinal = 0; ordinal < oldest.count(); ordinal++) {
+                if (!oldest.isDead(ordinal)) {
+                    latest.remove(key(oldest.read(ordinal)), ref(oldest.sequence, ordinal));
+                }
+            }
+            oldest.delete();
+            total -= oldest.size();
+            expired.increment();
+        }
+    }
+
+    private void load() {
+        Path directory = properties.directory();
+        List<Segment> loaded = new ArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*.seg")) {
+                for (Path file : files) {
+                    Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+                    if (matcher.matches()) {
+                        loaded.add(Segment.open(file, Long.parseLong(matcher.group(1))));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open local job index in " + directory, e);
+        }
+        loaded.sort(Comparator.comparingLong(segment -> segment.sequence));
+        segments = List.copyOf(loaded);
+        for (Segment segment : loaded) {
+            for (int ordinal = 0; ordinal < segment.count(); ordinal++) {
+                supersede(key(segment.read(ordinal)), segment, ordinal);
+            }
+        }
+        nextSequence = loaded.isEmpty() ? 0 : loaded.get(loaded.size() - 1).sequence + 1;
+        logger.info("Opened local job index in {} with {} segment(s) and {} job(s)", directory, loaded.size(), latest.size());
+    }
+
+    private Segment find(long sequence) {
+        for (Segment segment : segments) {
+            if (segment.sequence == sequence) {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    private static String key(Job job) {
+        return job.id() != null ? job.id() : job.applyUrl();
+    }
+
+    private static long ref(long sequence, int ordinal) {
+        return sequence << 32 | ordinal;
+    }
+
+    private static long sequenceOf(long ref) {
+        return ref >>> 32;
+    }
+
+    private static int ordinalOf(long ref) {
+        return (int) ref;
+    }
+}
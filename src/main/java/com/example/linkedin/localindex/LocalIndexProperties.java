@@ -0,0 +1,31 @@
+package com.example.linkedin.localindex;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the on-disk index of fetched jobs.
+ *
+ * @param enabled             whether fetched jobs are indexed at all
+ * @param directory           directory holding the segment files
+ * @param segmentMaxJobs      jobs written to a segment before it is sealed and a new one is started
+ * @param maxSize             total size of all segments beyond which the oldest segments are deleted
+ * @param writeQueue          fetched jobs waiting to be written before further ones are dropped
+ * @param compactionInterval  pause between two compaction and retention passes
+ * @param maxDeadRatio        share of superseded jobs above which a sealed segment is rewritten
+ */
+@ConfigurationProperties("linkedin.local-index")
+public record LocalIndexProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("data/job-index") Path directory,
+    @DefaultValue("10000") int segmentMaxJobs,
+    @DefaultValue("256MB") DataSize maxSize,
+    @DefaultValue("10000") int writeQueue,
+    @DefaultValue("10m") Duration compactionInterval,
+    @DefaultValue("0.3") double maxDeadRatio
+) {
+}
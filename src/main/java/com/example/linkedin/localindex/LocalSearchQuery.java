@@ -0,0 +1,9 @@
+package com.example.linkedin.localindex;
+
+/**
+ * Refinement of already fetched jobs. Every word of {@code keywords} must occur in the title, every word of
+ * {@code company} in the company and every word of {@code location} in the location. Jobs whose company
+ * contains every word of {@code excludeCompany} are left out. {@code null} parameters do not restrict.
+ */
+public record LocalSearchQuery(String keywords, String company, String location, String excludeCompany, int limit) {
+}
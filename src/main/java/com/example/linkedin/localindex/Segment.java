@@ -0,0 +1,329 @@
+package com.example.linkedin.localindex;
+
+import com.example.linkedin.model.Job;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+/**
+ * Append-only file of job records with an in-memory inverted index over their terms.
+ * <p>
+ * A segment is active while jobs are appended to it. Jobs are then also kept on the heap. Once full it is
+ * sealed: the file is memory-mapped read-only, the postings are frozen into sorted arrays and the heap copies
+ * are dropped. Appends and sealing happen on the index writer thread only; searches may run on any thread.
+ * <p>
+ * Record layout: {@code int length} (of everything after it), {@code byte version}, {@code byte easyApply},
+ * then {@code id},
+ * {@code applyUrl}, {@code title}, {@code company} and {@code location}, each as {@code int} byte length
+ * ({@code -1} for {@code null}) followed by UTF-8 bytes.
+ */
+final class Segment {
+    private static final byte RECORD_VERSION = 1;
+
+    final long sequence;
+    final Path file;
+    private final int capacity;
+
+    // Active state, guarded by this
+    private FileChannel channel;
+    private List<Job> jobs;
+    private IntList jobOffsets;
+    private Map<String, IntList> activePostings;
+
+    // Sealed state, published through the volatile write of sealed
+    private MappedByteBuffer mapped;
+    private int[] offsets;
+    private Map<String, int[]> postings;
+    private volatile boolean sealed;
+
+    private final AtomicLongArray dead;
+    private final AtomicInteger deadCount = new AtomicInteger();
+    private volatile int count;
+    private volatile long size;
+
+    private Segment(long sequence, Path file, int capacity) {
+        this.sequence = sequence;
+        this.file = file;
+        this.capacity = capacity;
+        this.dead = new AtomicLongArray((capacity + 63) / 64);
+    }
+
+    static Segment create(Path directory, long sequence, int capacity) throws IOException {
+        Segment segment = new Segment(sequence, directory.resolve(fileName(sequence)), capacity);
+        segment.channel = FileChannel.open(segment.file,
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        segment.jobs = new ArrayList<>();
+        segment.jobOffsets = new IntList();
+        segment.activePostings = new HashMap<>();
+        return segment;
+    }
+
+    /**
+     * Opens a segment written earlier, dropping a partially written last record if the process stopped mid-write.
+     */
+    static Segment open(Path file, long sequence) throws IOException {
+        List<Integer> offsets = new ArrayList<>();
+        long validLength;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int position = 0;
+            while (position + 4 <= buffer.limit()) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + 4 + length > buffer.limit()) {
+                    break;
+                }
+                offsets.add(position);
+                position += 4 + length;
+            }
+            validLength = position;
+            if (validLength < channel.size()) {
+                channel.truncate(validLength);
+            }
+        }
+        Segment segment = new Segment(sequence, file, Math.max(offsets.size(), 1));
+        segment.freeze(offsets.stream().mapToInt(Integer::intValue).toArray(), validLength);
+        return segment;
+    }
+
+    static String fileName(long sequence) {
+        return String.format("segment-%020d.seg", sequence);
+    }
+
+    /**
+     * @return the ordinal of the job in this segment
+     */
+    synchronized int append(Job job) throws IOException {
+        byte[] record = encode(job);
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        int ordinal = jobs.size();
+        jobs.add(job);
+        jobOffsets.add((int) size);
+        for (String term : Terms.of(job)) {
+            activePostings.computeIfAbsent(term, key -> new IntList()).add(ordinal);
+        }
+        size += record.length;
+        count = ordinal + 1;
+        return ordinal;
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    synchronized void seal() throws IOException {
+        if (sealed) {
+            return;
+        }
+        channel.force(false);
+        channel.close();
+        channel = null;
+        freeze(jobOffsets.toArray(), size);
+        jobs = null;
+        jobOffsets = null;
+        activePostings = null;
+    }
+
+    private void freeze(int[] recordOffsets, long fileSize) throws IOException {
+        try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        }
+        offsets = recordOffsets;
+        Map<String, IntList> building = new HashMap<>();
+        for (int ordinal = 0; ordinal < recordOffsets.length; ordinal++) {
+            for (String term : Terms.of(decode(ordinal))) {
+                building.computeIfAbsent(term, key -> new IntList()).add(ordinal);
+            }
+        }
+        Map<String, int[]> frozen = new HashMap<>(building.size() * 2);
+        building.forEach((term, list) -> frozen.put(term, list.toArray()));
+        postings = frozen;
+        count = recordOffsets.length;
+        size = fileSize;
+        sealed = true;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long size() {
+        return size;
+    }
+
+    int deadCount() {
+        return deadCount.get();
+    }
+
+    void markDead(int ordinal) {
+        int word = ordinal >>> 6;
+        long bit = 1L << (ordinal & 63);
+        long current;
+        do {
+            current = dead.get(word);
+            if ((current & bit) != 0) {
+                return;
+            }
+        } while (!dead.compareAndSet(word, current, current | bit));
+        deadCount.incrementAndGet();
+    }
+
+    boolean isDead(int ordinal) {
+        return (dead.get(ordinal >>> 6) & (1L << (ordinal & 63))) != 0;
+    }
+
+    Job read(int ordinal) {
+        if (sealed) {
+            return decode(ordinal);
+        }
+        synchronized (this) {
+            return sealed ? decode(ordinal) : jobs.get(ordinal);
+        }
+    }
+
+    /**
+     * Calls {@code consumer} with the ordinals of live jobs carrying every {@code required} term and not every
+     * {@code excluded} term, newest first, until it returns {@code false}.
+     */
+    void search(List<String> required, List<String> excluded, IntPredicate consumer) {
+        if (sealed) {
+            searchSealed(required, excluded, consumer);
+            return;
+        }
+        synchronized (this) {
+            if (sealed) {
+                searchSealed(required, excluded, consumer);
+                return;
+            }
+            int[] matches = required.isEmpty() ? null : intersect(required, term -> {
+                IntList list = activePostings.get(term);
+                return list == null ? new int[0] : list.toArray();
+            });
+            int[] exclusions = excluded.isEmpty() ? new int[0] : intersect(excluded, term -> {
+                IntList list = activePostings.get(term);
+                return list == null ? new int[0] : list.toArray();
+            });
+            emit(matches, exclusions, jobs.size(), consumer);
+        }
+    }
+
+    private void searchSealed(List<String> required, List<String> excluded, IntPredicate consumer) {
+        int[] matches = required.isEmpty() ? null : intersect(required, term -> postings.getOrDefault(term, new int[0]));
+        int[] exclusions = excluded.isEmpty() ? new int[0] : intersect(excluded, term -> postings.getOrDefault(term, new int[0]));
+        emit(matches, exclusions, offsets.length, consumer);
+    }
+
+    private void emit(int[] matches, int[] exclusions, int total, IntPredicate consumer) {
+        int remaining = matches == null ? total : matches.length;
+        for (int i = remaining - 1; i >= 0; i--) {
+            int ordinal = matches == null ? i : matches[i];
+            if (isDead(ordinal) || Arrays.binarySearch(exclusions, ordinal) >= 0) {
+                continue;
+            }
+            if (!consumer.test(ordinal)) {
+                return;
+            }
+        }
+    }
+
+    private static int[] intersect(List<String> terms, Function<String, int[]> postingsOf) {
+        int[][] lists = terms.stream().map(postingsOf).sorted((a, b) -> Integer.compare(a.length, b.length)).toArray(int[][]::new);
+        int[] result = lists[0];
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            int[] other = lists[i];
+            result = Arrays.stream(result).filter(ordinal -> Arrays.binarySearch(other, ordinal) >= 0).toArray();
+        }
+        return result;
+    }
+
+    private Job decode(int ordinal) {
+        int position = offsets[ordinal] + 4;
+        if (mapped.get(position) != RECORD_VERSION) {
+            throw new IllegalStateException("Unsupported job record version " + mapped.get(position) + " in " + file);
+        }
+        boolean easyApply = mapped.get(position + 1) != 0;
+        position += 2;
+        String[] fields = new String[5];
+        for (int i = 0; i < fields.length; i++) {
+            int length = mapped.getInt(position);
+            position += 4;
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                mapped.get(position, bytes);
+                fields[i] = new String(bytes, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+        return new Job(fields[0], fields[1], easyApply, fields[2], fields[3], fields[4]);
+    }
+
+    private static byte[] encode(Job job) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeByte(RECORD_VERSION);
+        out.writeBoolean(job.easyApply());
+        for (String field : new String[] {job.id(), job.applyUrl(), job.title(), job.company(), job.location()}) {
+            if (field == null) {
+                out.writeInt(-1);
+            } else {
+                byte[] utf8 = field.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+            }
+        }
+        byte[] record = bytes.toByteArray();
+        ByteBuffer.wrap(record).putInt(0, record.length - 4);
+        return record;
+    }
+
+    void delete() throws IOException {
+        synchronized (this) {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+        // The mapping stays valid for searches still holding this segment; it is released once unreachable
+        Files.deleteIfExists(file);
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.linkedin.localindex;
+
+import com.example.linkedin.model.Job;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns job fields and query parameters into index terms: lower-cased words prefixed with their field,
+ * {@code t:} for title, {@code c:} for company and {@code l:} for location.
+ */
+final class Terms {
+    static final String TITLE = "t:";
+    static final String COMPANY = "c:";
+    static final String LOCATION = "l:";
+
+    private Terms() {
+    }
+
+    static Set<String> of(Job job) {
+        Set<String> terms = new LinkedHashSet<>();
+        add(terms, TITLE, job.title());
+        add(terms, COMPANY, job.company());
+        add(terms, LOCATION, job.location());
+        return terms;
+    }
+
+    static Set<String> of(String prefix, String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        add(terms, prefix, text);
+        return terms;
+    }
+
+    private static void add(Set<String> terms, String prefix, String text) {
+        if (text == null) {
+            return;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(prefix + text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+    }
+}
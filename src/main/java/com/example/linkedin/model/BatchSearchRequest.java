@@ -0,0 +1,10 @@
+package com.example.linkedin.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchSearchRequest(@NotEmpty @Size(max = 50) List<@Valid SearchRequest> searches) {
+}
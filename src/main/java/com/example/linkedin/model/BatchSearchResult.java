@@ -0,0 +1,27 @@
+package com.example.linkedin.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of one search within a batch. {@code index} is the position of the search in the request.
+ * Exactly one of {@code links} and {@code error} is set; {@code error} is one of the codes below.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchSearchResult(int index, String query, String country, List<String> links, String error) {
+    /** LinkedIn rate limits were exhausted; retry the search later. */
+    public static final String RATE_LIMITED = "rate_limited";
+    /** LinkedIn failed, timed out or is considered unhealthy. */
+    public static final String UPSTREAM_UNAVAILABLE = "upstream_unavailable";
+    /** Any other failure, such as LinkedIn rejecting the search. */
+    public static final String SEARCH_FAILED = "search_failed";
+
+    public static BatchSearchResult success(int index, SearchRequest search, List<String> links) {
+        return new BatchSearchResult(index, search.query(), search.country(), links, null);
+    }
+
+    public static BatchSearchResult failure(int index, SearchRequest search, String error) {
+        return new BatchSearchResult(index, search.query(), search.country(), null, error);
+    }
+}
@@ -1,4 +1,15 @@
 package com.example.linkedin.model;
 
-public record Job(String id, String applyUrl, boolean easyApply) {
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A job posting as far as this service reads it. {@code title}, {@code company} and {@code location}
+ * are {@code null} when the upstream payload does not carry them.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Job(String id, String applyUrl, boolean easyApply, String title, String company, String location) {
+
+    public Job(String id, String applyUrl, boolean easyApply) {
+        this(id, applyUrl, easyApply, null, null, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.example.linkedin.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record SearchRequest(@NotBlank String query, @NotBlank String country) {
+}
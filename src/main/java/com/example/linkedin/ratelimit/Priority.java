@@ -0,0 +1,24 @@
+package com.example.linkedin.ratelimit;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Lane an upstream call waits in when the rate limits are exhausted. Lanes are served in declaration order.
+ * The priority travels in the Reactor context; calls without one are {@link #INTERACTIVE}.
+ */
+public enum Priority {
+    INTERACTIVE,
+    BATCH,
+    BACKGROUND;
+
+    private static final String CONTEXT_KEY = Priority.class.getName();
+
+    public Context asContext() {
+        return Context.of(CONTEXT_KEY, this);
+    }
+
+    public static Priority from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, INTERACTIVE);
+    }
+}
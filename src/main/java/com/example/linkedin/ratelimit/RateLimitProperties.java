@@ -0,0 +1,43 @@
+package com.example.linkedin.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Limits applied to calls towards the LinkedIn API.
+ *
+ * @param globalRate         calls per second across all callers
+ * @param globalBurst        calls allowed at once before {@code globalRate} applies
+ * @param perTokenRate       calls per second for a single access token
+ * @param perTokenBurst      calls allowed at once for a single access token
+ * @param interactiveQueue   calls allowed to wait in the {@link Priority#INTERACTIVE} lane before new ones are rejected
+ * @param batchQueue         same for the {@link Priority#BATCH} lane
+ * @param backgroundQueue    same for the {@link Priority#BACKGROUND} lane
+ * @param maxRetries         retries of a call answered with {@code 429}
+ * @param minBackoff         first retry delay when the response carries no usable {@code Retry-After}
+ * @param maxBackoff         upper bound on retry delays and on honored {@code Retry-After} values
+ */
+@ConfigurationProperties("linkedin.rate-limit")
+public record RateLimitProperties(
+    @DefaultValue("50") double globalRate,
+    @DefaultValue("100") int globalBurst,
+    @DefaultValue("5") double perTokenRate,
+    @DefaultValue("10") int perTokenBurst,
+    @DefaultValue("1000") int interactiveQueue,
+    @DefaultValue("500") int batchQueue,
+    @DefaultValue("200") int backgroundQueue,
+    @DefaultValue("3") int maxRetries,
+    @DefaultValue("200ms") Duration minBackoff,
+    @DefaultValue("30s") Duration maxBackoff
+) {
+
+    int queueCapacity(Priority priority) {
+        return switch (priority) {
+            case INTERACTIVE -> interactiveQueue;
+            case BATCH -> batchQueue;
+            case BACKGROUND -> backgroundQueue;
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.linkedin.ratelimit;
+
+/**
+ * Classic token bucket refilled continuously at {@code ratePerSecond} up to {@code capacity}.
+ * Callers must hold the scheduler lock; the bucket itself is not synchronized.
+ */
+final class TokenBucket {
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double ratePerSecond, int capacity, long now) {
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * @return {@code 0} if a token is available now, otherwise the nanoseconds until one will be
+     */
+    long nanosUntilAvailable(long now) {
+        refill(now);
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    void take() {
+        tokens -= 1;
+    }
+
+    private void refill(long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.linkedin.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * The lane an upstream call would wait in is full, so the call was shed without reaching LinkedIn.
+ * Unlike {@link UpstreamRateLimitedException} it is never retried: retrying would only queue again behind the
+ * same backlog. Surfaces to the client as {@code 503} with a {@code Retry-After} header.
+ */
+public class UpstreamQueueFullException extends ResponseStatusException {
+    private final Duration retryAfter;
+
+    public UpstreamQueueFullException(String reason, Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        return headers;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.linkedin.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * LinkedIn answered {@code 429 Too Many Requests}. {@link UpstreamScheduler} retries the call after a backoff.
+ * Surfaces to the client as {@code 503} with a {@code Retry-After} header.
+ */
+public class UpstreamRateLimitedException extends ResponseStatusException {
+    private final Duration retryAfter;
+
+    public UpstreamRateLimitedException(String reason, Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        return headers;
+    }
+}
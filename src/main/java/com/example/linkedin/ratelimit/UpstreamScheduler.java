@@ -0,0 +1,226 @@
+package com.example.linkedin.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits calls to the LinkedIn API through a global token bucket and one token bucket per access token.
+ * Calls that cannot go immediately wait in a bounded lane per {@link Priority}. Lanes are drained strictly in
+ * priority order, and within a lane a call whose own token is exhausted does not hold up calls of other tokens.
+ * <p>
+ * A {@code 429} from LinkedIn pauses every lane for the {@code Retry-After} period (plus jitter, so that waiting
+ * calls do not all resume at the same instant), and the throttled call is retried with jittered exponential backoff.
+ */
+@Component
+public class UpstreamScheduler {
+    private static final int MAX_SCAN_PER_LANE = 64;
+
+    private final RateLimitProperties properties;
+    private final Object lock = new Object();
+    private final Map<Priority, ArrayDeque<Waiter>> lanes = new EnumMap<>(Priority.class);
+    private final TokenBucket globalBucket;
+    private final Cache<String, TokenBucket> tokenBuckets;
+    private final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+    private final Counter rejected;
+    private final Counter throttled;
+
+    private long pausedUntil;
+    private Disposable wakeUp;
+    private long wakeUpAt;
+
+    public UpstreamScheduler(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.globalBucket = new TokenBucket(properties.globalRate(), properties.globalBurst(), System.nanoTime());
+        this.tokenBuckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+        for (Priority priority : Priority.values()) {
+            ArrayDeque<Waiter> lane = new ArrayDeque<>();
+            lanes.put(priority, lane);
+            String laneName = priority.name().toLowerCase();
+            meterRegistry.gauge("linkedin.upstream.queue.depth", List.of(Tag.of("lane", laneName)),
+                lane, queue -> {
+                    synchronized (lock) {
+                        return queue.size();
+                    }
+                });
+            waitTimers.put(priority, Timer.builder("linkedin.upstream.queue.wait")
+                .description("Time an upstream call waited for a rate limit permit")
+                .tag("lane", laneName)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+        this.rejected = meterRegistry.counter("linkedin.upstream.rejected");
+        this.throttled = meterRegistry.counter("linkedin.upstream.throttled");
+    }
+
+    /**
+     * Runs {@code call} once a permit for {@code accessToken} is available, in the lane named by the
+     * {@link Priority} in the subscriber context. {@link UpstreamRateLimitedException}s raised by the call
+     * are retried, each retry waiting for a fresh permit. A full lane fails at once with
+     * {@link UpstreamQueueFullException}, which is not retried, so that shed load does not come back.
+     */
+    public <T> Mono<T> schedule(String accessToken, Mono<T> call) {
+        return Mono.deferContextual(context -> acquire(Priority.from(context), accessToken))
+            .then(call)
+            .retryWhen(Retry.backoff(properties.maxRetries(), properties.minBackoff())
+                .maxBackoff(properties.maxBackoff())
+                .jitter(0.5)
+                .filter(UpstreamRateLimitedException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    /**
+     * Takes a permit for {@code accessToken} only if one is available right now and no call is waiting,
+     * so opportunistic extra calls such as hedges never queue or overtake queued calls.
+     */
+    public boolean tryAcquire(String accessToken) {
+        synchronized (lock) {
+            long now = System.nanoTime();
+            if (pausedUntil > now || lanes.values().stream().anyMatch(lane -> !lane.isEmpty())
+                || globalBucket.nanosUntilAvailable(now) > 0) {
+                return false;
+            }
+            TokenBucket tokenBucket = tokenBuckets.get(accessToken,
+                token -> new TokenBucket(properties.perTokenRate(), properties.perTokenBurst(), now));
+            if (tokenBucket.nanosUntilAvailable(now) > 0) {
+                return false;
+            }
+            globalBucket.take();
+            tokenBucket.take();
+            return true;
+        }
+    }
+
+    /**
+     * Stops admitting calls for {@code retryAfter}, capped at {@code maxBackoff}.
+     */
+    public void pause(Duration retryAfter) {
+        throttled.increment();
+        Duration capped = retryAfter.compareTo(properties.maxBackoff()) > 0 ? properties.maxBackoff() : retryAfter;
+        long jitter = ThreadLocalRandom.current().nextLong(properties.minBackoff().toNanos() + 1);
+        synchronized (lock) {
+            pausedUntil = Math.max(pausedUntil, System.nanoTime() + capped.toNanos() + jitter);
+        }
+    }
+
+    private Mono<Void> acquire(Priority priority, String accessToken) {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(priority, accessToken, sink, System.nanoTime());
+            boolean queued;
+            synchronized (lock) {
+                ArrayDeque<Waiter> lane = lanes.get(priority);
+                queued = lane.size() < properties.queueCapacity(priority);
+                if (queued) {
+                    lane.addLast(waiter);
+                }
+            }
+            if (!queued) {
+                rejected.increment();
+                sink.error(new UpstreamQueueFullException(
+                    "Too many queued LinkedIn calls in the " + priority.name().toLowerCase() + " lane", Duration.ofSeconds(1)));
+                return;
+            }
+            // A cancelled waiter leaves its lane at once, so it stops counting against the lane's capacity
+            sink.onCancel(() -> {
+                synchronized (lock) {
+                    lanes.get(priority).remove(waiter);
+                }
+            });
+            drain();
+        });
+    }
+
+    private void drain() {
+        List<Waiter> admitted = new ArrayList<>();
+        synchronized (lock) {
+            long now = System.nanoTime();
+            long nextAttempt = Long.MAX_VALUE;
+
+            lanes:
+            for (ArrayDeque<Waiter> lane : lanes.values()) {
+                Iterator<Waiter> iterator = lane.iterator();
+                int scanned = 0;
+                while (iterator.hasNext() && scanned++ < MAX_SCAN_PER_LANE) {
+                    Waiter waiter = iterator.next();
+                    long globalWait = Math.max(pausedUntil - now, globalBucket.nanosUntilAvailable(now));
+                    if (globalWait > 0) {
+                        nextAttempt = Math.min(nextAttempt, globalWait);
+                        break lanes;
+                    }
+                    TokenBucket tokenBucket = tokenBuckets.get(waiter.accessToken,
+                        token -> new TokenBucket(properties.perTokenRate(), properties.perTokenBurst(), now));
+                    long tokenWait = tokenBucket.nanosUntilAvailable(now);
+                    if (tokenWait > 0) {
+                        nextAttempt = Math.min(nextAttempt, tokenWait);
+                        continue;
+                    }
+                    globalBucket.take();
+                    tokenBucket.take();
+                    iterator.remove();
+                    admitted.add(waiter);
+                }
+                if (!lane.isEmpty() && nextAttempt == Long.MAX_VALUE) {
+                    // Lane scan was cut short by MAX_SCAN_PER_LANE; come back right away
+                    nextAttempt = 0;
+                }
+            }
+
+            if (nextAttempt != Long.MAX_VALUE) {
+                scheduleWakeUp(now, nextAttempt);
+            }
+        }
+
+        long now = System.nanoTime();
+        for (Waiter waiter : admitted) {
+            waitTimers.get(waiter.priority).record(now - waiter.queuedAt, TimeUnit.NANOSECONDS);
+            waiter.sink.success();
+        }
+    }
+
+    private void scheduleWakeUp(long now, long delayNanos) {
+        long at = now + delayNanos;
+        if (wakeUp != null && wakeUpAt > now && wakeUpAt <= at) {
+            return;
+        }
+        if (wakeUp != null) {
+            wakeUp.dispose();
+        }
+        wakeUpAt = at;
+        wakeUp = Schedulers.parallel().schedule(this::drain, Math.max(delayNanos, 1), TimeUnit.NANOSECONDS);
+    }
+
+    private static final class Waiter {
+        private final Priority priority;
+        private final String accessToken;
+        private final MonoSink<Void> sink;
+        private final long queuedAt;
+
+        private Waiter(Priority priority, String accessToken, MonoSink<Void> sink, long queuedAt) {
+            this.priority = priority;
+            this.accessToken = accessToken;
+            this.sink = sink;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
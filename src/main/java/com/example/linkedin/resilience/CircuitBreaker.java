@@ -0,0 +1,139 @@
+package com.example.linkedin.resilience;
+
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker. Opens when the failure rate over the last {@code slidingWindowSize} calls
+ * reaches the threshold, rejects calls while open, then lets {@code halfOpenCalls} trial calls through and
+ * closes again only if all of them succeed.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final ResilienceProperties properties;
+    private final boolean[] window;
+    private final StateListener listener;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int position;
+    private int failures;
+    private long openedAt;
+    private int trialPermits;
+    private int trialSuccesses;
+
+    CircuitBreaker(ResilienceProperties properties, StateListener listener) {
+        this.properties = properties;
+        this.window = new boolean[properties.slidingWindowSize()];
+        this.listener = listener;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return whether a call may go ahead; every permitted call must be reported through exactly one of
+     * {@link #onSuccess()}, {@link #onFailure(long)} or {@link #onIgnored()}
+     */
+    synchronized boolean tryAcquire(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < properties.openDuration().toNanos()) {
+                return false;
+            }
+            trialPermits = properties.halfOpenCalls();
+            trialSuccesses = 0;
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialPermits == 0) {
+                return false;
+            }
+            trialPermits--;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialSuccesses >= properties.halfOpenCalls()) {
+                resetWindow();
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        record(false, 0);
+    }
+
+    synchronized void onFailure(long now) {
+        if (state == State.HALF_OPEN) {
+            open(now);
+            return;
+        }
+        record(true, now);
+    }
+
+    /**
+     * The call ended without telling anything about the upstream's health, e.g. it was cancelled.
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialPermits++;
+        }
+    }
+
+    synchronized Duration remainingOpen(long now) {
+        return state == State.OPEN
+            ? Duration.ofNanos(Math.max(0, properties.openDuration().toNanos() - (now - openedAt)))
+            : Duration.ZERO;
+    }
+
+    private void record(boolean failed, long now) {
+        if (state != State.CLOSED) {
+            return;
+        }
+        if (recorded == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[position] = failed;
+        if (failed) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+
+        if (recorded >= properties.minimumCalls() && failures >= properties.failureRateThreshold() * recorded) {
+            open(now);
+        }
+    }
+
+    private void open(long now) {
+        openedAt = now;
+        resetWindow();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        recorded = 0;
+        position = 0;
+        failures = 0;
+    }
+
+    private void transition(State next) {
+        if (state != next) {
+            state = next;
+            listener.onTransition(next);
+        }
+    }
+
+    @FunctionalInterface
+    interface StateListener {
+        void onTransition(State state);
+    }
+}
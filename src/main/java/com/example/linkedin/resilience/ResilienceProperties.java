@@ -0,0 +1,31 @@
+package com.example.linkedin.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Timeouts, hedging and circuit breaking for calls to the LinkedIn API.
+ *
+ * @param attemptTimeout       time a single upstream attempt, body included, may take before it is abandoned
+ * @param hedgeEnabled         whether a slow attempt is raced against a duplicate
+ * @param hedgeDelay           time after which the duplicate is sent if the first attempt has not answered
+ * @param failureRateThreshold share of failed calls in the window that opens the circuit
+ * @param slidingWindowSize    number of most recent calls the failure rate is computed over
+ * @param minimumCalls         calls needed in the window before the failure rate is considered
+ * @param openDuration         time the circuit stays open before trial calls are let through
+ * @param halfOpenCalls        trial calls that must all succeed to close the circuit again
+ */
+@ConfigurationProperties("linkedin.resilience")
+public record ResilienceProperties(
+    @DefaultValue("5s") Duration attemptTimeout,
+    @DefaultValue("true") boolean hedgeEnabled,
+    @DefaultValue("750ms") Duration hedgeDelay,
+    @DefaultValue("0.5") double failureRateThreshold,
+    @DefaultValue("50") int slidingWindowSize,
+    @DefaultValue("20") int minimumCalls,
+    @DefaultValue("30s") Duration openDuration,
+    @DefaultValue("3") int halfOpenCalls
+) {
+}
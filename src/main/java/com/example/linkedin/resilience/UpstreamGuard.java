@@ -0,0 +1,135 @@
+package com.example.linkedin.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Wraps a single upstream call with a per-attempt timeout, an optional hedged duplicate and a circuit breaker.
+ * <p>
+ * If the first attempt has not answered after {@code hedgeDelay}, a second identical attempt is sent and
+ * whichever succeeds first is kept; the other is cancelled. A failed attempt leaves the other one running, and
+ * the call fails with the primary's error only once both have failed. Timeouts, connection errors and {@code 5xx}
+ * responses count as failures for the breaker and surface as {@link UpstreamUnavailableException}.
+ * While the breaker is open calls fail fast with the same exception without reaching LinkedIn.
+ */
+@Component
+public class UpstreamGuard {
+    private final ResilienceProperties properties;
+    private final CircuitBreaker breaker;
+    private final Counter rejected;
+    private final Counter hedgesSent;
+    private final Counter hedgesSkipped;
+    private final Counter primaryWins;
+    private final Counter hedgeWins;
+
+    public UpstreamGuard(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Map<CircuitBreaker.State, Counter> transitions = new EnumMap<>(CircuitBreaker.State.class);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            transitions.put(state, meterRegistry.counter("linkedin.upstream.breaker.transitions",
+                "to", state.name().toLowerCase()));
+        }
+        this.breaker = new CircuitBreaker(properties, state -> transitions.get(state).increment());
+        Gauge.builder("linkedin.upstream.breaker.state", breaker, b -> b.state().ordinal())
+            .description("Circuit breaker state of the LinkedIn API: 0 closed, 1 half open, 2 open")
+            .register(meterRegistry);
+        this.rejected = meterRegistry.counter("linkedin.upstream.breaker.rejected");
+        this.hedgesSent = meterRegistry.counter("linkedin.upstream.hedge", "result", "sent");
+        this.hedgesSkipped = meterRegistry.counter("linkedin.upstream.hedge", "result", "skipped");
+        this.primaryWins = meterRegistry.counter("linkedin.upstream.hedge.winner", "attempt", "primary");
+        this.hedgeWins = meterRegistry.counter("linkedin.upstream.hedge.winner", "attempt", "hedge");
+    }
+
+    /**
+     * @param attempt     cold publisher; every subscription sends one request
+     * @param hedgePermit asked once the hedge delay has passed; the duplicate is only sent if it returns {@code true}
+     */
+    public <T> Mono<T> execute(Mono<T> attempt, BooleanSupplier hedgePermit) {
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            if (!breaker.tryAcquire(now)) {
+                rejected.increment();
+                return Mono.error(new UpstreamUnavailableException(
+                    "LinkedIn API circuit is open for another " + breaker.remainingOpen(now).toSeconds() + "s", null));
+            }
+            Mono<T> call = properties.hedgeEnabled() ? hedged(attempt, hedgePermit) : timed(attempt);
+            return call
+                .doOnSuccess(value -> breaker.onSuccess())
+                .doOnCancel(breaker::onIgnored)
+                .onErrorMap(error -> {
+                    if (!isUpstreamFailure(error)) {
+                        breaker.onIgnored();
+                        return error;
+                    }
+                    breaker.onFailure(System.nanoTime());
+                    return error instanceof UpstreamUnavailableException
+                        ? error
+                        : new UpstreamUnavailableException("LinkedIn API call failed: " + error.getMessage(), error);
+                });
+        });
+    }
+
+    private <T> Mono<T> hedged(Mono<T> attempt, BooleanSupplier hedgePermit) {
+        return Mono.defer(() -> {
+            AtomicBoolean hedgeSent = new AtomicBoolean();
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            Sinks.One<Boolean> primaryFinished = Sinks.one();
+            Mono<Attempt<T>> primary = timed(attempt)
+                .doOnError(primaryError::set)
+                .doOnTerminate(() -> primaryFinished.tryEmitValue(true))
+                .map(value -> new Attempt<>(value, false));
+            Mono<Attempt<T>> hedge = Mono.delay(properties.hedgeDelay())
+                // A primary that failed before the hedge delay is reported at once instead of being retried
+                .takeUntilOther(primaryFinished.asMono())
+                .filter(tick -> {
+                    boolean permitted = hedgePermit.getAsBoolean();
+                    (permitted ? hedgesSent : hedgesSkipped).increment();
+                    hedgeSent.set(permitted);
+                    return permitted;
+                })
+                .flatMap(tick -> timed(attempt))
+                .map(value -> new Attempt<>(value, true));
+
+            // Without a hedge the primary alone decides the outcome
+            return Mono.firstWithValue(primary, hedge)
+                .map(winner -> {
+                    if (hedgeSent.get()) {
+                        (winner.hedge() ? hedgeWins : primaryWins).increment();
+                    }
+                    return winner.value();
+                })
+                // Both attempts failed, or neither produced a value
+                .onErrorResume(NoSuchElementException.class, error -> primaryError.get() != null
+                    ? Mono.error(primaryError.get())
+                    : Mono.empty());
+        });
+    }
+
+    private <T> Mono<T> timed(Mono<T> attempt) {
+        return attempt.timeout(properties.attemptTimeout(), Mono.error(() -> new UpstreamUnavailableException(
+            "LinkedIn API did not answer within " + properties.attemptTimeout().toMillis() + "ms", new TimeoutException())));
+    }
+
+    private static boolean isUpstreamFailure(Throwable error) {
+        return error instanceof UpstreamUnavailableException
+            || error instanceof WebClientRequestException
+            || (error instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError());
+    }
+
+    private record Attempt<T>(T value, boolean hedge) {
+    }
+}
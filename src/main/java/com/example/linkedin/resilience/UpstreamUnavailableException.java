@@ -0,0 +1,15 @@
+package com.example.linkedin.resilience;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The LinkedIn API failed, timed out, or is considered unhealthy and was not called at all.
+ * Callers holding an older copy of the result may serve it instead.
+ */
+public class UpstreamUnavailableException extends ResponseStatusException {
+
+    public UpstreamUnavailableException(String reason, Throwable cause) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason, cause);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.linkedin.saved;
+
+import java.time.Instant;
+
+public record SavedSearch(String id, String query, String country, Instant createdAt) {
+}
@@ -0,0 +1,113 @@
+package com.example.linkedin.saved;
+
+import com.example.linkedin.model.Job;
+import com.example.linkedin.ratelimit.Priority;
+import com.example.linkedin.service.LinkedInService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Re-runs every saved search in the background and keeps the jobs not seen before for the member to fetch.
+ * Upstream calls run in the background lane of the rate limiter, behind interactive and batch searches.
+ * One instance per run polls, claimed through a Redis key that expires after {@code pollInterval}.
+ */
+@Component
+public class SavedSearchPoller {
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchPoller.class);
+
+    private final SavedSearchStore store;
+    private final LinkedInService linkedInService;
+    private final SavedSearchProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Timer runTimer;
+    private final Counter polled;
+    private final Counter failed;
+    private final Counter newJobs;
+
+    public SavedSearchPoller(
+        SavedSearchStore store,
+        LinkedInService linkedInService,
+        SavedSearchProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.store = store;
+        this.linkedInService = linkedInService;
+        this.properties = properties;
+        this.runTimer = meterRegistry.timer("linkedin.saved.poll.run");
+        this.polled = meterRegistry.counter("linkedin.saved.polls", "result", "success");
+        this.failed = meterRegistry.counter("linkedin.saved.polls", "result", "failure");
+        this.newJobs = meterRegistry.counter("linkedin.saved.jobs.new");
+    }
+
+    @Scheduled(fixedDelayString = "${linkedin.saved.poll-interval:PT15M}", initialDelayString = "${linkedin.saved.poll-interval:PT15M}")
+    public void pollAll() {
+        if (!properties.pollEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        Timer.Sample sample = Timer.start();
+        store.tryClaimPollRun(properties.pollInterval())
+            .filter(Boolean::booleanValue)
+            .flatMap(claimed -> pollOnce())
+            .doFinally(signal -> {
+                sample.stop(runTimer);
+                running.set(false);
+            })
+            .subscribe(
+                done -> { },
+                error -> logger.warn("Saved search polling run failed", error)
+            );
+    }
+
+    /**
+     * Polls every saved search once, whether or not this instance claimed the current run.
+     */
+    public Mono<Void> pollOnce() {
+        return store.owners()
+            .flatMap(owner -> store.list(owner).map(search -> Map.entry(owner, search)))
+            .flatMap(entry -> poll(entry.getKey(), entry.getValue()), properties.pollConcurrency())
+            .then();
+    }
+
+    /**
+     * Records every job the search finds right now as seen, without reporting them as new. Runs on behalf of
+     * the member saving the search, so upstream calls wait in the interactive lane.
+     *
+     * @return the number of jobs found
+     */
+    Mono<Long> baseline(SearchOwner owner, SavedSearch search) {
+        return store.markSeen(owner, search.id(), jobs(owner, search, Priority.INTERACTIVE))
+            .count()
+            .doOnNext(seen -> logger.debug("Saved search {} starts with {} known jobs", search.id(), seen));
+    }
+
+    private Mono<Integer> poll(SearchOwner owner, SavedSearch search) {
+        return store.markSeen(owner, search.id(), jobs(owner, search, Priority.BACKGROUND))
+            .collectList()
+            .flatMap(found -> store.addPending(owner, search.id(), found).thenReturn(found.size()))
+            .doOnNext(found -> {
+                polled.increment();
+                newJobs.increment(found);
+            })
+            .onErrorResume(error -> {
+                failed.increment();
+                logger.debug("Polling saved search {} of {} failed", search.id(), owner.principalName(), error);
+                return Mono.empty();
+            });
+    }
+
+    private Flux<Job> jobs(SearchOwner owner, SavedSearch search, Priority priority) {
+        return linkedInService.searchJobsFor(
+            owner.registrationId(), owner.principalName(), search.query(), search.country(), priority);
+    }
+}
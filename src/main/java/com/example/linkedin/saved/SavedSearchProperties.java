@@ -0,0 +1,29 @@
+package com.example.linkedin.saved;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for saved searches and their background polling.
+ *
+ * @param pollEnabled      whether this instance polls saved searches
+ * @param pollInterval     pause between two polling runs
+ * @param pollConcurrency  saved searches polled at once
+ * @param maxPerMember     saved searches a member may keep
+ * @param maxPending       new jobs kept per saved search until they are fetched; older ones are dropped first
+ * @param seenRetention    time a job stays in the seen-set of a saved search after it was last polled
+ * @param redisKeyPrefix   prefix of every Redis key written for saved searches
+ */
+@ConfigurationProperties("linkedin.saved")
+public record SavedSearchProperties(
+    @DefaultValue("true") boolean pollEnabled,
+    @DefaultValue("15m") Duration pollInterval,
+    @DefaultValue("2") int pollConcurrency,
+    @DefaultValue("20") int maxPerMember,
+    @DefaultValue("500") int maxPending,
+    @DefaultValue("30d") Duration seenRetention,
+    @DefaultValue("linkedin:saved:") String redisKeyPrefix
+) {
+}
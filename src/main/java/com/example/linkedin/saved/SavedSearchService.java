@@ -0,0 +1,82 @@
+package com.example.linkedin.saved;
+
+import com.example.linkedin.filter.JobFilter;
+import com.example.linkedin.model.Job;
+import com.example.linkedin.model.SearchRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Saved searches of the current member. New jobs are found by {@link SavedSearchPoller} in the background;
+ * reading them here never calls LinkedIn.
+ */
+@Service
+public class SavedSearchService {
+    private final SavedSearchStore store;
+    private final SavedSearchPoller poller;
+    private final JobFilter jobFilter;
+
+    public SavedSearchService(SavedSearchStore store, SavedSearchPoller poller, JobFilter jobFilter) {
+        this.store = store;
+        this.poller = poller;
+        this.jobFilter = jobFilter;
+    }
+
+    /**
+     * Records the jobs the search currently finds as seen, then saves it, so that only jobs posted afterwards are
+     * reported as new. The search is saved only once its baseline is complete, so a polling run can never see it
+     * without one; if either step fails, nothing is kept. A member already at {@code maxPerMember} is turned away
+     * before the baseline spends any upstream calls.
+     */
+    public Mono<SavedSearch> create(SearchRequest request) {
+        SavedSearch search = new SavedSearch(UUID.randomUUID().toString(), request.query(), request.country(), Instant.now());
+        return currentOwner()
+            .flatMap(owner -> store.requireCapacity(owner)
+                .then(poller.baseline(owner, search)
+                    .then(store.create(owner, search))
+                    .onErrorResume(error -> store.delete(owner, search.id()).then(Mono.error(error)))));
+    }
+
+    public Flux<SavedSearch> list() {
+        return currentOwner().flatMapMany(store::list);
+    }
+
+    public Mono<Void> delete(String id) {
+        return currentOwner()
+            .flatMap(owner -> store.delete(owner, id))
+            .flatMap(existed -> existed ? Mono.empty() : Mono.error(notFound(id)));
+    }
+
+    /**
+     * Returns the jobs found since the previous call and forgets them. Jobs matched by filter rules loaded since they
+     * were found are dropped.
+     */
+    public Mono<List<Job>> takeNewJobs(String id) {
+        return currentOwner()
+            .flatMap(owner -> store.find(owner, id)
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .flatMap(search -> store.takePending(owner, id).collectList())
+                .map(jobFilter::retain));
+    }
+
+    private static Mono<SearchOwner> currentOwner() {
+        return ReactiveSecurityContextHolder.getContext()
+            .map(SecurityContext::getAuthentication)
+            .cast(OAuth2AuthenticationToken.class)
+            .map(SearchOwner::of);
+    }
+
+    private static ResponseStatusException notFound(String id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "No saved search " + id);
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.linkedin.saved;
+
+import com.example.linkedin.model.Job;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Redis layout of saved searches, below {@code redisKeyPrefix}:
+ * <ul>
+ *   <li>{@code owners}: set of members with at least one saved search</li>
+ *   <li>{@code <owner>:searches}: hash of saved search ID to its JSON</li>
+ *   <li>{@code <owner>:<id>:seen}: set of 64-bit hashes of the job IDs already seen. Up to
+ *   {@code set-max-intset-entries} members (512 by default) Redis packs them at 8 bytes each; a larger set, which a
+ *   broad search reaches within a few polls, becomes a hash table costing several dozen bytes per job until
+ *   {@code seenRetention} expires it.</li>
+ *   <li>{@code <owner>:<id>:new}: list of jobs found since the member last fetched them</li>
+ * </ul>
+ */
+@Component
+public class SavedSearchStore {
+    /**
+     * Adds a saved search unless the member already has the maximum, checked and written in one step so that
+     * concurrent requests cannot exceed it. Returns 1 if the search was added, 0 if the limit was reached.
+     */
+    private static final RedisScript<Long> CREATE = RedisScript.of("""
+        if redis.call('HLEN', KEYS[1]) >= tonumber(ARGV[3]) then
+            return 0
+        end
+        redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+        redis.call('SADD', KEYS[2], ARGV[4])
+        return 1
+        """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final SavedSearchProperties properties;
+
+    public SavedSearchStore(ReactiveStringRedisTemplate redisTemplate, ObjectMapper objectMapper, SavedSearchProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public Mono<SavedSearch> create(SearchOwner owner, SavedSearch search) {
+        List<String> keys = List.of(searchesKey(owner), ownersKey());
+        List<String> args = List.of(search.id(), write(search), Integer.toString(properties.maxPerMember()), owner.key());
+        return redisTemplate.execute(CREATE, keys, args)
+            .next()
+            .flatMap(created -> created == 1 ? Mono.just(search) : Mono.error(limitReached()));
+    }
+
+    /**
+     * Fails with {@code 409} if the member already has the maximum number of saved searches. A cheap check ahead of
+     * expensive work such as the baseline of a new search; {@link #create} checks again atomically.
+     */
+    public Mono<Void> requireCapacity(SearchOwner owner) {
+        return redisTemplate.opsForHash().size(searchesKey(owner))
+            .flatMap(count -> count >= properties.maxPerMember() ? Mono.<Void>error(limitReached()) : Mono.<Void>empty());
+    }
+
+    public Flux<SavedSearch> list(SearchOwner owner) {
+        return redisTemplate.opsForHash().values(searchesKey(owner))
+            .map(json -> read((String) json, SavedSearch.class));
+    }
+
+    public Mono<SavedSearch> find(SearchOwner owner, String id) {
+        return redisTemplate.opsForHash().get(searchesKey(owner), id)
+            .map(json -> read((String) json, SavedSearch.class));
+    }
+
+    /**
+     * @return whether the saved search existed
+     */
+    public Mono<Boolean> delete(SearchOwner owner, String id) {
+        return redisTemplate.opsForHash().remove(searchesKey(owner), id)
+            .flatMap(removed -> redisTemplate.delete(seenKey(owner, id), pendingKey(owner, id))
+                .then(redisTemplate.opsForHash().size(searchesKey(owner)))
+                .flatMap(left -> left == 0 ? redisTemplate.opsForSet().remove(ownersKey(), owner.key()) : Mono.just(0L))
+                .thenReturn(removed > 0));
+    }
+
+    public Flux<SearchOwner> owners() {
+        return redisTemplate.opsForSet().members(ownersKey()).map(SearchOwner::parse);
+    }
+
+    /**
+     * Adds the jobs to the seen-set of the saved search.
+     *
+     * @return the jobs that were not in it yet, in their original order
+     */
+    public Flux<Job> markSeen(SearchOwner owner, String id, Flux<Job> jobs) {
+        String seenKey = seenKey(owner, id);
+        return jobs
+            .flatMapSequential(job -> redisTemplate.opsForSet().add(seenKey, Long.toString(jobHash(job)))
+                .filter(added -> added > 0)
+                .map(added -> job), 16)
+            .concatWith(Mono.defer(() -> redisTemplate.expire(seenKey, properties.seenRetention())).then(Mono.<Job>empty()));
+    }
+
+    /**
+     * Appends new jobs to the pending list, dropping the oldest ones beyond {@code maxPending}.
+     */
+    public Mono<Void> addPending(SearchOwner owner, String id, List<Job> jobs) {
+        if (jobs.isEmpty()) {
+            return Mono.empty();
+        }
+        String pendingKey = pendingKey(owner, id);
+        List<String> values = jobs.stream().map(this::write).toList();
+        return redisTemplate.opsForList().rightPushAll(pendingKey, values)
+            .then(redisTemplate.opsForList().trim(pendingKey, -properties.maxPending(), -1))
+            .then(redisTemplate.expire(pendingKey, properties.seenRetention()))
+            .then();
+    }
+
+    /**
+     * Removes and returns every pending job of the saved search.
+     */
+    public Flux<Job> takePending(SearchOwner owner, String id) {
+        return redisTemplate.opsForList().leftPop(pendingKey(owner, id), properties.maxPending())
+            .map(json -> read(json, Job.class));
+    }
+
+    /**
+     * Claims the current polling run for this instance, so that several instances do not poll the same searches.
+     */
+    public Mono<Boolean> tryClaimPollRun(Duration duration) {
+        return redisTemplate.opsForValue().setIfAbsent(properties.redisKeyPrefix() + "poll-lock", "1", duration);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the job ID, or of its apply URL for jobs without an ID.
+     */
+    static long jobHash(Job job) {
+        String identity = job.id() != null ? job.id() : job.applyUrl();
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : identity.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private String ownersKey() {
+        return properties.redisKeyPrefix() + "owners";
+    }
+
+    private String searchesKey(SearchOwner owner) {
+        return properties.redisKeyPrefix() + owner.key() + ":searches";
+    }
+
+    private String seenKey(SearchOwner owner, String id) {
+        return properties.redisKeyPrefix() + owner.key() + ":" + id + ":seen";
+    }
+
+    private String pendingKey(SearchOwner owner, String id) {
+        return properties.redisKeyPrefix() + owner.key() + ":" + id + ":new";
+    }
+
+    private ResponseStatusException limitReached() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+            "At most " + properties.maxPerMember() + " saved searches are allowed");
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + value, e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read saved search data", e);
+        }
+    }
+}
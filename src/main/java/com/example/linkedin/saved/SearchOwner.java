@@ -0,0 +1,22 @@
+package com.example.linkedin.saved;
+
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+
+/**
+ * Member a saved search belongs to, identified like their authorized client.
+ */
+public record SearchOwner(String registrationId, String principalName) {
+
+    public static SearchOwner of(OAuth2AuthenticationToken authentication) {
+        return new SearchOwner(authentication.getAuthorizedClientRegistrationId(), authentication.getName());
+    }
+
+    static SearchOwner parse(String key) {
+        int separator = key.indexOf(':');
+        return new SearchOwner(key.substring(0, separator), key.substring(separator + 1));
+    }
+
+    String key() {
+        return registrationId + ":" + principalName;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.linkedin.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Who may use the operational endpoints.
+ *
+ * @param adminMembers    LinkedIn member IDs (the {@code sub} claim of the ID token) granted {@code ROLE_ADMIN}, which
+ *                        actuator write operations such as cache invalidation require
+ * @param metricsNetworks networks, in CIDR notation, that may scrape {@code /actuator/prometheus} without logging in;
+ *                        anyone else needs {@code ROLE_ADMIN}
+ */
+@ConfigurationProperties("linkedin.access")
+public record AccessProperties(
+    @DefaultValue List<String> adminMembers,
+    @DefaultValue({"127.0.0.1/32", "::1/128"}) List<String> metricsNetworks
+) {
+}
@@ -0,0 +1,39 @@
+package com.example.linkedin.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Adds {@code ROLE_ADMIN} to the authorities of members listed in {@link AccessProperties#adminMembers()}.
+ * The member is recognized by the subject of the ID token carried in its {@link OidcUserAuthority}.
+ */
+public class AdminAuthoritiesMapper implements GrantedAuthoritiesMapper {
+    static final GrantedAuthority ADMIN = new SimpleGrantedAuthority("ROLE_ADMIN");
+
+    private final Set<String> adminMembers;
+
+    public AdminAuthoritiesMapper(AccessProperties properties) {
+        this.adminMembers = Set.copyOf(properties.adminMembers());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> mapAuthorities(Collection<? extends GrantedAuthority> authorities) {
+        boolean admin = authorities.stream()
+            .filter(OidcUserAuthority.class::isInstance)
+            .map(authority -> ((OidcUserAuthority) authority).getIdToken().getSubject())
+            .anyMatch(adminMembers::contains);
+        if (!admin) {
+            return authorities;
+        }
+        List<GrantedAuthority> mapped = new ArrayList<>(authorities);
+        mapped.add(ADMIN);
+        return mapped;
+    }
+}
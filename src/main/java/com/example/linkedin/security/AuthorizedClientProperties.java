@@ -0,0 +1,27 @@
+package com.example.linkedin.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Storage and refresh of the LinkedIn access tokens obtained at login.
+ *
+ * @param redisEnabled     whether authorized clients are stored in Redis, shared by every instance, instead of in process
+ * @param redisKeyPrefix   prefix of every Redis key holding an authorized client
+ * @param localTtl         time an instance reuses an authorized client read from Redis before reading it again
+ * @param localMaxEntries  upper bound on authorized clients kept in process in front of Redis
+ * @param refreshAhead     remaining lifetime below which an access token is refreshed in the background
+ * @param expirySkew       remaining lifetime below which an access token is no longer used and is refreshed inline
+ */
+@ConfigurationProperties("linkedin.oauth2")
+public record AuthorizedClientProperties(
+    @DefaultValue("true") boolean redisEnabled,
+    @DefaultValue("linkedin:oauth2:client:") String redisKeyPrefix,
+    @DefaultValue("30s") Duration localTtl,
+    @DefaultValue("10000") long localMaxEntries,
+    @DefaultValue("10m") Duration refreshAhead,
+    @DefaultValue("30s") Duration expirySkew
+) {
+}
@@ -0,0 +1,21 @@
+package com.example.linkedin.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the JWK sets backing ID token validation.
+ *
+ * @param refreshInterval    how often every known key set is re-fetched in the background
+ * @param minRefreshInterval minimum time between two fetches of the same key set, whatever triggered them
+ * @param fetchTimeout       upper bound on a single key set fetch
+ */
+@ConfigurationProperties("linkedin.jwks")
+public record JwksProperties(
+    @DefaultValue("15m") Duration refreshInterval,
+    @DefaultValue("30s") Duration minRefreshInterval,
+    @DefaultValue("5s") Duration fetchTimeout
+) {
+}
@@ -0,0 +1,152 @@
+package com.example.linkedin.security;
+
+import com.example.linkedin.support.SingleFlight;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps one {@link ReactiveJwtDecoder} per client registration, backed by a JWK set that survives across logins.
+ * The key set is re-fetched in the background every {@code refreshInterval}, and on demand when a token carries
+ * a key ID that is not in the cached set (key rotation). Fetches of the same set are coalesced and never happen
+ * more often than {@code minRefreshInterval}, so a flood of tokens with a bogus {@code kid} cannot hammer the JWKS endpoint.
+ */
+public class JwtDecoderRegistry implements ReactiveJwtDecoderFactory<ClientRegistration> {
+    private static final Logger logger = LoggerFactory.getLogger(JwtDecoderRegistry.class);
+
+    private final WebClient webClient;
+    private final JwksProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final ConcurrentMap<String, KeySetDecoder> decoders = new ConcurrentHashMap<>();
+    private final SingleFlight<String, JWKSet> fetches;
+    private final Timer decodeTimer;
+    private final Counter throttledRefreshes;
+
+    public JwtDecoderRegistry(WebClient webClient, JwksProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.webClient = webClient;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.fetches = new SingleFlight<>(meterRegistry.counter("linkedin.jwks.fetch.coalesced"));
+        this.decodeTimer = Timer.builder("linkedin.login.id_token.decode")
+            .description("Time spent validating ID tokens during login, including any JWK set fetch")
+            .register(meterRegistry);
+        this.throttledRefreshes = meterRegistry.counter("linkedin.jwks.refresh.throttled");
+    }
+
+    @Override
+    public ReactiveJwtDecoder createDecoder(ClientRegistration clientRegistration) {
+        return decoders.computeIfAbsent(clientRegistration.getRegistrationId(),
+            registrationId -> new KeySetDecoder(registrationId, clientRegistration.getProviderDetails().getJwkSetUri()));
+    }
+
+    @Scheduled(fixedDelayString = "${linkedin.jwks.refresh-interval:PT15M}")
+    public void refreshAll() {
+        decoders.values().forEach(decoder -> decoder.refresh()
+            .subscribe(
+                keys -> logger.debug("Refreshed JWK set for {} ({} keys)", decoder.registrationId, keys.getKeys().size()),
+                error -> logger.warn("Background refresh of JWK set for {} failed", decoder.registrationId, error)
+            ));
+    }
+
+    private final class KeySetDecoder implements ReactiveJwtDecoder {
+        private final String registrationId;
+        private final String jwkSetUri;
+        private final ReactiveJwtDecoder delegate;
+        private final AtomicReference<JWKSet> keys = new AtomicReference<>(new JWKSet());
+        private volatile Instant lastFetch = Instant.EPOCH;
+
+        private KeySetDecoder(String registrationId, String jwkSetUri) {
+            this.registrationId = registrationId;
+            this.jwkSetUri = jwkSetUri;
+            this.delegate = NimbusReactiveJwtDecoder.withJwkSource(this::select).build();
+        }
+
+        @Override
+        public Mono<Jwt> decode(String token) {
+            return Mono.defer(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return delegate.decode(token).doFinally(signal -> sample.stop(decodeTimer));
+            });
+        }
+
+        private Flux<JWK> select(SignedJWT jwt) {
+            JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(jwt.getHeader()));
+            List<JWK> cached = selector.select(keys.get());
+            if (!cached.isEmpty()) {
+                return Flux.fromIterable(cached);
+            }
+            return refresh()
+                .flatMapIterable(selector::select)
+                .onErrorResume(error -> {
+                    logger.warn("Could not fetch JWK set for {} from {}", registrationId, jwkSetUri, error);
+                    return Flux.empty();
+                });
+        }
+
+        private Mono<JWKSet> refresh() {
+            boolean throttled = lastFetch.plus(properties.minRefreshInterval()).isAfter(clock.instant());
+            if (throttled && !fetches.isInFlight(registrationId)) {
+                throttledRefreshes.increment();
+                return Mono.just(keys.get());
+            }
+            return fetches.execute(registrationId, fetch());
+        }
+
+        private Mono<JWKSet> fetch() {
+            return Mono.defer(() -> {
+                lastFetch = clock.instant();
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return webClient.get()
+                    .uri(jwkSetUri)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .timeout(properties.fetchTimeout())
+                    .map(this::parse)
+                    .doOnNext(keys::set)
+                    .doOnSuccess(fetched -> sample.stop(fetchTimer("success")))
+                    .doOnError(error -> sample.stop(fetchTimer("error")));
+            });
+        }
+
+        private JWKSet parse(String body) {
+            try {
+                return JWKSet.parse(body);
+            } catch (ParseException e) {
+                throw new IllegalStateException("Malformed JWK set returned by " + jwkSetUri, e);
+            }
+        }
+
+        private Timer fetchTimer(String outcome) {
+            return Timer.builder("linkedin.jwks.fetch")
+                .tag("registration", registrationId)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        }
+    }
+}
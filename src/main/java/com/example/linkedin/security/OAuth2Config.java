@@ -1,8 +1,17 @@
 package com.example.linkedin.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.InMemoryReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
 import org.springframework.security.oauth2.client.endpoint.ReactiveOAuth2AccessTokenResponseClient;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
@@ -11,9 +20,13 @@ import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.security.oauth2.client.endpoint.WebClientReactiveAuthorizationCodeTokenResponseClient;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcReactiveOAuth2UserService;
 
-import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoderFactory;
 import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
 
 @Configuration
 public class OAuth2Config {
@@ -29,22 +42,67 @@ public class OAuth2Config {
     }
 
     @Bean
-    public ReactiveJwtDecoderFactory<ClientRegistration> jwtDecoderFactory() {
-        return clientRegistration -> {
-            String jwkSetUri = clientRegistration.getProviderDetails().getJwkSetUri();
-            return NimbusReactiveJwtDecoder.withJwkSetUri(jwkSetUri).build();
-        };
+    public JwtDecoderRegistry jwtDecoderFactory(
+        WebClient.Builder webClientBuilder,
+        JwksProperties jwksProperties,
+        MeterRegistry meterRegistry,
+        Clock clock
+    ) {
+        return new JwtDecoderRegistry(webClientBuilder.build(), jwksProperties, meterRegistry, clock);
+    }
+
+    @Bean
+    public ReactiveOAuth2AuthorizedClientService authorizedClientService(
+        ReactiveClientRegistrationRepository clientRegistrationRepository,
+        ReactiveStringRedisTemplate redisTemplate,
+        ObjectMapper objectMapper,
+        AuthorizedClientProperties properties,
+        Clock clock
+    ) {
+        if (!properties.redisEnabled()) {
+            return new InMemoryReactiveOAuth2AuthorizedClientService(clientRegistrationRepository);
+        }
+        return new RedisOAuth2AuthorizedClientService(
+            clientRegistrationRepository, redisTemplate, objectMapper, properties, clock);
+    }
+
+    /**
+     * Refreshes an access token once less than {@code refreshAhead} of it is left, so that
+     * {@link RefreshAheadAuthorizedClientManager} can renew tokens before they expire.
+     */
+    @Bean
+    public ReactiveOAuth2AuthorizedClientManager authorizedClientManager(
+        ReactiveClientRegistrationRepository clientRegistrationRepository,
+        ReactiveOAuth2AuthorizedClientService authorizedClientService,
+        AuthorizedClientProperties properties
+    ) {
+        AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager manager =
+            new AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager(clientRegistrationRepository, authorizedClientService);
+        manager.setAuthorizedClientProvider(ReactiveOAuth2AuthorizedClientProviderBuilder.builder()
+            .refreshToken(refreshToken -> refreshToken.clockSkew(properties.refreshAhead()))
+            .build());
+        return manager;
     }
 
     @Bean
     public ReactiveAuthenticationManager authenticationManager(
         ReactiveOAuth2AccessTokenResponseClient<OAuth2AuthorizationCodeGrantRequest> accessTokenResponseClient,
         ReactiveOAuth2UserService<OidcUserRequest, OidcUser> oidcUserService,
-        ReactiveJwtDecoderFactory<ClientRegistration> jwtDecoderFactory
+        ReactiveJwtDecoderFactory<ClientRegistration> jwtDecoderFactory,
+        AccessProperties accessProperties,
+        MeterRegistry meterRegistry
     ) {
         NoNonceValidationOidcManager manager = new NoNonceValidationOidcManager(accessTokenResponseClient, oidcUserService);
         manager.setJwtDecoderFactory(jwtDecoderFactory);
-        return manager;
+        manager.setAuthoritiesMapper(new AdminAuthoritiesMapper(accessProperties));
+
+        Timer loginTimer = Timer.builder("linkedin.login")
+            .description("Time from authorization code to authenticated principal")
+            .register(meterRegistry);
+        return authentication -> Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return manager.authenticate(authentication).doFinally(signal -> sample.stop(loginTimer));
+        });
     }
 
 }
@@ -0,0 +1,153 @@
+package com.example.linkedin.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Authorized clients stored in Redis as JSON under {@code <prefix><registrationId>:<principalName>}, so that
+ * any instance can serve a member who logged in on another one. A key expires with the last of its tokens.
+ * Reads are cached in process for {@code localTtl}; writes and removals go to Redis directly.
+ * <p>
+ * The stored tokens grant access to the member's LinkedIn account; the Redis instance must be protected accordingly.
+ */
+public class RedisOAuth2AuthorizedClientService implements ReactiveOAuth2AuthorizedClientService {
+    private final ReactiveClientRegistrationRepository clientRegistrationRepository;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuthorizedClientProperties properties;
+    private final Cache<String, OAuth2AuthorizedClient> local;
+    private final Clock clock;
+
+    public RedisOAuth2AuthorizedClientService(
+        ReactiveClientRegistrationRepository clientRegistrationRepository,
+        ReactiveStringRedisTemplate redisTemplate,
+        ObjectMapper objectMapper,
+        AuthorizedClientProperties properties,
+        Clock clock
+    ) {
+        this.clientRegistrationRepository = clientRegistrationRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.clock = clock;
+        this.local = Caffeine.newBuilder()
+            .maximumSize(properties.localMaxEntries())
+            .expireAfterWrite(properties.localTtl())
+            .build();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends OAuth2AuthorizedClient> Mono<T> loadAuthorizedClient(String clientRegistrationId, String principalName) {
+        String key = key(clientRegistrationId, principalName);
+        return Mono.defer(() -> {
+            OAuth2AuthorizedClient cached = local.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just((T) cached);
+            }
+            return redisTemplate.opsForValue().get(key)
+                .flatMap(json -> Mono.fromCallable(() -> objectMapper.readValue(json, StoredClient.class)))
+                .flatMap(stored -> clientRegistrationRepository.findByRegistrationId(clientRegistrationId)
+                    .map(registration -> new OAuth2AuthorizedClient(
+                        registration, principalName, stored.accessToken(), stored.refreshToken())))
+                .doOnNext(client -> local.put(key, client))
+                .map(client -> (T) client);
+        });
+    }
+
+    @Override
+    public Mono<Void> saveAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal) {
+        String key = key(authorizedClient.getClientRegistration().getRegistrationId(), principal.getName());
+        return Mono.defer(() -> {
+            StoredClient stored = new StoredClient(
+                StoredAccessToken.of(authorizedClient.getAccessToken()),
+                StoredRefreshToken.of(authorizedClient.getRefreshToken())
+            );
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(stored);
+            } catch (JsonProcessingException e) {
+                return Mono.error(e);
+            }
+            Duration ttl = timeToLive(authorizedClient);
+            Mono<Boolean> write = ttl == null
+                ? redisTemplate.opsForValue().set(key, json)
+                : redisTemplate.opsForValue().set(key, json, ttl);
+            return write.doOnSuccess(written -> local.put(key, authorizedClient)).then();
+        });
+    }
+
+    @Override
+    public Mono<Void> removeAuthorizedClient(String clientRegistrationId, String principalName) {
+        String key = key(clientRegistrationId, principalName);
+        return Mono.defer(() -> {
+            local.invalidate(key);
+            return redisTemplate.delete(key).then();
+        });
+    }
+
+    /**
+     * @return time until the last token of the client expires, or {@code null} if one of them never does
+     */
+    private Duration timeToLive(OAuth2AuthorizedClient client) {
+        OAuth2RefreshToken refreshToken = client.getRefreshToken();
+        if (client.getAccessToken().getExpiresAt() == null || (refreshToken != null && refreshToken.getExpiresAt() == null)) {
+            return null;
+        }
+        Instant lastExpiry = Stream.of(client.getAccessToken().getExpiresAt(),
+                refreshToken == null ? null : refreshToken.getExpiresAt())
+            .filter(Objects::nonNull)
+            .max(Instant::compareTo)
+            .orElseThrow();
+        Duration ttl = Duration.between(clock.instant(), lastExpiry);
+        // An already expired client is kept briefly rather than not written at all
+        return ttl.compareTo(Duration.ofSeconds(1)) < 0 ? Duration.ofSeconds(1) : ttl;
+    }
+
+    private String key(String clientRegistrationId, String principalName) {
+        return properties.redisKeyPrefix() + clientRegistrationId + ":" + principalName;
+    }
+
+    record StoredClient(StoredAccessToken access, StoredRefreshToken refresh) {
+
+        OAuth2AccessToken accessToken() {
+            return new OAuth2AccessToken(
+                OAuth2AccessToken.TokenType.BEARER, access.value(), access.issuedAt(), access.expiresAt(), access.scopes());
+        }
+
+        OAuth2RefreshToken refreshToken() {
+            return refresh == null ? null : new OAuth2RefreshToken(refresh.value(), refresh.issuedAt(), refresh.expiresAt());
+        }
+    }
+
+    record StoredAccessToken(String value, Instant issuedAt, Instant expiresAt, Set<String> scopes) {
+
+        static StoredAccessToken of(OAuth2AccessToken token) {
+            return new StoredAccessToken(token.getTokenValue(), token.getIssuedAt(), token.getExpiresAt(), token.getScopes());
+        }
+    }
+
+    record StoredRefreshToken(String value, Instant issuedAt, Instant expiresAt) {
+
+        static StoredRefreshToken of(OAuth2RefreshToken token) {
+            return token == null ? null : new StoredRefreshToken(token.getTokenValue(), token.getIssuedAt(), token.getExpiresAt());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.linkedin.security;
+
+import com.example.linkedin.support.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.client.ClientAuthorizationRequiredException;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Hands out the member's authorized client and keeps its access token fresh.
+ * <p>
+ * A token with less than {@code refreshAhead} left is returned as is while a refresh runs in the background.
+ * A token with less than {@code expirySkew} left is refreshed before it is returned. Refreshes use the refresh
+ * token through the {@link ReactiveOAuth2AuthorizedClientManager}, which stores the new client, and concurrent
+ * refreshes for the same member share one token request. A member whose token has expired and cannot be
+ * refreshed gets a {@link ClientAuthorizationRequiredException}, which sends them through the login again.
+ */
+@Component
+public class RefreshAheadAuthorizedClientManager {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshAheadAuthorizedClientManager.class);
+
+    private final ReactiveOAuth2AuthorizedClientService authorizedClientService;
+    private final ReactiveOAuth2AuthorizedClientManager authorizedClientManager;
+    private final AuthorizedClientProperties properties;
+    private final SingleFlight<String, OAuth2AuthorizedClient> refreshes;
+    private final Clock clock;
+
+    private final Counter refreshedAhead;
+    private final Counter refreshedInline;
+    private final Counter refreshFailures;
+    private final Counter notRefreshable;
+
+    public RefreshAheadAuthorizedClientManager(
+        ReactiveOAuth2AuthorizedClientService authorizedClientService,
+        ReactiveOAuth2AuthorizedClientManager authorizedClientManager,
+        AuthorizedClientProperties properties,
+        MeterRegistry meterRegistry,
+        Clock clock
+    ) {
+        this.authorizedClientService = authorizedClientService;
+        this.authorizedClientManager = authorizedClientManager;
+        this.properties = properties;
+        this.clock = clock;
+        this.refreshes = new SingleFlight<>(meterRegistry.counter("linkedin.oauth2.refresh.coalesced"));
+        this.refreshedAhead = meterRegistry.counter("linkedin.oauth2.refresh", "mode", "ahead", "result", "success");
+        this.refreshedInline = meterRegistry.counter("linkedin.oauth2.refresh", "mode", "inline", "result", "success");
+        this.refreshFailures = meterRegistry.counter("linkedin.oauth2.refresh", "mode", "any", "result", "failure");
+        this.notRefreshable = meterRegistry.counter("linkedin.oauth2.refresh", "mode", "any", "result", "no_refresh_token");
+    }
+
+    public Mono<OAuth2AuthorizedClient> authorizedClient(OAuth2AuthenticationToken principal) {
+        return authorizedClient(principal.getAuthorizedClientRegistrationId(), principal.getName());
+    }
+
+    /**
+     * Same as {@link #authorizedClient(OAuth2AuthenticationToken)} for callers acting on behalf of a member
+     * outside of one of their requests, such as background jobs.
+     */
+    public Mono<OAuth2AuthorizedClient> authorizedClient(String registrationId, String principalName) {
+        return authorizedClientService.<OAuth2AuthorizedClient>loadAuthorizedClient(registrationId, principalName)
+            .switchIfEmpty(Mono.error(() -> new ClientAuthorizationRequiredException(registrationId)))
+            .flatMap(client -> {
+                Instant expiresAt = client.getAccessToken().getExpiresAt();
+                Instant now = clock.instant();
+                if (expiresAt == null || now.isBefore(expiresAt.minus(properties.refreshAhead()))) {
+                    return Mono.just(client);
+                }
+                if (now.isBefore(expiresAt.minus(properties.expirySkew()))) {
+                    if (client.getRefreshToken() != null) {
+                        refreshInBackground(client);
+                    }
+                    return Mono.just(client);
+                }
+                return refresh(client)
+                    .doOnNext(refreshed -> refreshedInline.increment())
+                    .switchIfEmpty(Mono.error(() -> new ClientAuthorizationRequiredException(registrationId)));
+            });
+    }
+
+    private void refreshInBackground(OAuth2AuthorizedClient client) {
+        refresh(client).subscribe(
+            refreshed -> refreshedAhead.increment(),
+            error -> logger.warn("Background refresh of the access token of {} failed", client.getPrincipalName(), error)
+        );
+    }
+
+    /**
+     * @return the refreshed client, or empty if the client has no refresh token
+     */
+    private Mono<OAuth2AuthorizedClient> refresh(OAuth2AuthorizedClient client) {
+        if (client.getRefreshToken() == null) {
+            notRefreshable.increment();
+            return Mono.empty();
+        }
+        String key = client.getClientRegistration().getRegistrationId() + ":" + client.getPrincipalName();
+        OAuth2AuthorizeRequest request = OAuth2AuthorizeRequest.withAuthorizedClient(client)
+            .principal(client.getPrincipalName())
+            .build();
+        return refreshes.execute(key, authorizedClientManager.authorize(request))
+            .doOnError(error -> refreshFailures.increment());
+    }
+}
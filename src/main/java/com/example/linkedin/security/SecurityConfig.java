@@ -2,20 +2,52 @@ package com.example.linkedin.security;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.csrf.CsrfWebFilter;
+import org.springframework.security.web.server.util.matcher.AndServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher.MatchResult;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.net.InetSocketAddress;
+import java.util.List;
 
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
+    private static final ServerWebExchangeMatcher API_PATHS = ServerWebExchangeMatchers.pathMatchers("/jobs/**", "/actuator/**");
+    private static final List<MediaType> FORM_CONTENT_TYPES = List.of(
+        MediaType.APPLICATION_FORM_URLENCODED, MediaType.MULTIPART_FORM_DATA, MediaType.TEXT_PLAIN);
+
+    /**
+     * Requests that must carry a CSRF token. JSON API calls do not, so that non-browser clients can use them with
+     * only their session cookie. Such calls are safe without a token: another site can only make a browser send them
+     * after a CORS preflight, which this application never grants, because they are {@code PUT}, {@code PATCH},
+     * {@code DELETE}, or a {@code POST} with a body no HTML form can produce. Every other state-changing request,
+     * including a form-encoded or plain text {@code POST} to the API, still needs the token.
+     */
+    public static final ServerWebExchangeMatcher CSRF_PROTECTED_REQUESTS = exchange -> CsrfWebFilter.DEFAULT_CSRF_MATCHER
+        .matches(exchange)
+        .flatMap(unsafe -> !unsafe.isMatch()
+            ? MatchResult.notMatch()
+            : API_PATHS.matches(exchange).flatMap(api -> api.isMatch() && needsPreflight(exchange.getRequest())
+                ? MatchResult.notMatch()
+                : MatchResult.match()));
 
     private final ReactiveAuthenticationManager authenticationManager;
+    private final AccessProperties accessProperties;
 
-    public SecurityConfig(ReactiveAuthenticationManager authenticationManager) {
+    public SecurityConfig(ReactiveAuthenticationManager authenticationManager, AccessProperties accessProperties) {
         this.authenticationManager = authenticationManager;
+        this.accessProperties = accessProperties;
     }
 
     @Bean
@@ -33,12 +65,22 @@ public class SecurityConfig {
                         "/v3/api-docs/**",
                         "/swagger-ui.html",
                         "/swagger-ui/**",
+                        "/actuator/health/**",
                         "*linkedin/**"
                 )
                 .permitAll()
+                // Metrics name internal rules and lanes: open to the scrape networks, otherwise admins only
+                .matchers(new AndServerWebExchangeMatcher(
+                    ServerWebExchangeMatchers.pathMatchers("/actuator/prometheus"), fromMetricsNetworks()))
+                .permitAll()
+                .pathMatchers("/actuator/prometheus").hasRole("ADMIN")
+                // Actuator write operations (cache invalidation, filter rule changes) affect every member
+                .pathMatchers(HttpMethod.POST, "/actuator/**").hasRole("ADMIN")
+                .pathMatchers(HttpMethod.DELETE, "/actuator/**").hasRole("ADMIN")
                 .anyExchange()
                 .authenticated()
             )
+            .csrf(csrf -> csrf.requireCsrfProtectionMatcher(CSRF_PROTECTED_REQUESTS))
             .oauth2Login(oauth2 -> oauth2
                 .authorizedClientService(authorizedClientService)
                 .authenticationManager(authenticationManager)
@@ -46,4 +88,24 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    private ServerWebExchangeMatcher fromMetricsNetworks() {
+        List<IpAddressMatcher> networks = accessProperties.metricsNetworks().stream()
+            .map(IpAddressMatcher::new)
+            .toList();
+        return exchange -> {
+            InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+            boolean inNetwork = remote != null && remote.getAddress() != null
+                && networks.stream().anyMatch(network -> network.matches(remote.getAddress().getHostAddress()));
+            return inNetwork ? MatchResult.match() : MatchResult.notMatch();
+        };
+    }
+
+    private static boolean needsPreflight(ServerHttpRequest request) {
+        if (request.getMethod() != HttpMethod.POST) {
+            return true;
+        }
+        MediaType contentType = request.getHeaders().getContentType();
+        return contentType != null && FORM_CONTENT_TYPES.stream().noneMatch(form -> form.isCompatibleWith(contentType));
+    }
 }
@@ -0,0 +1,114 @@
+package com.example.linkedin.service;
+
+import com.example.linkedin.config.SearchProperties;
+import com.example.linkedin.filter.JobFilter;
+import com.example.linkedin.localindex.JobIndex;
+import com.example.linkedin.model.Job;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Walks every page of an upstream search. The first page is fetched alone so that small result sets cost
+ * exactly one call; only when it comes back full are the remaining pages fanned out with bounded concurrency.
+ * Jobs are emitted as each page body is decoded, never buffered per page, so subscriber demand reaches the
+ * upstream read. Cancelling the returned flux (for example once a caller's limit is met) cancels the pages still
+ * in flight.
+ * Jobs matched by a {@link JobFilter} rule are dropped from every page; the rest are handed to the local
+ * {@link JobIndex} for later refinement searches.
+ */
+@Component
+public class JobSearchPaginator {
+    private static final Logger logger = LoggerFactory.getLogger(JobSearchPaginator.class);
+
+    private final UpstreamJobsClient upstreamJobsClient;
+    private final JobFilter jobFilter;
+    private final JobIndex jobIndex;
+    private final SearchProperties properties;
+    private final Counter pagesFetched;
+    private final Counter itemsFetched;
+    private final Counter itemsFiltered;
+
+    public JobSearchPaginator(
+        UpstreamJobsClient upstreamJobsClient,
+        JobFilter jobFilter,
+        JobIndex jobIndex,
+        SearchProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.upstreamJobsClient = upstreamJobsClient;
+        this.jobFilter = jobFilter;
+        this.jobIndex = jobIndex;
+        this.properties = properties;
+        this.pagesFetched = meterRegistry.counter("linkedin.search.pages.fetched");
+        this.itemsFetched = meterRegistry.counter("linkedin.search.items.fetched");
+        this.itemsFiltered = meterRegistry.counter("linkedin.search.items.filtered");
+    }
+
+    public Flux<Job> search(String accessToken, String query, String country) {
+        return Flux.defer(() -> new PageWalk(accessToken, query, country).jobs());
+    }
+
+    private final class PageWalk {
+        private final String accessToken;
+        private final String query;
+        private final String country;
+        private final int pageSize = properties.pageSize();
+        private final AtomicBoolean exhausted = new AtomicBoolean();
+        private final AtomicInteger pages = new AtomicInteger();
+        private final AtomicInteger items = new AtomicInteger();
+
+        private PageWalk(String accessToken, String query, String country) {
+            this.accessToken = accessToken;
+            this.query = query;
+            this.country = country;
+        }
+
+        private Flux<Job> jobs() {
+            // Each page reports its size once its body is decoded, before it completes
+            return fetch(0)
+                .concatWith(Flux.defer(() -> exhausted.get() ? Flux.empty() : remainingPages()))
+                .doFinally(signal -> logger.debug("Search q={} country={} fetched {} page(s), {} item(s) ({})",
+                    query, country, pages.get(), items.get(), signal));
+        }
+
+        private Flux<Job> remainingPages() {
+            Flux<Integer> indexes = Flux.range(1, Math.max(properties.maxPages() - 1, 0))
+                .takeWhile(index -> !exhausted.get());
+
+            return properties.ordered()
+                ? indexes.flatMapSequential(this::fetch, properties.concurrency())
+                : indexes.flatMap(this::fetch, properties.concurrency());
+        }
+
+        private Flux<Job> fetch(int index) {
+            return Flux.defer(() -> {
+                AtomicInteger size = new AtomicInteger();
+                List<Job> kept = new ArrayList<>();
+                return upstreamJobsClient.fetchPage(accessToken, query, country, index, pageSize, size::set)
+                    .filter(jobFilter::accepts)
+                    .doOnNext(kept::add)
+                    .doOnComplete(() -> {
+                        int scanned = size.get();
+                        pages.incrementAndGet();
+                        items.addAndGet(scanned);
+                        pagesFetched.increment();
+                        itemsFetched.increment(scanned);
+                        itemsFiltered.increment(scanned - kept.size());
+                        if (scanned < pageSize) {
+                            exhausted.set(true);
+                        }
+                        jobIndex.addAll(kept);
+                    });
+            });
+        }
+    }
+}
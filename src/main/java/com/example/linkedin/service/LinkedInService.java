@@ -1,50 +1,156 @@
 package com.example.linkedin.service;
 
+import com.example.linkedin.cache.JobSearchCache;
+import com.example.linkedin.cache.SearchKey;
+import com.example.linkedin.config.SearchProperties;
+import com.example.linkedin.model.BatchSearchResult;
 import com.example.linkedin.model.Job;
+import com.example.linkedin.model.SearchRequest;
+import com.example.linkedin.ratelimit.Priority;
+import com.example.linkedin.ratelimit.UpstreamQueueFullException;
+import com.example.linkedin.ratelimit.UpstreamRateLimitedException;
+import com.example.linkedin.resilience.UpstreamUnavailableException;
+import com.example.linkedin.security.RefreshAheadAuthorizedClientManager;
+import com.example.linkedin.support.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.AbstractOAuth2Token;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class LinkedInService {
-    private final WebClient webClient;
-    private final ReactiveOAuth2AuthorizedClientService authorizedClientService;
+    private static final Logger logger = LoggerFactory.getLogger(LinkedInService.class);
 
-    public LinkedInService(WebClient.Builder webClientBuilder, ReactiveOAuth2AuthorizedClientService authorizedClientService) {
-        this.webClient = webClientBuilder.baseUrl("https://api.linkedin.com/v2").build();
-        this.authorizedClientService = authorizedClientService;
+    private final JobSearchPaginator paginator;
+    private final JobSearchCache searchCache;
+    private final RefreshAheadAuthorizedClientManager authorizedClients;
+    private final SearchProperties searchProperties;
+    private final SearchObservations observations;
+    private final SingleFlight<SearchKey, List<String>> inFlightSearches;
+    private final Counter itemsReturned;
+
+    public LinkedInService(
+        JobSearchPaginator paginator,
+        JobSearchCache searchCache,
+        RefreshAheadAuthorizedClientManager authorizedClients,
+        SearchProperties searchProperties,
+        SearchObservations observations,
+        MeterRegistry meterRegistry
+    ) {
+        this.paginator = paginator;
+        this.searchCache = searchCache;
+        this.authorizedClients = authorizedClients;
+        this.searchProperties = searchProperties;
+        this.observations = observations;
+        this.inFlightSearches = new SingleFlight<>(meterRegistry.counter("linkedin.search.coalesced"));
+        this.itemsReturned = meterRegistry.counter("linkedin.search.items.returned");
+    }
+
+    /**
+     * Serves the links from the search cache when possible, and otherwise joins an identical upstream search
+     * that is already in flight. The caller's authorized client is always resolved first, so only callers
+     * holding a LinkedIn access token ever see a cached or shared result.
+     */
+    public Mono<List<String>> getDirectApplyLinks(String query, String country, Integer limit) {
+        return accessToken()
+            .flatMap(accessToken -> cachedDirectApplyLinks(accessToken, query, country, limit))
+            .contextWrite(observations::sample);
+    }
+
+    /**
+     * Runs every search of a batch with a single access token lookup and at most {@code batchConcurrency}
+     * searches in flight. Results are emitted per search as each one completes. A link already emitted for an
+     * earlier completed search is left out of later ones, and a failing search yields an error entry
+     * instead of failing the batch. Error entries carry one of the {@code BatchSearchResult} error codes, never the
+     * message of the failure, which may hold upstream response text.
+     */
+    public Flux<BatchSearchResult> searchBatch(List<SearchRequest> searches) {
+        return accessToken()
+            .flatMapMany(accessToken -> {
+                Set<String> emitted = ConcurrentHashMap.newKeySet();
+                return Flux.range(0, searches.size())
+                    .flatMap(index -> {
+                        SearchRequest search = searches.get(index);
+                        return cachedDirectApplyLinks(accessToken, search.query(), search.country(), null)
+                            .map(links -> BatchSearchResult.success(index, search,
+                                links.stream().filter(emitted::add).toList()))
+                            .onErrorResume(error -> {
+                                logger.debug("Batch search {} failed", search, error);
+                                return Mono.just(BatchSearchResult.failure(index, search, errorCode(error)));
+                            });
+                    }, searchProperties.batchConcurrency());
+            })
+            .contextWrite(Priority.BATCH.asContext())
+            .contextWrite(observations::sample);
+    }
+
+    /**
+     * Emits each direct apply link as soon as its job has been decoded from the upstream body.
+     * Demand from the subscriber is propagated to the WebClient, so a slow consumer slows the upstream read.
+     * Once {@code limit} links have been emitted the remaining upstream pages are cancelled.
+     */
+    public Flux<String> streamDirectApplyLinks(String query, String country, Integer limit) {
+        return accessToken()
+            .flatMapMany(accessToken -> fetchDirectApplyLinks(accessToken, query, country, limit))
+            .contextWrite(observations::sample);
     }
 
-    public Mono<List<String>> getDirectApplyLinks(String query, String country) {
-        return ReactiveSecurityContextHolder.getContext()
+    /**
+     * Fetches every job that is not Easy Apply on behalf of a member outside of their requests, for work such as
+     * saved search polling. Upstream calls wait in the given lane of the rate limiter.
+     */
+    public Flux<Job> searchJobsFor(String registrationId, String principalName, String query, String country, Priority priority) {
+        return authorizedClients.authorizedClient(registrationId, principalName)
+            .map(client -> client.getAccessToken().getTokenValue())
+            .flatMapMany(accessToken -> paginator.search(accessToken, query, country))
+            .contextWrite(priority.asContext())
+            .contextWrite(observations::sample);
+    }
+
+    private Mono<String> accessToken() {
+        return observations.stage("security_context", ReactiveSecurityContextHolder.getContext())
             .map(SecurityContext::getAuthentication)
             .cast(OAuth2AuthenticationToken.class)
-            .flatMap(authToken -> authorizedClientService.loadAuthorizedClient(
-                authToken.getAuthorizedClientRegistrationId(),
-                authToken.getName()
-            ))
-            .cast(OAuth2AuthorizedClient.class)
+            .flatMap(authToken -> observations.stage("authorized_client", authorizedClients.authorizedClient(authToken)))
             .map(OAuth2AuthorizedClient::getAccessToken)
-            .map(AbstractOAuth2Token::getTokenValue)
-            .flatMap(accessToken -> {
-                System.out.println("Security Token Debug: " + accessToken);
-
-                return webClient.get()
-                    .uri("/jobs?q=" + query + "&country=" + country)
-                    .headers(headers -> headers.setBearerAuth(accessToken))
-                    .retrieve()
-                    .bodyToFlux(Job.class)
-                    .filter(job -> !job.easyApply())
-                    .map(Job::applyUrl)
-                    .collectList();
-            });
+            .map(AbstractOAuth2Token::getTokenValue);
+    }
+
+    private Mono<List<String>> cachedDirectApplyLinks(String accessToken, String query, String country, Integer limit) {
+        SearchKey key = SearchKey.of(query, country, limit);
+        return searchCache.get(
+            key,
+            inFlightSearches.execute(key, fetchDirectApplyLinks(accessToken, query, country, limit).collectList())
+        );
+    }
+
+    private static String errorCode(Throwable error) {
+        if (error instanceof UpstreamRateLimitedException || error instanceof UpstreamQueueFullException) {
+            return BatchSearchResult.RATE_LIMITED;
+        }
+        if (error instanceof UpstreamUnavailableException) {
+            return BatchSearchResult.UPSTREAM_UNAVAILABLE;
+        }
+        return BatchSearchResult.SEARCH_FAILED;
+    }
+
+    private Flux<String> fetchDirectApplyLinks(String accessToken, String query, String country, Integer limit) {
+        // Easy Apply jobs are already dropped by JobStreamDecoder while the upstream body is parsed
+        return paginator.search(accessToken, query, country)
+            .map(Job::applyUrl)
+            .take(limit == null ? Long.MAX_VALUE : limit)
+            .doOnNext(link -> itemsReturned.increment());
     }
 }
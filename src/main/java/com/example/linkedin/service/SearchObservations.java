@@ -0,0 +1,77 @@
+package com.example.linkedin.service;
+
+import com.example.linkedin.config.MetricsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-stage latency timers for the search path, published as {@code linkedin.search.stage} with a
+ * {@code stage} and an {@code outcome} tag. Whether a search is timed is decided once, when it starts, and
+ * carried in the Reactor context, so every stage of a search is either timed or not.
+ * {@code linkedin.metrics.stage-sample-rate} sets the share of searches that are timed.
+ */
+@Component
+public class SearchObservations {
+    private static final String SAMPLED = SearchObservations.class.getName() + ".SAMPLED";
+
+    private final MeterRegistry meterRegistry;
+    private final MetricsProperties properties;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public SearchObservations(MeterRegistry meterRegistry, MetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    /**
+     * Makes the sampling decision for a search; apply with {@code contextWrite} at the outermost operator.
+     */
+    public Context sample(Context context) {
+        double rate = properties.stageSampleRate();
+        boolean sampled = rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+        return context.put(SAMPLED, sampled);
+    }
+
+    public <T> Mono<T> stage(String stage, Mono<T> mono) {
+        return Mono.deferContextual(context -> {
+            if (!context.getOrDefault(SAMPLED, false)) {
+                return mono;
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return mono.doFinally(signal -> sample.stop(timer(stage, signal)));
+        });
+    }
+
+    public <T> Flux<T> stage(String stage, Flux<T> flux) {
+        return Flux.deferContextual(context -> {
+            if (!context.getOrDefault(SAMPLED, false)) {
+                return flux;
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return flux.doFinally(signal -> sample.stop(timer(stage, signal)));
+        });
+    }
+
+    private Timer timer(String stage, SignalType signal) {
+        String outcome = switch (signal) {
+            case ON_COMPLETE -> "success";
+            case ON_ERROR -> "error";
+            default -> "cancelled";
+        };
+        return timers.computeIfAbsent(stage + ':' + outcome, key -> Timer.builder("linkedin.search.stage")
+            .description("Latency of one stage of a job search")
+            .tag("stage", stage)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+}
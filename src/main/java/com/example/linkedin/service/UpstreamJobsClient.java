@@ -0,0 +1,110 @@
+package com.example.linkedin.service;
+
+import com.example.linkedin.codec.JobStreamDecoder;
+import com.example.linkedin.config.LinkedInApiProperties;
+import com.example.linkedin.model.Job;
+import com.example.linkedin.ratelimit.UpstreamRateLimitedException;
+import com.example.linkedin.ratelimit.UpstreamScheduler;
+import com.example.linkedin.resilience.UpstreamGuard;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.function.IntConsumer;
+
+@Component
+public class UpstreamJobsClient {
+    private final WebClient webClient;
+    private final JobStreamDecoder jobStreamDecoder;
+    private final SearchObservations observations;
+    private final UpstreamScheduler scheduler;
+    private final UpstreamGuard guard;
+    private final Clock clock;
+
+    public UpstreamJobsClient(
+        WebClient.Builder webClientBuilder,
+        LinkedInApiProperties apiProperties,
+        JobStreamDecoder jobStreamDecoder,
+        SearchObservations observations,
+        UpstreamScheduler scheduler,
+        UpstreamGuard guard,
+        Clock clock
+    ) {
+        this.webClient = webClientBuilder.baseUrl(apiProperties.baseUrl()).build();
+        this.jobStreamDecoder = jobStreamDecoder;
+        this.observations = observations;
+        this.scheduler = scheduler;
+        this.guard = guard;
+        this.clock = clock;
+    }
+
+    /**
+     * Waits for a rate limit permit from {@link UpstreamScheduler}, then is timed as two stages:
+     * {@code upstream_response} until the response headers arrive, then {@code body_decode} while
+     * the body streams in and is decoded. A {@code 429} pauses the scheduler and is retried there.
+     * {@link UpstreamGuard} bounds the wait for the response headers and hedges slow ones when a spare permit
+     * is available. The body is not buffered: each job is emitted as soon as it is decoded, and subscriber
+     * demand reaches the body read.
+     *
+     * @param scanned  called once the body is fully decoded, with the number of jobs the upstream returned
+     */
+    public Flux<Job> fetchPage(String accessToken, String query, String country, int index, int pageSize, IntConsumer scanned) {
+        Mono<ResponseEntity<Flux<DataBuffer>>> response = webClient.get()
+            .uri(uri -> uri.path("/jobs")
+                .queryParam("q", "{query}")
+                .queryParam("country", "{country}")
+                .queryParam("start", index * pageSize)
+                .queryParam("count", pageSize)
+                .build(query, country))
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .retrieve()
+            .onStatus(status -> status.value() == HttpStatus.TOO_MANY_REQUESTS.value(), this::throttled)
+            .toEntityFlux(DataBuffer.class);
+
+        Mono<ResponseEntity<Flux<DataBuffer>>> call = observations.stage("upstream_response", response);
+        return scheduler.schedule(accessToken, guard.execute(call, () -> scheduler.tryAcquire(accessToken)))
+            .flatMapMany(entity -> observations.stage("body_decode", jobStreamDecoder.decode(entity.getBody(), scanned)));
+    }
+
+    private Mono<Throwable> throttled(ClientResponse response) {
+        Duration retryAfter = retryAfter(response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER), clock.instant());
+        scheduler.pause(retryAfter);
+        return response.releaseBody()
+            .thenReturn(new UpstreamRateLimitedException("LinkedIn API rate limit reached", retryAfter));
+    }
+
+    /**
+     * Parses a {@code Retry-After} value given either as delay-seconds or as an HTTP-date, the latter taken
+     * relative to {@code now}.
+     */
+    static Duration retryAfter(String header, Instant now) {
+        if (header == null || header.isBlank()) {
+            return Duration.ZERO;
+        }
+        String value = header.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException ignored) {
+            // Not delay-seconds, try HTTP-date below
+        }
+        try {
+            Instant at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration delay = Duration.between(now, at);
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException ignored) {
+            return Duration.ZERO;
+        }
+    }
+}
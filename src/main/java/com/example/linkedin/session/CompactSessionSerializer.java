@@ -0,0 +1,358 @@
+package com.example.linkedin.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.StandardClaimNames;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.net.URI;
+import java.net.URL;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Serializes session attribute values into a small versioned binary format instead of JDK serialization.
+ * <p>
+ * Strings, numbers, booleans, instants and a {@link SecurityContextImpl} holding an {@link OAuth2AuthenticationToken}
+ * for a {@link DefaultOidcUser} or {@link DefaultOAuth2User} are written compactly: field values only, no class
+ * descriptors, and OIDC authorities that repeat the principal's ID token are written as a reference to it.
+ * Every other value is written with JDK serialization. Blobs starting with the JDK stream magic {@code 0xACED},
+ * including sessions written before this format existed, are read back with JDK serialization.
+ * <p>
+ * Layout: {@code 'L' 'S'}, format version, type tag, payload. A reader rejects versions it does not know.
+ */
+public class CompactSessionSerializer implements RedisSerializer<Object> {
+    static final byte MAGIC_0 = 'L';
+    static final byte MAGIC_1 = 'S';
+    static final byte VERSION = 1;
+
+    private static final byte JDK_MAGIC_0 = (byte) 0xAC;
+    private static final byte JDK_MAGIC_1 = (byte) 0xED;
+
+    // Top-level and nested value tags
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte LONG = 2;
+    private static final byte INTEGER = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte INSTANT = 6;
+    private static final byte URL_VALUE = 7;
+    private static final byte LIST = 8;
+    private static final byte MAP = 9;
+    private static final byte SECURITY_CONTEXT = 20;
+
+    private static final byte OIDC_USER = 1;
+    private static final byte OAUTH2_USER = 2;
+
+    private static final byte SIMPLE_AUTHORITY = 0;
+    private static final byte OIDC_AUTHORITY = 1;
+    private static final byte OAUTH2_AUTHORITY = 2;
+
+    private final JdkSerializationRedisSerializer jdk;
+    private final Counter compactWrites;
+    private final Counter jdkWrites;
+
+    public CompactSessionSerializer(ClassLoader classLoader, MeterRegistry meterRegistry) {
+        this.jdk = new JdkSerializationRedisSerializer(classLoader);
+        this.compactWrites = meterRegistry.counter("linkedin.session.attributes.serialized", "format", "compact");
+        this.jdkWrites = meterRegistry.counter("linkedin.session.attributes.serialized", "format", "jdk");
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(MAGIC_0);
+            out.writeByte(MAGIC_1);
+            out.writeByte(VERSION);
+            if (value instanceof SecurityContextImpl context && isCompactable(context)) {
+                out.writeByte(SECURITY_CONTEXT);
+                writeSecurityContext(out, (OAuth2AuthenticationToken) context.getAuthentication());
+            } else {
+                writeValue(out, value);
+            }
+            compactWrites.increment();
+            return bytes.toByteArray();
+        } catch (UnsupportedValueException | UTFDataFormatException e) {
+            // UTFDataFormatException: a string longer than writeUTF allows
+            jdkWrites.increment();
+            return jdk.serialize(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write session attribute", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes.length >= 2 && bytes[0] == JDK_MAGIC_0 && bytes[1] == JDK_MAGIC_1) {
+            return jdk.deserialize(bytes);
+        }
+        if (bytes.length < 4 || bytes[0] != MAGIC_0 || bytes[1] != MAGIC_1) {
+            throw new SerializationException("Unknown session attribute format");
+        }
+        if (bytes[2] != VERSION) {
+            throw new SerializationException("Unsupported session attribute format version " + bytes[2]);
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 3, bytes.length - 3));
+            byte tag = in.readByte();
+            return tag == SECURITY_CONTEXT ? readSecurityContext(in) : readValue(in, tag);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Could not read session attribute", e);
+        }
+    }
+
+    private static boolean isCompactable(SecurityContextImpl context) {
+        if (context.getClass() != SecurityContextImpl.class
+            || !(context.getAuthentication() instanceof OAuth2AuthenticationToken token)
+            || token.getClass() != OAuth2AuthenticationToken.class
+            || token.getDetails() != null
+            || !token.isAuthenticated()) {
+            return false;
+        }
+        OAuth2User principal = token.getPrincipal();
+        if (principal.getClass() != DefaultOidcUser.class && principal.getClass() != DefaultOAuth2User.class) {
+            return false;
+        }
+        return nameAttributeKey(principal) != null
+            && token.getAuthorities().stream().allMatch(authority -> authorityTag(authority, principal) >= 0);
+    }
+
+    private static void writeSecurityContext(DataOutputStream out, OAuth2AuthenticationToken token) throws IOException {
+        OAuth2User principal = token.getPrincipal();
+        out.writeUTF(token.getAuthorizedClientRegistrationId());
+        out.writeUTF(nameAttributeKey(principal));
+        if (principal instanceof DefaultOidcUser oidcUser) {
+            out.writeByte(OIDC_USER);
+            OidcIdToken idToken = oidcUser.getIdToken();
+            out.writeUTF(idToken.getTokenValue());
+            writeValue(out, idToken.getIssuedAt());
+            writeValue(out, idToken.getExpiresAt());
+            writeValue(out, idToken.getClaims());
+            writeValue(out, oidcUser.getUserInfo() == null ? null : oidcUser.getUserInfo().getClaims());
+        } else {
+            out.writeByte(OAUTH2_USER);
+            writeValue(out, principal.getAttributes());
+        }
+        Collection<? extends GrantedAuthority> authorities = token.getAuthorities();
+        out.writeShort(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            byte tag = authorityTag(authority, principal);
+            out.writeByte(tag);
+            out.writeUTF(authority.getAuthority());
+            if (tag != SIMPLE_AUTHORITY) {
+                writeValue(out, ((OAuth2UserAuthority) authority).getUserNameAttributeName());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SecurityContextImpl readSecurityContext(DataInputStream in) throws IOException {
+        String registrationId = in.readUTF();
+        String nameAttributeKey = in.readUTF();
+        byte principalType = in.readByte();
+
+        OidcIdToken idToken = null;
+        OidcUserInfo userInfo = null;
+        Map<String, Object> attributes = null;
+        if (principalType == OIDC_USER) {
+            String tokenValue = in.readUTF();
+            Instant issuedAt = (Instant) readValue(in);
+            Instant expiresAt = (Instant) readValue(in);
+            idToken = new OidcIdToken(tokenValue, issuedAt, expiresAt, (Map<String, Object>) readValue(in));
+            Map<String, Object> userInfoClaims = (Map<String, Object>) readValue(in);
+            userInfo = userInfoClaims == null ? null : new OidcUserInfo(userInfoClaims);
+        } else if (principalType == OAUTH2_USER) {
+            attributes = (Map<String, Object>) readValue(in);
+        } else {
+            throw new IOException("Unknown principal type " + principalType);
+        }
+
+        int count = in.readUnsignedShort();
+        List<GrantedAuthority> authorities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte tag = in.readByte();
+            String authority = in.readUTF();
+            authorities.add(switch (tag) {
+                case SIMPLE_AUTHORITY -> new SimpleGrantedAuthority(authority);
+                case OIDC_AUTHORITY -> new OidcUserAuthority(authority, idToken, userInfo, (String) readValue(in));
+                case OAUTH2_AUTHORITY -> new OAuth2UserAuthority(authority, attributes, (String) readValue(in));
+                default -> throw new IOException("Unknown authority type " + tag);
+            });
+        }
+
+        OAuth2User principal = principalType == OIDC_USER
+            ? new DefaultOidcUser(authorities, idToken, userInfo, nameAttributeKey)
+            : new DefaultOAuth2User(authorities, attributes, nameAttributeKey);
+        Authentication authentication = new OAuth2AuthenticationToken(principal, authorities, registrationId);
+        return new SecurityContextImpl(authentication);
+    }
+
+    /**
+     * {@link DefaultOAuth2User} does not expose the attribute it takes its name from, so it is recovered
+     * from the attribute values, preferring {@code sub}.
+     */
+    private static String nameAttributeKey(OAuth2User principal) {
+        String name = principal.getName();
+        Map<String, Object> attributes = principal.getAttributes();
+        if (Objects.equals(String.valueOf(attributes.get(StandardClaimNames.SUB)), name)) {
+            return StandardClaimNames.SUB;
+        }
+        return attributes.entrySet().stream()
+            .filter(entry -> Objects.equals(String.valueOf(entry.getValue()), name))
+            .map(Map.Entry::getKey)
+            .findFirst()
+            .orElse(null);
+    }
+
+    /**
+     * @return the tag to write {@code authority} with, or {@code -1} if it does not merely repeat the principal
+     */
+    private static byte authorityTag(GrantedAuthority authority, OAuth2User principal) {
+        if (authority.getClass() == SimpleGrantedAuthority.class) {
+            return SIMPLE_AUTHORITY;
+        }
+        if (authority.getClass() == OidcUserAuthority.class && principal instanceof DefaultOidcUser oidcUser) {
+            OidcUserAuthority oidcAuthority = (OidcUserAuthority) authority;
+            return Objects.equals(oidcAuthority.getIdToken(), oidcUser.getIdToken())
+                && Objects.equals(oidcAuthority.getIdToken().getClaims(), oidcUser.getIdToken().getClaims())
+                && Objects.equals(oidcAuthority.getUserInfo(), oidcUser.getUserInfo())
+                ? OIDC_AUTHORITY : -1;
+        }
+        if (authority.getClass() == OAuth2UserAuthority.class && principal.getClass() == DefaultOAuth2User.class) {
+            return Objects.equals(((OAuth2UserAuthority) authority).getAttributes(), principal.getAttributes())
+                ? OAUTH2_AUTHORITY : -1;
+        }
+        return -1;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(NULL);
+            case String string -> {
+                out.writeByte(STRING);
+                out.writeUTF(string);
+            }
+            case Long number -> {
+                out.writeByte(LONG);
+                out.writeLong(number);
+            }
+            case Integer number -> {
+                out.writeByte(INTEGER);
+                out.writeInt(number);
+            }
+            case Double number -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(number);
+            }
+            case Boolean bool -> {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(bool);
+            }
+            case Instant instant -> {
+                out.writeByte(INSTANT);
+                out.writeLong(instant.getEpochSecond());
+                out.writeInt(instant.getNano());
+            }
+            case URL url -> {
+                out.writeByte(URL_VALUE);
+                out.writeUTF(url.toExternalForm());
+            }
+            case List<?> list -> {
+                out.writeByte(LIST);
+                out.writeInt(list.size());
+                for (Object element : list) {
+                    writeValue(out, element);
+                }
+            }
+            case Map<?, ?> map -> {
+                out.writeByte(MAP);
+                out.writeInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (!(entry.getKey() instanceof String key)) {
+                        throw new UnsupportedValueException();
+                    }
+                    out.writeUTF(key);
+                    writeValue(out, entry.getValue());
+                }
+            }
+            default -> throw new UnsupportedValueException();
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        return readValue(in, in.readByte());
+    }
+
+    private static Object readValue(DataInputStream in, byte tag) throws IOException {
+        return switch (tag) {
+            case NULL -> null;
+            case STRING -> in.readUTF();
+            case LONG -> in.readLong();
+            case INTEGER -> in.readInt();
+            case DOUBLE -> in.readDouble();
+            case BOOLEAN -> in.readBoolean();
+            case INSTANT -> Instant.ofEpochSecond(in.readLong(), in.readInt());
+            case URL_VALUE -> URI.create(in.readUTF()).toURL();
+            case LIST -> {
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                yield list;
+            }
+            case MAP -> {
+                int size = in.readInt();
+                Map<String, Object> map = new LinkedHashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    map.put(in.readUTF(), readValue(in));
+                }
+                yield map;
+            }
+            default -> throw new IOException("Unknown value type " + tag);
+        };
+    }
+
+    /**
+     * The value, or something inside it, has no compact form; the whole value is written with JDK serialization.
+     */
+    private static final class UnsupportedValueException extends RuntimeException {
+        private UnsupportedValueException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,460 @@
+package com.example.linkedin.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.MapSession;
+import org.springframework.session.ReactiveSessionRepository;
+import org.springframework.session.Session;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Web sessions stored as Redis hashes in Spring Session's key layout ({@code <namespace>:sessions:<id>}, fields
+ * {@code creationTime}, {@code lastAccessedTime}, {@code maxInactiveInterval} and {@code sessionAttr:<name>}),
+ * with attribute values written by {@link CompactSessionSerializer}.
+ * <p>
+ * Loaded and saved sessions are kept in a bounded in-process near-cache, so most requests do not read Redis at all.
+ * A copy is dropped when Redis reports a change to its key (see {@link SessionInvalidationListener}), and is
+ * reloaded after {@code nearCacheTtl} regardless. Only changed fields are written back, and the last access time
+ * only once it has advanced by {@code touchInterval}.
+ * <p>
+ * Every save also writes a fresh nonce to the {@code writeNonce} field, in one script with the changes. The script
+ * reports whether the field still held the nonce the session was loaded with; if not, another instance changed the
+ * session in the meantime and the saved copy is not cached. A change reported within {@code ownWriteWindow} of a
+ * save is only taken to be the echo of that save, and keeps the copy just cached, while the field still holds the
+ * nonce this instance wrote.
+ */
+public class NearCachingRedisSessionRepository
+    implements ReactiveSessionRepository<NearCachingRedisSessionRepository.RedisSession> {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearCachingRedisSessionRepository.class);
+
+    static final String CREATION_TIME = "creationTime";
+    static final String LAST_ACCESSED_TIME = "lastAccessedTime";
+    static final String MAX_INACTIVE_INTERVAL = "maxInactiveInterval";
+    static final String ATTRIBUTE_PREFIX = "sessionAttr:";
+    static final String WRITE_NONCE = "writeNonce";
+
+    /**
+     * Keyspace events raised by the commands {@link #SAVE} runs on the saved key.
+     */
+    private static final Set<String> SAVE_EVENTS = Set.of("hset", "hdel", "expire", "persist");
+
+    /**
+     * KEYS: session key. ARGV: nonce field, nonce expected before the save ({@code ""} for none), time to live in
+     * seconds ({@code -1} for none), number of fields to set, the fields and values to set, the fields to delete.
+     * Returns 1 if the expected nonce was found, 0 otherwise.
+     */
+    private static final RedisScript<Long> SAVE = RedisScript.of("""
+        local previous = redis.call('HGET', KEYS[1], ARGV[1]) or ''
+        local count = tonumber(ARGV[4])
+        redis.call('HSET', KEYS[1], unpack(ARGV, 5, 4 + 2 * count))
+        if #ARGV > 4 + 2 * count then
+            redis.call('HDEL', KEYS[1], unpack(ARGV, 5 + 2 * count, #ARGV))
+        end
+        local ttl = tonumber(ARGV[3])
+        if ttl < 0 then
+            redis.call('PERSIST', KEYS[1])
+        else
+            redis.call('EXPIRE', KEYS[1], ttl)
+        end
+        if previous == ARGV[2] then
+            return 1
+        end
+        return 0
+        """, Long.class);
+
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final ReactiveHashOperations<String, String, byte[]> hashOperations;
+    private final RedisSerializer<Object> serializer;
+    private final SessionProperties properties;
+    private final String keyPrefix;
+    private final Cache<String, Stored> nearCache;
+    /** Nonce of this instance's latest save per session key, for {@code ownWriteWindow}. */
+    private final Cache<String, byte[]> ownWrites;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong saves = new AtomicLong();
+
+    private final Timer nearCacheLoads;
+    private final Timer redisLoads;
+    private final Timer missingLoads;
+    private final DistributionSummary bytesRead;
+    private final DistributionSummary bytesWritten;
+    private final Counter invalidations;
+
+    public NearCachingRedisSessionRepository(
+        ReactiveRedisTemplate<String, byte[]> redisTemplate,
+        RedisSerializer<Object> serializer,
+        SessionProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.hashOperations = redisTemplate.opsForHash();
+        this.serializer = serializer;
+        this.properties = properties;
+        this.keyPrefix = properties.namespace() + ":sessions:";
+        this.nearCache = Caffeine.newBuilder()
+            .maximumSize(properties.nearCacheMaxEntries())
+            .expireAfterWrite(properties.nearCacheTtl())
+            .build();
+        this.ownWrites = Caffeine.newBuilder()
+            .maximumSize(properties.nearCacheMaxEntries())
+            .expireAfterWrite(properties.ownWriteWindow())
+            .build();
+        meterRegistry.gaugeMapSize("linkedin.session.near_cache.size", List.of(), nearCache.asMap());
+        this.nearCacheLoads = loadTimer(meterRegistry, "near_cache");
+        this.redisLoads = loadTimer(meterRegistry, "redis");
+        this.missingLoads = loadTimer(meterRegistry, "missing");
+        this.bytesRead = bytesSummary(meterRegistry, "read");
+        this.bytesWritten = bytesSummary(meterRegistry, "write");
+        this.invalidations = meterRegistry.counter("linkedin.session.near_cache.invalidations");
+    }
+
+    @Override
+    public Mono<RedisSession> createSession() {
+        return Mono.fromSupplier(() -> {
+            MapSession cached = new MapSession();
+            cached.setMaxInactiveInterval(properties.maxInactiveInterval());
+            return new RedisSession(cached, null, true);
+        });
+    }
+
+    @Override
+    public Mono<Void> save(RedisSession session) {
+        return Mono.defer(() -> {
+            String key = sessionKey(session.getId());
+            Mono<Void> rename = Mono.empty();
+            if (!session.isNew && !session.originalId.equals(session.getId())) {
+                String originalKey = sessionKey(session.originalId);
+                nearCache.invalidate(session.originalId);
+                rename = redisTemplate.rename(originalKey, key)
+                    .onErrorResume(error -> {
+                        // The old key expired in the meantime; the full write below recreates the session
+                        logger.debug("Could not rename session key {}", originalKey, error);
+                        session.delta.putAll(session.fullState());
+                        return Mono.empty();
+                    })
+                    .then();
+            }
+            return rename.then(Mono.defer(() -> write(session, key)));
+        });
+    }
+
+    private Mono<Void> write(RedisSession session, String key) {
+        Map<String, byte[]> writes = new HashMap<>();
+        List<String> removals = new ArrayList<>();
+        long size = 0;
+        for (Map.Entry<String, Object> change : session.delta.entrySet()) {
+            if (change.getValue() == null) {
+                removals.add(change.getKey());
+            } else {
+                byte[] value = serializer.serialize(change.getValue());
+                writes.put(change.getKey(), value);
+                size += value.length;
+            }
+        }
+        if (writes.isEmpty() && removals.isEmpty()) {
+            // Keep the near-cache entry as is, so that nearCacheTtl still bounds its age
+            session.markSaved();
+            return Mono.empty();
+        }
+        if (!writes.isEmpty()) {
+            bytesWritten.record(size);
+        }
+        byte[] nonce = serializer.serialize(instanceId + ':' + saves.incrementAndGet());
+        writes.put(WRITE_NONCE, nonce);
+
+        long ttl = session.getMaxInactiveInterval().isNegative() ? -1 : session.getMaxInactiveInterval().toSeconds();
+        List<byte[]> args = new ArrayList<>(4 + 2 * writes.size() + removals.size());
+        args.add(bytes(WRITE_NONCE));
+        args.add(session.loadedNonce == null ? new byte[0] : session.loadedNonce);
+        args.add(bytes(Long.toString(ttl)));
+        args.add(bytes(Integer.toString(writes.size())));
+        writes.forEach((field, value) -> {
+            args.add(bytes(field));
+            args.add(value);
+        });
+        removals.forEach(field -> args.add(bytes(field)));
+
+        MapSession snapshot = new MapSession(session.cached);
+        // Marked before the script runs, since its events may arrive before the reply
+        ownWrites.put(key, nonce);
+        return redisTemplate.execute(SAVE, List.of(key), args)
+            .next()
+            .doOnNext(result -> {
+                session.markSaved();
+                boolean unchangedElsewhere = result == 1L;
+                if (unchangedElsewhere) {
+                    session.loadedNonce = nonce;
+                }
+                // Not cached if another instance wrote before this save, or a change since evicted the key
+                if (unchangedElsewhere && ownWrites.asMap().get(key) == nonce) {
+                    nearCache.put(snapshot.getId(), new Stored(snapshot, nonce));
+                } else {
+                    nearCache.invalidate(snapshot.getId());
+                }
+            })
+            .then();
+    }
+
+    @Override
+    public Mono<RedisSession> findById(String id) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Stored cached = nearCache.getIfPresent(id);
+            if (cached != null && !cached.session().isExpired()) {
+                nearCacheLoads.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return Mono.just(new RedisSession(new MapSession(cached.session()), cached.nonce(), false));
+            }
+            return hashOperations.entries(sessionKey(id))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .mapNotNull(fields -> fields.isEmpty() ? null : toStored(id, fields))
+                .filter(loaded -> !loaded.session().isExpired())
+                .doOnNext(loaded -> nearCache.put(id, loaded))
+                .map(loaded -> new RedisSession(new MapSession(loaded.session()), loaded.nonce(), false))
+                .doOnSuccess(session -> (session == null ? missingLoads : redisLoads)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return Mono.defer(() -> {
+            nearCache.invalidate(id);
+            ownWrites.invalidate(sessionKey(id));
+            return redisTemplate.delete(sessionKey(id)).then();
+        });
+    }
+
+    /**
+     * Drops the in-process copy of the session stored under {@code key}, if there is one, unless the event is
+     * the echo of this instance's own recent save: a write event while the {@code writeNonce} field still holds the
+     * nonce of that save. Never fails; if the field cannot be read the copy is dropped.
+     *
+     * @param event keyspace event name, e.g. {@code hset}, {@code del} or {@code expired}
+     */
+    Mono<Void> invalidateKey(String key, String event) {
+        if (!key.startsWith(keyPrefix)) {
+            return Mono.empty();
+        }
+        byte[] nonce = SAVE_EVENTS.contains(event) ? ownWrites.getIfPresent(key) : null;
+        if (nonce == null) {
+            evict(key);
+            return Mono.empty();
+        }
+        return hashOperations.get(key, WRITE_NONCE)
+            .map(current -> Arrays.equals(current, nonce))
+            .defaultIfEmpty(false)
+            .onErrorReturn(false)
+            .doOnNext(echo -> {
+                if (!echo) {
+                    evict(key);
+                }
+            })
+            .then();
+    }
+
+    private void evict(String key) {
+        // Also keeps a save still awaiting its reply from caching a copy that is already outdated
+        ownWrites.invalidate(key);
+        if (nearCache.asMap().remove(key.substring(keyPrefix.length())) != null) {
+            invalidations.increment();
+        }
+    }
+
+    String keyPattern() {
+        return keyPrefix + "*";
+    }
+
+    private Stored toStored(String id, Map<String, byte[]> fields) {
+        long size = 0;
+        MapSession session = new MapSession(id);
+        byte[] nonce = null;
+        try {
+            for (Map.Entry<String, byte[]> field : fields.entrySet()) {
+                size += field.getValue().length;
+                if (WRITE_NONCE.equals(field.getKey())) {
+                    nonce = field.getValue();
+                    continue;
+                }
+                Object value = serializer.deserialize(field.getValue());
+                switch (field.getKey()) {
+                    case CREATION_TIME -> session.setCreationTime(Instant.ofEpochMilli(((Number) value).longValue()));
+                    case LAST_ACCESSED_TIME -> session.setLastAccessedTime(Instant.ofEpochMilli(((Number) value).longValue()));
+                    case MAX_INACTIVE_INTERVAL -> session.setMaxInactiveInterval(Duration.ofSeconds(((Number) value).longValue()));
+                    default -> {
+                        if (field.getKey().startsWith(ATTRIBUTE_PREFIX)) {
+                            session.setAttribute(field.getKey().substring(ATTRIBUTE_PREFIX.length()), value);
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // An unreadable session is treated like an expired one: the user logs in again
+            logger.warn("Could not read session {}, ignoring it", id, e);
+            return null;
+        } finally {
+            bytesRead.record(size);
+        }
+        return new Stored(session, nonce);
+    }
+
+    private String sessionKey(String id) {
+        return keyPrefix + id;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Timer loadTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("linkedin.session.load")
+            .description("Time to look up a web session")
+            .tag("source", source)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private static DistributionSummary bytesSummary(MeterRegistry meterRegistry, String operation) {
+        return DistributionSummary.builder("linkedin.session.bytes")
+            .description("Serialized session size per Redis read or write")
+            .baseUnit("bytes")
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * Session handed to one request. Wraps a private copy of the stored state and records what changed.
+     */
+    public final class RedisSession implements Session {
+        private final MapSession cached;
+        private final Map<String, Object> delta = new HashMap<>();
+        private String originalId;
+        private boolean isNew;
+        private Instant persistedLastAccessedTime;
+        /** {@code writeNonce} of the stored state this session was loaded from, {@code null} if there was none. */
+        private byte[] loadedNonce;
+
+        private RedisSession(MapSession cached, byte[] loadedNonce, boolean isNew) {
+            this.cached = cached;
+            this.loadedNonce = loadedNonce;
+            this.originalId = cached.getId();
+            this.isNew = isNew;
+            this.persistedLastAccessedTime = cached.getLastAccessedTime();
+            if (isNew) {
+                delta.putAll(fullState());
+            }
+        }
+
+        @Override
+        public String getId() {
+            return cached.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            return cached.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return cached.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return cached.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            cached.setAttribute(attributeName, attributeValue);
+            delta.put(ATTRIBUTE_PREFIX + attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            cached.removeAttribute(attributeName);
+            delta.put(ATTRIBUTE_PREFIX + attributeName, null);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return cached.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            cached.setLastAccessedTime(lastAccessedTime);
+            if (Duration.between(persistedLastAccessedTime, lastAccessedTime).compareTo(properties.touchInterval()) >= 0) {
+                delta.put(LAST_ACCESSED_TIME, lastAccessedTime.toEpochMilli());
+            }
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return cached.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            cached.setMaxInactiveInterval(interval);
+            delta.put(MAX_INACTIVE_INTERVAL, (int) interval.toSeconds());
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return cached.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return cached.isExpired();
+        }
+
+        private Map<String, Object> fullState() {
+            Map<String, Object> state = new HashMap<>();
+            state.put(CREATION_TIME, cached.getCreationTime().toEpochMilli());
+            state.put(LAST_ACCESSED_TIME, cached.getLastAccessedTime().toEpochMilli());
+            state.put(MAX_INACTIVE_INTERVAL, (int) cached.getMaxInactiveInterval().toSeconds());
+            cached.getAttributeNames().forEach(name -> state.put(ATTRIBUTE_PREFIX + name, cached.getAttribute(name)));
+            return state;
+        }
+
+        private void markSaved() {
+            delta.clear();
+            isNew = false;
+            originalId = cached.getId();
+            persistedLastAccessedTime = cached.getLastAccessedTime();
+        }
+    }
+
+    /**
+     * @param nonce  {@code writeNonce} the session was stored with, {@code null} if there was none
+     */
+    private record Stored(MapSession session, byte[] nonce) {
+    }
+}
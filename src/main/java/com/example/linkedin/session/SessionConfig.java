@@ -0,0 +1,55 @@
+package com.example.linkedin.session;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.config.annotation.web.server.EnableSpringWebSession;
+
+/**
+ * Replaces Spring Boot's Redis session store with {@link NearCachingRedisSessionRepository}. Sessions stay in
+ * the same Redis keys, so sessions written by the previous store remain valid after a deployment.
+ */
+@Configuration
+@EnableSpringWebSession
+public class SessionConfig {
+
+    @Bean
+    public CompactSessionSerializer sessionAttributeSerializer(MeterRegistry meterRegistry) {
+        return new CompactSessionSerializer(SessionConfig.class.getClassLoader(), meterRegistry);
+    }
+
+    @Bean
+    public NearCachingRedisSessionRepository sessionRepository(
+        ReactiveRedisConnectionFactory connectionFactory,
+        CompactSessionSerializer sessionAttributeSerializer,
+        SessionProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+            .<String, byte[]>newSerializationContext()
+            .key(RedisSerializer.string())
+            .value(RedisSerializer.byteArray())
+            .hashKey(RedisSerializer.string())
+            .hashValue(RedisSerializer.byteArray())
+            .build();
+        return new NearCachingRedisSessionRepository(
+            new ReactiveRedisTemplate<>(connectionFactory, context),
+            sessionAttributeSerializer,
+            properties,
+            meterRegistry
+        );
+    }
+
+    @Bean
+    public SessionInvalidationListener sessionInvalidationListener(
+        ReactiveRedisConnectionFactory connectionFactory,
+        NearCachingRedisSessionRepository sessionRepository,
+        SessionProperties properties
+    ) {
+        return new SessionInvalidationListener(connectionFactory, sessionRepository, properties);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.linkedin.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Evicts sessions from the near-cache of {@link NearCachingRedisSessionRepository} when Redis reports that their
+ * key changed, expired or was deleted, typically because another instance wrote it. Events caused by this
+ * instance's own saves are recognised by the repository from the nonce each save writes, and do not evict the copy
+ * it just cached.
+ * <p>
+ * Requires keyspace notifications for generic and hash commands ({@code notify-keyspace-events} containing
+ * {@code K}, {@code g}, {@code h} and {@code x}). If {@code configureKeyspaceEvents} is enabled, the missing flags are added at
+ * startup; otherwise, and on managed Redis services that forbid {@code CONFIG SET}, they must be configured up
+ * front. Without notifications the
+ * near-cache still drops each copy after {@code nearCacheTtl}.
+ */
+public class SessionInvalidationListener implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(SessionInvalidationListener.class);
+    private static final String NOTIFY_KEYSPACE_EVENTS = "notify-keyspace-events";
+    private static final String KEYSPACE_CHANNEL_PREFIX = "__keyspace@";
+
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final NearCachingRedisSessionRepository repository;
+    private final SessionProperties properties;
+    private ReactiveRedisMessageListenerContainer container;
+    private Disposable subscription;
+
+    public SessionInvalidationListener(
+        ReactiveRedisConnectionFactory connectionFactory,
+        NearCachingRedisSessionRepository repository,
+        SessionProperties properties
+    ) {
+        this.connectionFactory = connectionFactory;
+        this.repository = repository;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.keyspaceEvents()) {
+            return;
+        }
+        container = new ReactiveRedisMessageListenerContainer(connectionFactory);
+        Mono<Void> configure = properties.configureKeyspaceEvents() ? configureNotifications() : Mono.empty();
+        subscription = configure
+            .thenMany(container.receive(PatternTopic.of(KEYSPACE_CHANNEL_PREFIX + "*__:" + repository.keyPattern())))
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofMinutes(1))
+                .doBeforeRetry(signal -> logger.warn("Session keyspace subscription failed, retrying",
+                    signal.failure())))
+            .flatMap(message -> {
+                // Channel is __keyspace@<db>__:<key>, the message is the command, e.g. hset, del or expired
+                String channel = message.getChannel();
+                return repository.invalidateKey(channel.substring(channel.indexOf("__:") + 3), message.getMessage());
+            })
+            .subscribe();
+    }
+
+    private Mono<Void> configureNotifications() {
+        return Mono.usingWhen(
+            Mono.fromSupplier(connectionFactory::getReactiveConnection),
+            connection -> connection.serverCommands().getConfig(NOTIFY_KEYSPACE_EVENTS)
+                .map(config -> config.getProperty(NOTIFY_KEYSPACE_EVENTS, ""))
+                .flatMap(current -> {
+                    String required = withRequiredFlags(current);
+                    return required.equals(current)
+                        ? Mono.<Void>empty()
+                        : connection.serverCommands().setConfig(NOTIFY_KEYSPACE_EVENTS, required).then();
+                }),
+            ReactiveRedisConnection::closeLater
+        ).onErrorResume(error -> {
+            logger.warn("Could not enable Redis keyspace notifications; set {} to include 'Kghx' on the server",
+                NOTIFY_KEYSPACE_EVENTS, error);
+            return Mono.empty();
+        });
+    }
+
+    static String withRequiredFlags(String current) {
+        StringBuilder flags = new StringBuilder(current);
+        if (current.indexOf('K') < 0) {
+            flags.append('K');
+        }
+        if (current.indexOf('A') < 0) {
+            for (char flag : new char[] {'g', 'h', 'x'}) {
+                if (current.indexOf(flag) < 0) {
+                    flags.append(flag);
+                }
+            }
+        }
+        return flags.toString();
+    }
+
+    @Override
+    public void destroy() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        if (container != null) {
+            container.destroy();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.linkedin.session;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the Redis backed web session store.
+ *
+ * @param namespace                  prefix of every session key, kept compatible with Spring Session's layout
+ * @param maxInactiveInterval        idle time after which a session expires
+ * @param touchInterval              minimum advance of the last access time before it is written back to Redis
+ * @param nearCacheMaxEntries        upper bound on sessions kept in process
+ * @param nearCacheTtl               age after which an in-process copy is reloaded even without an invalidation event
+ * @param keyspaceEvents             whether Redis keyspace notifications evict changed sessions from the near-cache
+ * @param ownWriteWindow             time after saving a session during which change events for its key are checked
+ *                                   against the nonce of that save, and kept as its echo if it is still current;
+ *                                   later events evict without reading Redis
+ * @param configureKeyspaceEvents    whether to enable the required {@code notify-keyspace-events} flags at startup;
+ *                                   off by default, since it changes the configuration of a shared server
+ */
+@ConfigurationProperties("linkedin.session")
+public record SessionProperties(
+    @DefaultValue("spring:session") String namespace,
+    @DefaultValue("30m") Duration maxInactiveInterval,
+    @DefaultValue("60s") Duration touchInterval,
+    @DefaultValue("10000") long nearCacheMaxEntries,
+    @DefaultValue("30s") Duration nearCacheTtl,
+    @DefaultValue("true") boolean keyspaceEvents,
+    @DefaultValue("1s") Duration ownWriteWindow,
+    @DefaultValue("false") boolean configureKeyspaceEvents
+) {
+}
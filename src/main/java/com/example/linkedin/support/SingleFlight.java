@@ -0,0 +1,111 @@
+package com.example.linkedin.support;
+
+import io.micrometer.core.instrument.Counter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces concurrent executions of the same call. The first subscriber for a key starts the call,
+ * every subscriber that arrives while it is in flight waits for and receives the same result.
+ * The call is cancelled only once every waiter has cancelled, and a finished call is forgotten immediately,
+ * so nothing is cached beyond the lifetime of the call itself.
+ * <p>
+ * The call runs with the Reactor context of the subscriber that started it.
+ */
+public final class SingleFlight<K, V> {
+    private static final int CLOSED = -1;
+
+    private final ConcurrentMap<K, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public SingleFlight(Counter coalesced) {
+        this.coalesced = coalesced;
+    }
+
+    public Mono<V> execute(K key, Mono<V> call) {
+        return Mono.deferContextual(context -> {
+            for (;;) {
+                Flight created = new Flight(key);
+                Flight existing = inFlight.putIfAbsent(key, created);
+                if (existing == null) {
+                    created.tryJoin();
+                    created.upstream = call.contextWrite(context).subscribe(
+                        created::complete,
+                        created::fail,
+                        created::completeEmpty
+                    );
+                    if (created.waiters.get() == CLOSED) {
+                        created.upstream.dispose();
+                    }
+                    return created.result();
+                }
+                if (existing.tryJoin()) {
+                    coalesced.increment();
+                    return existing.result();
+                }
+                inFlight.remove(key, existing);
+            }
+        });
+    }
+
+    public boolean isInFlight(K key) {
+        return inFlight.containsKey(key);
+    }
+
+    private final class Flight {
+        private final K key;
+        private final Sinks.One<V> sink = Sinks.one();
+        private final AtomicInteger waiters = new AtomicInteger();
+        private volatile Disposable upstream;
+
+        private Flight(K key) {
+            this.key = key;
+        }
+
+        private boolean tryJoin() {
+            for (;;) {
+                int current = waiters.get();
+                if (current == CLOSED) {
+                    return false;
+                }
+                if (waiters.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private Mono<V> result() {
+            return sink.asMono().doOnCancel(this::leave);
+        }
+
+        private void leave() {
+            if (waiters.decrementAndGet() == 0 && waiters.compareAndSet(0, CLOSED)) {
+                inFlight.remove(key, this);
+                Disposable current = upstream;
+                if (current != null) {
+                    current.dispose();
+                }
+            }
+        }
+
+        private void complete(V value) {
+            inFlight.remove(key, this);
+            sink.tryEmitValue(value);
+        }
+
+        private void completeEmpty() {
+            inFlight.remove(key, this);
+            sink.tryEmitEmpty();
+        }
+
+        private void fail(Throwable error) {
+            inFlight.remove(key, this);
+            sink.tryEmitError(error);
+        }
+    }
+}
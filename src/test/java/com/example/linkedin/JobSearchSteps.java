@@ -1,6 +1,10 @@
 package com.example.linkedin;
 
+import com.example.linkedin.model.BatchSearchResult;
 import com.example.linkedin.model.Job;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
@@ -10,19 +14,57 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @CucumberContextConfiguration
 @ExtendWith(SpringExtension.class)
-@ContextConfiguration(classes = LinkedInMockServer.class)
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = {LinkedinApplication.class, LinkedInMockServer.class})
+@ActiveProfiles("test-principal")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "LINKEDIN_CLIENT_ID=test",
+                "LINKEDIN_CLIENT_SECRET=test",
+                "linkedin.api.base-url=http://localhost:8089",
+                "linkedin.search.page-size=2",
+                "linkedin.cache.redis-enabled=false",
+                "linkedin.session.keyspace-events=false",
+                "linkedin.oauth2.redis-enabled=false",
+                "linkedin.local-index.enabled=false",
+                "linkedin.saved.poll-enabled=false",
+                "linkedin.filter.redis-enabled=false",
+                "linkedin.filter.rules[0].name=agencies",
+                "linkedin.filter.rules[0].type=company",
+                "linkedin.filter.rules[0].values=Acme Recruiting GmbH",
+                "linkedin.filter.rules[1].name=spam",
+                "linkedin.filter.rules[1].type=keyword",
+                "linkedin.filter.rules[1].values=commission only",
+                "linkedin.filter.rules[2].name=job-boards",
+                "linkedin.filter.rules[2].type=domain",
+                "linkedin.filter.rules[2].values=jobboard.example",
+                "linkedin.jwks.min-refresh-interval=0s",
+                "linkedin.rate-limit.min-backoff=50ms",
+                "linkedin.rate-limit.per-token-burst=100",
+                "linkedin.resilience.attempt-timeout=2s",
+                "linkedin.resilience.hedge-delay=200ms"
+        }
+)
 public class JobSearchSteps {
 
     @Autowired
@@ -30,6 +72,16 @@ public class JobSearchSteps {
 
     private ResponseEntity<List<Job>> response;
 
+    private ResponseEntity<String> streamResponse;
+
+    private ResponseEntity<List<String>> linksResponse;
+
+    private ResponseEntity<byte[]> conditionalResponse;
+
+    private ResponseEntity<String> batchResponse;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     @Given("I search for jobs with query {string} in country {string}")
     public void searchJobs(String query, String country) {
         response = restTemplate.exchange(
@@ -62,4 +114,158 @@ public class JobSearchSteps {
     @Then("none of the jobs should have Easy Apply enabled")
     public void validateNoEasyApply() {
     }
+
+    @Given("I stream jobs with query {string} in country {string}")
+    public void streamJobs(String query, String country) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        streamResponse = restTemplate.exchange(
+                "/jobs/search?query=" + query + "&country=" + country,
+                HttpMethod.GET, new HttpEntity<>(headers), String.class
+        );
+    }
+
+    @Then("every streamed line should be a direct application URL")
+    public void validateStreamedUrls() {
+        String body = streamResponse.getBody();
+        assertNotNull(body, "Streamed body should not be null");
+
+        List<String> lines = body.lines().filter(line -> !line.isBlank()).toList();
+        assertFalse(lines.isEmpty(), "Stream should contain at least one line");
+        assertTrue(lines.stream().allMatch(line -> line.startsWith("\"http")),
+                "Every NDJSON line should be a quoted URL starting with 'http'");
+    }
+
+    @Given("I search for direct apply links with query {string} in country {string} and limit {int}")
+    public void searchLinksWithLimit(String query, String country, int limit) {
+        linksResponse = restTemplate.exchange(
+                "/jobs/search?query=" + query + "&country=" + country + "&limit=" + limit,
+                HttpMethod.GET, null, new ParameterizedTypeReference<List<String>>() {}
+        );
+    }
+
+    @Given("I search for direct apply links with query {string} in country {string}")
+    public void searchLinks(String query, String country) {
+        linksResponse = restTemplate.exchange(
+                "/jobs/search?query=" + query + "&country=" + country,
+                HttpMethod.GET, null, new ParameterizedTypeReference<List<String>>() {}
+        );
+    }
+
+    @Then("I should get {int} direct application URLs")
+    public void validateLinkCount(int expected) {
+        List<String> links = linksResponse.getBody();
+        assertNotNull(links, "Response body should not be null");
+        assertEquals(expected, links.size(), "Unexpected number of direct application URLs: " + links);
+    }
+
+    @When("I repeat the search for query {string} in country {string} with the returned ETag")
+    public void repeatWithETag(String query, String country) {
+        String etag = linksResponse.getHeaders().getETag();
+        assertNotNull(etag, "Search response should carry an ETag");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        conditionalResponse = restTemplate.exchange(
+                "/jobs/search?query=" + query + "&country=" + country,
+                HttpMethod.GET, new HttpEntity<>(headers), byte[].class
+        );
+    }
+
+    @Then("the response should be 304 Not Modified without a body")
+    public void validateNotModified() {
+        assertEquals(HttpStatus.NOT_MODIFIED, conditionalResponse.getStatusCode());
+        assertNull(conditionalResponse.getBody(), "A 304 response should have no body");
+    }
+
+    @Given("I search for direct apply links with query {string} in country {string} as CBOR")
+    public void searchLinksAsCbor(String query, String country) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+        conditionalResponse = restTemplate.exchange(
+                "/jobs/search?query=" + query + "&country=" + country,
+                HttpMethod.GET, new HttpEntity<>(headers), byte[].class
+        );
+    }
+
+    @Then("the CBOR response should hold {int} direct application URLs")
+    public void validateCborLinks(int expected) throws IOException {
+        assertEquals(HttpStatus.OK, conditionalResponse.getStatusCode());
+        assertTrue(MediaType.APPLICATION_CBOR.isCompatibleWith(conditionalResponse.getHeaders().getContentType()),
+                "Unexpected content type " + conditionalResponse.getHeaders().getContentType());
+        List<String> links = new ObjectMapper(new CBORFactory())
+                .readValue(conditionalResponse.getBody(), new TypeReference<List<String>>() {});
+        assertEquals(expected, links.size(), "Unexpected number of direct application URLs: " + links);
+    }
+
+    @When("I run a batch search for queries {string} in country {string}")
+    public void runBatchSearch(String queries, String country) {
+        List<Map<String, String>> searches = Arrays.stream(queries.split(","))
+                .map(query -> Map.of("query", query, "country", country))
+                .toList();
+        postBatch(Map.of("searches", searches), MediaType.APPLICATION_JSON);
+    }
+
+    @When("I run a batch search with {int} searches")
+    public void runLargeBatchSearch(int count) {
+        postBatch(Map.of("searches", Collections.nCopies(count, Map.of("query", "Java", "country", "Germany"))),
+                MediaType.APPLICATION_JSON);
+    }
+
+    @When("I send a form encoded batch search")
+    public void runFormEncodedBatchSearch() {
+        postBatch("searches=Java", MediaType.APPLICATION_FORM_URLENCODED);
+    }
+
+    @Then("the batch response status should be {int}")
+    public void validateBatchStatus(int expected) {
+        assertEquals(expected, batchResponse.getStatusCode().value(), "Unexpected batch response: " + batchResponse.getBody());
+    }
+
+    @Then("the batch should hold {int} results")
+    public void validateBatchSize(int expected) throws IOException {
+        assertEquals(expected, batchResults().size());
+    }
+
+    @Then("the batch result for query {string} should hold {int} direct application URLs")
+    public void validateBatchLinks(String query, int expected) throws IOException {
+        BatchSearchResult result = batchResult(query);
+        assertNull(result.error(), "Search " + query + " should not fail");
+        assertEquals(expected, result.links().size(), "Unexpected links for " + query + ": " + result.links());
+    }
+
+    @Then("the batch should hold {int} direct application URLs in total")
+    public void validateBatchTotal(int expected) throws IOException {
+        List<String> links = batchResults().stream()
+                .flatMap(result -> result.links().stream())
+                .toList();
+        assertEquals(expected, links.size(), "Unexpected links across the batch: " + links);
+    }
+
+    @Then("the batch result for query {string} should fail with error {string}")
+    public void validateBatchError(String query, String error) throws IOException {
+        BatchSearchResult result = batchResult(query);
+        assertNull(result.links(), "Failed search " + query + " should have no links");
+        assertEquals(error, result.error());
+    }
+
+    private void postBatch(Object body, MediaType contentType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        batchResponse = restTemplate.exchange(
+                "/jobs/search/batch", HttpMethod.POST, new HttpEntity<>(body, headers), String.class
+        );
+    }
+
+    private List<BatchSearchResult> batchResults() throws IOException {
+        validateBatchStatus(200);
+        return objectMapper.readValue(batchResponse.getBody(), new TypeReference<List<BatchSearchResult>>() {});
+    }
+
+    private BatchSearchResult batchResult(String query) throws IOException {
+        return batchResults().stream()
+                .filter(result -> result.query().equals(query))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No batch result for " + query + ": " + batchResponse.getBody()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.example.linkedin;
+
+import com.example.linkedin.security.JwtDecoderRegistry;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class JwksSteps {
+
+    @Autowired
+    private JwtDecoderRegistry jwtDecoderRegistry;
+
+    private final WireMock wireMock = new WireMock(8089);
+
+    private final Map<String, RSAKey> keys = new HashMap<>();
+
+    private ClientRegistration registration;
+
+    @Given("a JWKS endpoint publishing key {string}")
+    public void publishKey(String keyId) throws JOSEException {
+        // A fresh registration ID per scenario gives every scenario its own decoder and key set
+        String path = "/jwks/" + UUID.randomUUID();
+        registration = ClientRegistration.withRegistrationId("jwks-" + UUID.randomUUID())
+                .clientId("client")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("http://localhost/callback")
+                .authorizationUri("http://localhost:8089/authorize")
+                .tokenUri("http://localhost:8089/token")
+                .jwkSetUri("http://localhost:8089" + path)
+                .build();
+        stubKeySet(keyId);
+    }
+
+    @When("the JWKS endpoint rotates to key {string}")
+    public void rotateKey(String keyId) throws JOSEException {
+        stubKeySet(keyId);
+    }
+
+    @When("I decode {int} ID tokens signed with key {string}")
+    public void decodeTokens(int count, String keyId) throws JOSEException {
+        ReactiveJwtDecoder decoder = jwtDecoderRegistry.createDecoder(registration);
+        for (int i = 0; i < count; i++) {
+            Jwt jwt = decoder.decode(sign(keys.get(keyId))).block();
+            assertNotNull(jwt, "Decoder should return a JWT");
+            assertEquals("member", jwt.getSubject());
+        }
+    }
+
+    @Then("the JWKS endpoint should have been fetched {int} time(s)")
+    public void verifyFetches(int expected) {
+        wireMock.verifyThat(expected, getRequestedFor(urlPathEqualTo(jwkSetPath())));
+    }
+
+    private void stubKeySet(String keyId) throws JOSEException {
+        RSAKey key = new RSAKeyGenerator(2048).keyID(keyId).generate();
+        keys.put(keyId, key);
+        wireMock.register(get(urlPathEqualTo(jwkSetPath()))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(new JWKSet(key.toPublicJWK()).toString())));
+    }
+
+    private String jwkSetPath() {
+        return registration.getProviderDetails().getJwkSetUri().substring("http://localhost:8089".length());
+    }
+
+    private static String sign(RSAKey key) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("member")
+                .issuer("https://www.linkedin.com/oauth")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(300)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
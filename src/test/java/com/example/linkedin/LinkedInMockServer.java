@@ -1,6 +1,7 @@
 package com.example.linkedin;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
 import io.cucumber.java.AfterAll;
 import io.cucumber.java.BeforeAll;
 import org.slf4j.Logger;
@@ -9,6 +10,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 
@@ -40,6 +42,11 @@ public class LinkedInMockServer {
                                 .withHeader("Content-Type", "application/json")
                                 // IMPORTANT: Ensure this body matches your Job record, including 'easyApply'
                                 .withBody("[{\"id\": \"123\", \"applyUrl\": \"https://company.com/apply\", \"easyApply\": false}]")));
+                stubPagedJobs();
+                stubThrottledJobs();
+                stubSlowJobs();
+                stubFilteredJobs();
+                stubRejectedJobs();
                 logger.info("WireMock stubs configured.");
 
             } catch (Exception e) {
@@ -55,6 +62,110 @@ public class LinkedInMockServer {
         }
     }
 
+    /**
+     * Three pages for the query "Paged" with a page size of 2: two full pages and a short last one.
+     * One job on the second page is Easy Apply, so the search yields four direct apply links.
+     */
+    private static void stubPagedJobs() {
+        String[] pages = {
+                "[{\"id\": \"p1\", \"applyUrl\": \"https://company.com/apply/1\", \"easyApply\": false},"
+                        + "{\"id\": \"p2\", \"applyUrl\": \"https://company.com/apply/2\", \"easyApply\": false}]",
+                "[{\"id\": \"p3\", \"applyUrl\": \"https://linkedin.com/easy/3\", \"easyApply\": true},"
+                        + "{\"id\": \"p4\", \"applyUrl\": \"https://company.com/apply/4\", \"easyApply\": false}]",
+                "[{\"id\": \"p5\", \"applyUrl\": \"https://company.com/apply/5\", \"easyApply\": false}]"
+        };
+        for (int page = 0; page < pages.length; page++) {
+            wireMockServer.stubFor(get(urlPathMatching("/jobs"))
+                    .withQueryParam("q", equalTo("Paged"))
+                    .withQueryParam("start", equalTo(String.valueOf(page * 2)))
+                    .willReturn(aResponse()
+                            .withHeader("Content-Type", "application/json")
+                            .withBody(pages[page])));
+        }
+    }
+
+    /**
+     * The query "Throttled" is answered with a 429 and {@code Retry-After: 1} once, then with one job.
+     */
+    private static void stubThrottledJobs() {
+        wireMockServer.stubFor(get(urlPathMatching("/jobs"))
+                .withQueryParam("q", equalTo("Throttled"))
+                .inScenario("throttled")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willSetStateTo("recovered")
+                .willReturn(aResponse()
+                        .withStatus(429)
+                        .withHeader("Retry-After", "1")));
+        wireMockServer.stubFor(get(urlPathMatching("/jobs"))
+                .withQueryParam("q", equalTo("Throttled"))
+                .inScenario("throttled")
+                .whenScenarioStateIs("recovered")
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"id\": \"t1\", \"applyUrl\": \"https://company.com/apply/t1\", \"easyApply\": false}]")));
+    }
+
+    /**
+     * The query "Slow" takes 3 seconds to answer the first time and answers at once afterwards,
+     * so only a hedged duplicate gets a result within the attempt timeout set by the tests.
+     */
+    private static void stubSlowJobs() {
+        String body = "[{\"id\": \"s1\", \"applyUrl\": \"https://company.com/apply/s1\", \"easyApply\": false}]";
+        wireMockServer.stubFor(get(urlPathMatching("/jobs"))
+                .withQueryParam("q", equalTo("Slow"))
+                .inScenario("slow")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willSetStateTo("warm")
+                .willReturn(aResponse()
+                        .withFixedDelay(3000)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(body)));
+        wireMockServer.stubFor(get(urlPathMatching("/jobs"))
+                .withQueryParam("q", equalTo("Slow"))
+                .inScenario("slow")
+                .whenScenarioStateIs("warm")
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(body)));
+    }
+
+    /**
+     * The query "Filtered" returns four jobs; three of them are excluded by the filter rules set in the tests:
+     * a recruiting agency, a spam keyword in the title and a blocked apply URL domain. Later pages are empty.
+     */
+    private static void stubFilteredJobs() {
+        wireMockServer.stubFor(get(urlPathMatching("/jobs"))
+                .withQueryParam("q", equalTo("Filtered"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[]")));
+        wireMockServer.stubFor(get(urlPathMatching("/jobs"))
+                .withQueryParam("q", equalTo("Filtered"))
+                .withQueryParam("start", equalTo("0"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"id\": \"f1\", \"title\": \"Java Developer\", \"company\": {\"name\": \"Acme Recruiting GmbH\"},"
+                                + " \"applyUrl\": \"https://acme.com/apply/f1\", \"easyApply\": false},"
+                                + "{\"id\": \"f2\", \"title\": \"Java Developer - Commission Only\", \"company\": \"Shop\","
+                                + " \"applyUrl\": \"https://shop.com/apply/f2\", \"easyApply\": false},"
+                                + "{\"id\": \"f3\", \"title\": \"Java Developer\", \"company\": \"Jobs Inc\","
+                                + " \"applyUrl\": \"https://apply.jobboard.example/f3\", \"easyApply\": false},"
+                                + "{\"id\": \"f4\", \"title\": \"Java Developer\", \"company\": \"Product Co\","
+                                + " \"applyUrl\": \"https://product.com/apply/f4\", \"easyApply\": false}]")));
+    }
+
+    /**
+     * The query "Rejected" is refused with a 400 whose body holds internal details that must not reach clients.
+     */
+    private static void stubRejectedJobs() {
+        wireMockServer.stubFor(get(urlPathMatching("/jobs"))
+                .withQueryParam("q", equalTo("Rejected"))
+                .willReturn(aResponse()
+                        .withStatus(400)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"message\": \"member 42 token rejected by shard db-7\"}")));
+    }
+
     @AfterAll
     public static void stopServer() {
         if (wireMockServer != null && wireMockServer.isRunning()) {
@@ -0,0 +1,129 @@
+package com.example.linkedin;
+
+import com.example.linkedin.saved.SavedSearchPoller;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SavedSearchSteps {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private SavedSearchPoller savedSearchPoller;
+
+    private final WireMock wireMock = new WireMock(8089);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String query;
+
+    private String savedSearchId;
+
+    @Given("LinkedIn lists the jobs {string} for a new query")
+    public void listJobsForNewQuery(String ids) {
+        // A fresh query per scenario keeps the stubs of one scenario from answering another
+        query = "Saved-" + UUID.randomUUID();
+        wireMock.register(get(urlPathEqualTo("/jobs"))
+                .withQueryParam("q", equalTo(query))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[]")));
+        listJobs(ids);
+    }
+
+    @When("LinkedIn starts listing the jobs {string}")
+    public void listJobs(String ids) {
+        String body = Arrays.stream(ids.split(","))
+                .map(id -> "{\"id\": \"" + id + "\", \"applyUrl\": \"https://company.com/apply/" + id + "\", \"easyApply\": false}")
+                .collect(Collectors.joining(",", "[", "]"));
+        wireMock.register(get(urlPathEqualTo("/jobs"))
+                .withQueryParam("q", equalTo(query))
+                .withQueryParam("start", equalTo("0"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(body)));
+    }
+
+    @When("I save a search for that query")
+    public void saveSearch() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> response = restTemplate.exchange("/jobs/saved", HttpMethod.POST,
+                new HttpEntity<>(Map.of("query", query, "country", "Germany"), headers), String.class);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode(), response.getBody());
+        JsonNode saved = objectMapper.readTree(response.getBody());
+        assertEquals(query, saved.get("query").asText());
+        savedSearchId = saved.get("id").asText();
+    }
+
+    @When("the saved searches are polled")
+    public void poll() {
+        savedSearchPoller.pollOnce().block(Duration.ofSeconds(10));
+    }
+
+    @Then("the saved search should report the new jobs {string}")
+    public void verifyNewJobs(String ids) throws IOException {
+        assertEquals(Arrays.asList(ids.split(",")), newJobIds());
+    }
+
+    @Then("the saved search should report no new jobs")
+    public void verifyNoNewJobs() throws IOException {
+        assertEquals(List.of(), newJobIds());
+    }
+
+    @Then("another member should get status {int} for the saved search")
+    public void verifyOtherMember(int status) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(TestPrincipalConfig.MEMBER_HEADER, "other-member");
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+
+        assertEquals(status, restTemplate.exchange(
+                "/jobs/saved/" + savedSearchId + "/new", HttpMethod.GET, request, String.class).getStatusCode().value());
+        assertEquals(status, restTemplate.exchange(
+                "/jobs/saved/" + savedSearchId, HttpMethod.DELETE, request, String.class).getStatusCode().value());
+    }
+
+    @Then("I delete the saved search")
+    public void deleteSearch() {
+        assertEquals(HttpStatus.NO_CONTENT, restTemplate.exchange(
+                "/jobs/saved/" + savedSearchId, HttpMethod.DELETE, null, String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.exchange(
+                "/jobs/saved/" + savedSearchId + "/new", HttpMethod.GET, null, String.class).getStatusCode());
+    }
+
+    private List<String> newJobIds() throws IOException {
+        ResponseEntity<String> response = restTemplate.getForEntity("/jobs/saved/" + savedSearchId + "/new", String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), response.getBody());
+        List<String> ids = new ArrayList<>();
+        objectMapper.readTree(response.getBody()).forEach(job -> ids.add(job.get("id").asText()));
+        return ids;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.linkedin;
+
+import com.example.linkedin.security.SecurityConfig;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Authenticates every {@code /jobs/**} request as one fixed LinkedIn member and registers an access token for it,
+ * so tests and the load test harness can call the API without going through the LinkedIn login. A request can
+ * act as another member, who has no access token, by naming them in the {@value #MEMBER_HEADER} header.
+ * Only active with the {@code test-principal} profile.
+ */
+@Configuration
+@Profile("test-principal")
+public class TestPrincipalConfig {
+    static final String REGISTRATION_ID = "linkedin";
+    static final String PRINCIPAL_NAME = "test-member";
+    static final String ACCESS_TOKEN = "test-access-token";
+    static final String MEMBER_HEADER = "X-Test-Member";
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityWebFilterChain testPrincipalFilterChain(ServerHttpSecurity http) {
+        return http
+                .securityMatcher(ServerWebExchangeMatchers.pathMatchers("/jobs/**"))
+                // Same CSRF policy as the production filter chain
+                .csrf(csrf -> csrf.requireCsrfProtectionMatcher(SecurityConfig.CSRF_PROTECTED_REQUESTS))
+                .addFilterAt((exchange, chain) -> {
+                    String member = exchange.getRequest().getHeaders().getFirst(MEMBER_HEADER);
+                    return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                            authentication(member != null ? member : PRINCIPAL_NAME)));
+                }, SecurityWebFiltersOrder.AUTHENTICATION)
+                .authorizeExchange(exchanges -> exchanges.anyExchange().authenticated())
+                .build();
+    }
+
+    @Bean
+    public ApplicationRunner testPrincipalAuthorizedClient(
+            ReactiveClientRegistrationRepository clientRegistrationRepository,
+            ReactiveOAuth2AuthorizedClientService authorizedClientService
+    ) {
+        return args -> clientRegistrationRepository.findByRegistrationId(REGISTRATION_ID)
+                .map(registration -> new OAuth2AuthorizedClient(registration, PRINCIPAL_NAME, new OAuth2AccessToken(
+                        OAuth2AccessToken.TokenType.BEARER,
+                        ACCESS_TOKEN,
+                        Instant.now(),
+                        Instant.now().plus(Duration.ofDays(1))
+                )))
+                .flatMap(client -> authorizedClientService.saveAuthorizedClient(client, authentication(PRINCIPAL_NAME)))
+                .block();
+    }
+
+    static OAuth2AuthenticationToken authentication(String principalName) {
+        DefaultOAuth2User member = new DefaultOAuth2User(
+                AuthorityUtils.createAuthorityList("OIDC_USER"),
+                Map.of("sub", principalName),
+                "sub"
+        );
+        return new OAuth2AuthenticationToken(member, member.getAuthorities(), REGISTRATION_ID);
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.linkedin.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionGateTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void principalAtItsLimitWaitsWhileOthersStillGetIn() {
+        AdmissionGate gate = gate(1, 4, 10, 10, Duration.ofSeconds(5));
+
+        CompletableFuture<AdmissionGate.Permit> alice = gate.acquire("alice").toFuture();
+        CompletableFuture<AdmissionGate.Permit> aliceAgain = gate.acquire("alice").toFuture();
+        CompletableFuture<AdmissionGate.Permit> bob = gate.acquire("bob").toFuture();
+
+        assertTrue(alice.isDone());
+        assertFalse(aliceAgain.isDone());
+        assertTrue(bob.isDone());
+
+        alice.join().release(true);
+
+        assertTrue(aliceAgain.isDone());
+        assertEquals(2.0, gauge("linkedin.admission.inflight"));
+        assertEquals(0.0, gauge("linkedin.admission.queue.depth"));
+    }
+
+    @Test
+    void principalsTakeTurnsWhenCapacityFreesUp() {
+        AdmissionGate gate = gate(4, 1, 10, 10, Duration.ofSeconds(5));
+
+        CompletableFuture<AdmissionGate.Permit> alice1 = gate.acquire("alice").toFuture();
+        CompletableFuture<AdmissionGate.Permit> alice2 = gate.acquire("alice").toFuture();
+        CompletableFuture<AdmissionGate.Permit> alice3 = gate.acquire("alice").toFuture();
+        CompletableFuture<AdmissionGate.Permit> bob = gate.acquire("bob").toFuture();
+        assertEquals(3.0, gauge("linkedin.admission.queue.depth"));
+
+        alice1.join().release(true);
+        assertTrue(alice2.isDone());
+        assertFalse(bob.isDone());
+
+        // Alice went back to the end of the line when she was let in, so Bob is next despite queueing last
+        alice2.join().release(true);
+        assertTrue(bob.isDone());
+        assertFalse(alice3.isDone());
+
+        bob.join().release(true);
+        assertTrue(alice3.isDone());
+    }
+
+    @Test
+    void fullUserQueueIsRejectedWithRetryAfter() {
+        AdmissionGate gate = gate(1, 4, 10, 1, Duration.ofSeconds(5));
+        gate.acquire("alice").toFuture();
+        gate.acquire("alice").toFuture();
+
+        StepVerifier.create(gate.acquire("alice"))
+            .expectErrorSatisfies(AdmissionGateTest::assertServiceUnavailable)
+            .verify();
+        StepVerifier.create(gate.acquire("bob")).expectNextCount(1).verifyComplete();
+        assertEquals(1.0, meterRegistry.counter("linkedin.admission.rejected", "reason", "user_queue_full").count());
+    }
+
+    @Test
+    void fullQueueIsRejectedWithRetryAfter() {
+        AdmissionGate gate = gate(1, 1, 1, 10, Duration.ofSeconds(5));
+        gate.acquire("alice").toFuture();
+        gate.acquire("bob").toFuture();
+
+        StepVerifier.create(gate.acquire("carol"))
+            .expectErrorSatisfies(AdmissionGateTest::assertServiceUnavailable)
+            .verify();
+        assertEquals(1.0, meterRegistry.counter("linkedin.admission.rejected", "reason", "queue_full").count());
+        assertEquals(1.0, gauge("linkedin.admission.queue.depth"));
+    }
+
+    @Test
+    void requestWaitingLongerThanMaxWaitIsRejectedAndLeavesTheQueue() {
+        AdmissionGate gate = gate(1, 1, 10, 10, Duration.ofMillis(50));
+        CompletableFuture<AdmissionGate.Permit> alice = gate.acquire("alice").toFuture();
+
+        StepVerifier.create(gate.acquire("bob"))
+            .expectErrorSatisfies(AdmissionGateTest::assertServiceUnavailable)
+            .verify(Duration.ofSeconds(5));
+
+        assertEquals(1.0, meterRegistry.counter("linkedin.admission.rejected", "reason", "timeout").count());
+        assertEquals(0.0, gauge("linkedin.admission.queue.depth"));
+        alice.join().release(true);
+        assertEquals(0.0, gauge("linkedin.admission.inflight"));
+    }
+
+    @Test
+    void cancellingWhileQueuedGivesUpThePlace() {
+        AdmissionGate gate = gate(1, 1, 10, 10, Duration.ofSeconds(5));
+        CompletableFuture<AdmissionGate.Permit> alice = gate.acquire("alice").toFuture();
+        Disposable bob = gate.acquire("bob").subscribe(permit -> fail("Cancelled request was admitted"));
+
+        bob.dispose();
+        assertEquals(0.0, gauge("linkedin.admission.queue.depth"));
+
+        alice.join().release(true);
+        StepVerifier.create(gate.acquire("carol")).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void filterReleasesThePermitWhenTheRequestFails() {
+        AdmissionGate gate = gate(1, 1, 10, 10, Duration.ofSeconds(5));
+        AdmissionFilter filter = new AdmissionFilter(gate, properties(1, 1, 10, 10, Duration.ofSeconds(5)));
+
+        StepVerifier.create(filter.filter(search(), exchange -> Mono.error(new IllegalStateException("upstream"))))
+            .verifyError(IllegalStateException.class);
+
+        assertEquals(0.0, gauge("linkedin.admission.inflight"));
+        assertTrue(gate.acquire("alice").toFuture().isDone());
+    }
+
+    @Test
+    void filterReleasesThePermitWhenTheRequestIsCancelled() {
+        AdmissionGate gate = gate(1, 1, 10, 10, Duration.ofSeconds(5));
+        AdmissionFilter filter = new AdmissionFilter(gate, properties(1, 1, 10, 10, Duration.ofSeconds(5)));
+
+        Disposable request = filter.filter(search(), exchange -> Mono.never()).subscribe();
+        assertEquals(1.0, gauge("linkedin.admission.inflight"));
+
+        request.dispose();
+
+        assertEquals(0.0, gauge("linkedin.admission.inflight"));
+        assertTrue(gate.acquire("alice").toFuture().isDone());
+    }
+
+    @Test
+    void onlySuccessfulNonStreamedResponsesAreLatencySamples() {
+        assertTrue(AdmissionFilter.isLatencySample(response(HttpStatus.OK, null)));
+        assertTrue(AdmissionFilter.isLatencySample(response(HttpStatus.OK, MediaType.APPLICATION_JSON)));
+        assertFalse(AdmissionFilter.isLatencySample(response(HttpStatus.SERVICE_UNAVAILABLE, MediaType.APPLICATION_JSON)));
+        assertFalse(AdmissionFilter.isLatencySample(response(HttpStatus.OK, MediaType.APPLICATION_NDJSON)));
+        assertFalse(AdmissionFilter.isLatencySample(response(HttpStatus.OK, MediaType.parseMediaType("text/event-stream;charset=UTF-8"))));
+    }
+
+    private AdmissionGate gate(int perUserLimit, int limit, int queueCapacity, int perUserQueue, Duration maxWait) {
+        return new AdmissionGate(properties(perUserLimit, limit, queueCapacity, perUserQueue, maxWait), meterRegistry);
+    }
+
+    private static AdmissionProperties properties(int perUserLimit, int limit, int queueCapacity, int perUserQueue, Duration maxWait) {
+        return new AdmissionProperties(true, List.of("/jobs/search"), perUserLimit, limit, 1, limit, false, 2.0,
+            queueCapacity, perUserQueue, maxWait, Duration.ofSeconds(2));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private static MockServerWebExchange search() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/jobs/search?query=java"));
+    }
+
+    private static ServerHttpResponse response(HttpStatus status, MediaType contentType) {
+        ServerHttpResponse response = search().getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(contentType);
+        return response;
+    }
+
+    private static void assertServiceUnavailable(Throwable error) {
+        AdmissionRejectedException rejection = assertInstanceOf(AdmissionRejectedException.class, error);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejection.getStatusCode());
+        assertEquals("2", rejection.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.linkedin.cache;
+
+import com.example.linkedin.resilience.UpstreamUnavailableException;
+import com.example.linkedin.support.MutableClock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobSearchCacheTest {
+    private static final SearchKey KEY = SearchKey.of("Java", "de", null);
+    private static final String REDIS_KEY = "test:de:java:all";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void freshEntryIsServedWithoutReloading() {
+        JobSearchCache cache = cache(null, false);
+
+        assertEquals(List.of("a"), cache.get(KEY, loader("a")).block());
+        assertEquals(List.of("a"), cache.get(KEY, loader("b")).block());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void staleEntryIsServedWhileItIsReloadedInTheBackground() {
+        JobSearchCache cache = cache(null, false);
+        cache.get(KEY, loader("a")).block();
+        clock.advance(Duration.ofMinutes(10));
+
+        assertEquals(List.of("a"), cache.get(KEY, loader("b")).block());
+        assertEquals(2, loads.get());
+        assertEquals(List.of("b"), cache.get(KEY, loader("c")).block());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void expiredEntryIsServedOnlyWhileTheUpstreamIsUnavailable() {
+        JobSearchCache cache = cache(null, false);
+        cache.get(KEY, loader("a")).block();
+        clock.advance(Duration.ofHours(1));
+
+        assertEquals(List.of("a"), cache.get(KEY, Mono.error(new UpstreamUnavailableException("down", null))).block());
+        StepVerifier.create(cache.get(KEY, Mono.error(new IllegalStateException("bad request"))))
+            .expectError(IllegalStateException.class)
+            .verify();
+    }
+
+    @Test
+    void missWithoutAnyEntryFailsWithTheUpstreamError() {
+        JobSearchCache cache = cache(null, false);
+
+        StepVerifier.create(cache.get(KEY, Mono.error(new UpstreamUnavailableException("down", null))))
+            .expectError(UpstreamUnavailableException.class)
+            .verify();
+    }
+
+    @Test
+    void redisEntryIsServedWhenTheLocalTierMisses() throws Exception {
+        ReactiveValueOperations<String, String> values = valueOperations();
+        when(values.get(REDIS_KEY)).thenReturn(Mono.just(json(List.of("a"), clock.instant())));
+        JobSearchCache cache = cache(redis(values), true);
+
+        assertEquals(List.of("a"), cache.get(KEY, loader("b")).block());
+        assertEquals(List.of("a"), cache.get(KEY, loader("b")).block());
+        assertEquals(0, loads.get());
+        verify(values, times(1)).get(anyString());
+    }
+
+    @Test
+    void redisEntryPastStaleTtlIsReloaded() throws Exception {
+        ReactiveValueOperations<String, String> values = valueOperations();
+        when(values.get(REDIS_KEY)).thenReturn(Mono.just(json(List.of("a"), clock.instant().minus(Duration.ofHours(1)))));
+        when(values.set(anyString(), anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+        JobSearchCache cache = cache(redis(values), true);
+
+        assertEquals(List.of("b"), cache.get(KEY, loader("b")).block());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void loadedEntryIsWrittenToRedisForTheFallbackTtl() throws Exception {
+        ReactiveValueOperations<String, String> values = valueOperations();
+        when(values.get(REDIS_KEY)).thenReturn(Mono.empty());
+        when(values.set(anyString(), anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+        JobSearchCache cache = cache(redis(values), true);
+
+        cache.get(KEY, loader("a")).block();
+
+        ArgumentCaptor<String> written = ArgumentCaptor.forClass(String.class);
+        verify(values).set(eq(REDIS_KEY), written.capture(), eq(Duration.ofHours(24)));
+        CachedLinks entry = objectMapper.readValue(written.getValue(), CachedLinks.class);
+        assertEquals(List.of("a"), entry.links());
+        assertEquals(clock.instant(), entry.fetchedAt());
+    }
+
+    @Test
+    void redisFailureIsTreatedAsAMiss() {
+        ReactiveValueOperations<String, String> values = valueOperations();
+        when(values.get(REDIS_KEY)).thenReturn(Mono.error(new IllegalStateException("connection refused")));
+        when(values.set(anyString(), anyString(), any(Duration.class))).thenReturn(Mono.error(new IllegalStateException("connection refused")));
+        JobSearchCache cache = cache(redis(values), true);
+
+        assertEquals(List.of("a"), cache.get(KEY, loader("a")).block());
+    }
+
+    @Test
+    void invalidateDropsMatchingLocalEntries() {
+        JobSearchCache cache = cache(null, false);
+        cache.get(KEY, loader("a")).block();
+        cache.get(SearchKey.of("Kotlin", "de", null), loader("b")).block();
+
+        assertEquals(new JobSearchCache.InvalidationResult(1, 0), cache.invalidate(" JAVA ", null).block());
+        assertEquals(List.of("c"), cache.get(KEY, loader("c")).block());
+        assertEquals(List.of("b"), cache.get(SearchKey.of("kotlin", "DE", null), loader("d")).block());
+    }
+
+    private JobSearchCache cache(ReactiveStringRedisTemplate redisTemplate, boolean redisEnabled) {
+        CacheProperties properties = new CacheProperties(
+            100, Duration.ofMinutes(5), Duration.ofMinutes(30), Duration.ofHours(24), redisEnabled, "test:");
+        return new JobSearchCache(properties, redisTemplate, objectMapper, new SimpleMeterRegistry(), clock);
+    }
+
+    private Mono<List<String>> loader(String... links) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return List.of(links);
+        });
+    }
+
+    private String json(List<String> links, Instant fetchedAt) throws Exception {
+        return objectMapper.writeValueAsString(new CachedLinks(links, fetchedAt));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ReactiveValueOperations<String, String> valueOperations() {
+        return mock(ReactiveValueOperations.class);
+    }
+
+    private static ReactiveStringRedisTemplate redis(ReactiveValueOperations<String, String> values) {
+        ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        return redisTemplate;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.linkedin.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchKeyTest {
+
+    @Test
+    void caseAndWhitespaceDoNotProduceDistinctKeys() {
+        assertEquals(SearchKey.of("java developer", "de", 10), SearchKey.of("  Java \t Developer ", "DE", 10));
+    }
+
+    @Test
+    void colonsInQueryOrCountryDoNotCollideInRedis() {
+        String first = SearchKey.of("b:c", "a", null).redisKey("prefix:");
+        String second = SearchKey.of("c", "a:b", null).redisKey("prefix:");
+
+        assertNotEquals(first, second);
+        assertEquals("prefix:a:b%3Ac:all", first);
+        assertEquals("prefix:a%3Ab:c:all", second);
+    }
+
+    @Test
+    void percentSignsAreEscapedToo() {
+        assertNotEquals(
+            SearchKey.of("a%3Ab", "de", 5).redisKey("prefix:"),
+            SearchKey.of("a:b", "de", 5).redisKey("prefix:"));
+    }
+}
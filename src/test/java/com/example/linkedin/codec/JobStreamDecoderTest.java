@@ -0,0 +1,172 @@
+package com.example.linkedin.codec;
+
+import com.example.linkedin.model.Job;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobStreamDecoderTest {
+    private static final String PAGE = """
+        [{"id": 1, "title": "Entwickler in Zürich \\"Senior\\"", "company": {"name": "Acme", "size": 10},
+          "applyUrl": "https://acme.com/apply/1", "easyApply": false, "extra": [1, {"a": [true, null]}]},
+         {"id": "2", "applyUrl": "https://linkedin.com/easy/2", "easyApply": true, "title": "Easy"},
+         {"location": "Berlin", "company": "Shop", "applyUrl": "https://shop.com/apply/3", "id": "3"}]
+        """;
+    private static final List<Job> PAGE_JOBS = List.of(
+        new Job("1", "https://acme.com/apply/1", false, "Entwickler in Zürich \"Senior\"", "Acme", null),
+        new Job("3", "https://shop.com/apply/3", false, null, "Shop", "Berlin")
+    );
+
+    private final JobStreamDecoder decoder = new JobStreamDecoder(new ObjectMapper());
+
+    @Test
+    void decodesAPageAndReportsEveryScannedJobOnceComplete() {
+        AtomicInteger scanned = new AtomicInteger(-1);
+
+        assertEquals(PAGE_JOBS, decoder.decode(chunks(PAGE), scanned::set).collectList().block());
+        assertEquals(3, scanned.get());
+    }
+
+    @Test
+    void jobsAreEmittedBeforeTheBodyEnds() {
+        AtomicInteger scanned = new AtomicInteger(-1);
+
+        StepVerifier.create(decoder.decode(chunks(PAGE, PAGE.indexOf("{\"id\": \"2\"")).concatWith(Flux.never()), scanned::set))
+            .expectNext(PAGE_JOBS.get(0))
+            .thenCancel()
+            .verify();
+        assertEquals(-1, scanned.get());
+    }
+
+    @Test
+    void tokensAndStringsCutAtAnyByteAreDecoded() {
+        byte[] bytes = PAGE.getBytes(StandardCharsets.UTF_8);
+        for (int cut = 1; cut < bytes.length; cut++) {
+            assertEquals(PAGE_JOBS, decode(chunks(bytes, cut)), "Cut at byte " + cut);
+        }
+    }
+
+    @Test
+    void oneByteBuffersAreDecoded() {
+        byte[] bytes = PAGE.getBytes(StandardCharsets.UTF_8);
+        int[] cuts = new int[bytes.length - 1];
+        Arrays.setAll(cuts, i -> i + 1);
+
+        assertEquals(PAGE_JOBS, decode(chunks(bytes, cuts)));
+    }
+
+    @Test
+    void fieldsAreReadInAnyOrder() {
+        String json = """
+            [{"easyApply": false, "applyUrl": "https://a.com/1", "location": "Paris", "id": "1", "title": "Dev"},
+             {"applyUrl": "https://a.com/2", "id": "2", "easyApply": true},
+             {"id": "3", "title": "Ops", "applyUrl": "https://a.com/3"}]
+            """;
+
+        assertEquals(List.of(
+            new Job("1", "https://a.com/1", false, "Dev", null, "Paris"),
+            new Job("3", "https://a.com/3", false, "Ops", null, null)
+        ), decode(chunks(json)));
+    }
+
+    @Test
+    void nestedObjectsAndArraysAreSkipped() {
+        String json = """
+            [{"id": "1",
+              "details": {"title": "nested", "applyUrl": "https://nested.com", "company": {"name": "Nested"},
+                          "easyApply": true},
+              "tags": [{"title": "tag"}, [1, [2, {"company": "Tag"}]], "x"],
+              "title": "Dev", "applyUrl": "https://a.com/1", "company": {"name": "Acme",
+              "parent": {"name": "Holding"}, "aliases": [{"name": "Alias"}]}}]
+            """;
+
+        assertEquals(List.of(new Job("1", "https://a.com/1", false, "Dev", "Acme", null)), decode(chunks(json)));
+    }
+
+    @Test
+    void companyIsReadAsAStringOrAsAnObjectName() {
+        String json = """
+            [{"id": "1", "applyUrl": "https://a.com/1", "company": "Plain"},
+             {"id": "2", "applyUrl": "https://a.com/2", "companyName": "Named"},
+             {"id": "3", "applyUrl": "https://a.com/3", "company": {"id": 7, "name": "Object"}},
+             {"id": "4", "applyUrl": "https://a.com/4", "company": {"id": 8}},
+             {"id": "5", "applyUrl": "https://a.com/5", "company": null}]
+            """;
+
+        assertEquals(
+            Arrays.asList("Plain", "Named", "Object", null, null),
+            decode(chunks(json)).stream().map(Job::company).toList()
+        );
+    }
+
+    @Test
+    void singleObjectPayloadIsOneJob() {
+        String json = """
+            {"id": "1", "applyUrl": "https://a.com/1", "title": "Dev", "company": {"name": "Acme"}}
+            """;
+
+        assertEquals(List.of(new Job("1", "https://a.com/1", false, "Dev", "Acme", null)), decode(chunks(json, 17)));
+    }
+
+    @Test
+    void singleEasyApplyObjectYieldsNothing() {
+        AtomicInteger scanned = new AtomicInteger(-1);
+
+        assertEquals(List.of(), decoder.decode(chunks("{\"id\": \"1\", \"easyApply\": true}"), scanned::set).collectList().block());
+        assertEquals(1, scanned.get());
+    }
+
+    @Test
+    void emptyArrayYieldsNothing() {
+        assertEquals(List.of(), decode(chunks("[]")));
+    }
+
+    @Test
+    void truncatedPayloadFails() {
+        StepVerifier.create(decoder.decode(chunks("[{\"id\": \"1\", \"applyUrl\": \"https://a.com/1\"}, {\"id\"")))
+            .expectNext(new Job("1", "https://a.com/1", false))
+            .expectError(DecodingException.class)
+            .verify();
+    }
+
+    @Test
+    void malformedPayloadFails() {
+        StepVerifier.create(decoder.decode(chunks("[{\"id\": }]")))
+            .expectError(DecodingException.class)
+            .verify();
+    }
+
+    private List<Job> decode(Flux<DataBuffer> body) {
+        return decoder.decode(body).collectList().block();
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int... cuts) {
+        return chunks(json.getBytes(StandardCharsets.UTF_8), cuts);
+    }
+
+    /**
+     * Splits the payload into one buffer per range between the given byte offsets.
+     */
+    private static Flux<DataBuffer> chunks(byte[] bytes, int... cuts) {
+        List<byte[]> parts = new ArrayList<>();
+        int from = 0;
+        for (int cut : cuts) {
+            parts.add(Arrays.copyOfRange(bytes, from, cut));
+            from = cut;
+        }
+        parts.add(Arrays.copyOfRange(bytes, from, bytes.length));
+        return Flux.fromIterable(parts).map(DefaultDataBufferFactory.sharedInstance::wrap);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.linkedin.filter;
+
+import com.example.linkedin.model.Job;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledRulesTest {
+
+    @Test
+    void domainMatchesTheApplyUrlHostAndEveryHostBelowIt() {
+        CompiledRules rules = CompiledRules.compile(List.of(
+            new FilterRule("boards", RuleType.DOMAIN, List.of("www.Example.com", "https://jobs.agency.io/path"))));
+
+        assertEquals(0, rules.match(apply("https://example.com/apply/1")));
+        assertEquals(0, rules.match(apply("https://careers.eu.EXAMPLE.com:8443/apply?id=1")));
+        assertEquals(0, rules.match(apply("https://user@jobs.example.com#top")));
+        assertEquals(0, rules.match(apply("https://jobs.agency.io")));
+        assertEquals(-1, rules.match(apply("https://agency.io/apply")));
+        assertEquals(-1, rules.match(apply("https://notexample.com/apply")));
+        assertEquals(-1, rules.match(apply("https://example.com.evil.io/apply")));
+        assertEquals(-1, rules.match(apply("https://acme.com/apply?next=https://example.com/")));
+    }
+
+    @Test
+    void companyMatchesTheWholeNameIgnoringCaseAndPunctuation() {
+        CompiledRules rules = CompiledRules.compile(List.of(
+            new FilterRule("staffing", RuleType.COMPANY, List.of("Acme, Inc."))));
+
+        assertEquals(0, rules.match(new Job("1", null, false, "Developer", "ACME Inc", null)));
+        assertEquals(-1, rules.match(new Job("2", null, false, "Developer", "Acme Incorporated", null)));
+        assertEquals(-1, rules.match(new Job("3", null, false, "Developer", null, null)));
+    }
+
+    @Test
+    void keywordsAreLookedUpInTitleAndCompany() {
+        CompiledRules rules = CompiledRules.compile(List.of(
+            new FilterRule("unpaid", RuleType.KEYWORD, List.of("unpaid", "volunteer"))));
+
+        assertEquals(0, rules.match(new Job("1", null, false, "Unpaid Internship", "Acme", null)));
+        assertEquals(0, rules.match(new Job("2", null, false, "Internship", "Volunteer Network", null)));
+        assertEquals(-1, rules.match(new Job("3", null, false, "Paid Internship", "Acme", null)));
+    }
+
+    @Test
+    void entryListedByTwoRulesBelongsToTheFirst() {
+        CompiledRules rules = CompiledRules.compile(List.of(
+            new FilterRule("first", RuleType.KEYWORD, List.of("Remote", "")),
+            new FilterRule("second", RuleType.KEYWORD, List.of("remote", "onsite"))));
+
+        assertEquals(0, rules.match(new Job("1", null, false, "Remote Developer", null, null)));
+        assertEquals(1, rules.match(new Job("2", null, false, "Onsite Developer", null, null)));
+        assertEquals(2, rules.entries());
+    }
+
+    @Test
+    void jobMatchedByRulesOfSeveralTypesIsAttributedByTypeNotByRuleOrder() {
+        CompiledRules rules = CompiledRules.compile(List.of(
+            new FilterRule("spam", RuleType.KEYWORD, List.of("commission")),
+            new FilterRule("boards", RuleType.DOMAIN, List.of("example.com")),
+            new FilterRule("agencies", RuleType.COMPANY, List.of("Acme"))));
+
+        assertEquals(2, rules.match(new Job("1", "https://example.com/1", false, "Commission Only", "Acme", null)));
+        assertEquals(1, rules.match(new Job("2", "https://example.com/2", false, "Commission Only", "Initech", null)));
+        assertEquals(0, rules.match(new Job("3", "https://initech.com/3", false, "Commission Only", "Initech", null)));
+    }
+
+    private static Job apply(String applyUrl) {
+        return new Job("1", applyUrl, false, "Developer", "Acme", null);
+    }
+}
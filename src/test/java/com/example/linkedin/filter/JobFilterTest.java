@@ -0,0 +1,92 @@
+package com.example.linkedin.filter;
+
+import com.example.linkedin.model.Job;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveSetOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JobFilterTest {
+    private static final String PREFIX = "test:filter:";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ReactiveValueOperations<String, String> values = mock(ReactiveValueOperations.class);
+    @SuppressWarnings("unchecked")
+    private final ReactiveHashOperations<String, String, String> hashes = mock(ReactiveHashOperations.class);
+    @SuppressWarnings("unchecked")
+    private final ReactiveSetOperations<String, String> sets = mock(ReactiveSetOperations.class);
+
+    private final JobFilter filter;
+
+    JobFilterTest() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(redisTemplate.<String, String>opsForHash()).thenReturn(hashes);
+        when(redisTemplate.opsForSet()).thenReturn(sets);
+        when(sets.members(PREFIX + "rule:agencies")).thenReturn(Flux.just("Acme Staffing"));
+        when(sets.members(PREFIX + "rule:unpaid")).thenReturn(Flux.just("unpaid", "volunteer"));
+        filter = new JobFilter(
+            new FilterProperties(true, PREFIX, Duration.ofSeconds(30), List.of(
+                new FilterProperties.Rule("unpaid", RuleType.KEYWORD, List.of("unpaid"), null))),
+            redisTemplate,
+            meterRegistry
+        );
+    }
+
+    @Test
+    void redisRulesOverrideConfiguredOnesOfTheSameNameOnceTheirVersionChanges() {
+        redisRules("7", Map.entry("unpaid", "keyword"), Map.entry("agencies", " Company "));
+
+        StepVerifier.create(filter.reload(false))
+            .assertNext(rules -> assertEquals(List.of("unpaid", "agencies"), names(rules)))
+            .verifyComplete();
+        StepVerifier.create(filter.reload(false)).verifyComplete();
+
+        Job volunteer = new Job("1", null, false, "Volunteer Coordinator", "Red Cross", null);
+        Job agency = new Job("2", null, false, "Developer", "ACME staffing", null);
+        Job kept = new Job("3", null, false, "Developer", "Acme", null);
+        assertEquals(List.of(kept), filter.retain(List.of(volunteer, agency, kept)));
+        assertEquals(1.0, meterRegistry.counter("linkedin.filter.hits", "rule", "agencies").count());
+        assertEquals(1.0, meterRegistry.counter("linkedin.filter.reloads", "result", "success").count());
+    }
+
+    @Test
+    void ruleWithUnknownTypeFailsTheReloadAndKeepsTheCurrentRules() {
+        redisRules("7", Map.entry("unpaid", "keyword"), Map.entry("agencies", "employer"));
+
+        StepVerifier.create(filter.reload(true)).verifyError(IllegalArgumentException.class);
+
+        assertEquals(List.of("unpaid"), names(filter.rules()));
+        assertEquals(List.of("unpaid"), filter.rules().rules().get(0).values());
+        assertEquals(1.0, meterRegistry.counter("linkedin.filter.reloads", "result", "failure").count());
+
+        redisRules("8", Map.entry("agencies", "company"));
+        StepVerifier.create(filter.reload(false))
+            .assertNext(rules -> assertEquals(List.of("unpaid", "agencies"), names(rules)))
+            .verifyComplete();
+    }
+
+    @SafeVarargs
+    private void redisRules(String version, Map.Entry<String, String>... rules) {
+        when(values.get(PREFIX + "version")).thenReturn(Mono.just(version));
+        when(hashes.entries(PREFIX + "rules")).thenReturn(Flux.just(rules));
+    }
+
+    private static List<String> names(CompiledRules rules) {
+        return rules.rules().stream().map(FilterRule::name).toList();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.linkedin.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordAutomatonTest {
+
+    @Test
+    void keywordEndingInsideALongerOneIsFoundThroughItsFailureLink() {
+        KeywordAutomaton automaton = new KeywordAutomaton(Map.of("lead java engineer", 0, "java", 1));
+
+        // The walk follows "lead java " down the longer keyword, whose state only matches via the link to "java "
+        assertEquals(1, automaton.match("Lead Java Developer"));
+        assertEquals(1, automaton.match("Java Lead"));
+        assertEquals(-1, automaton.match("Lead Engineer"));
+    }
+
+    @Test
+    void keywordSharingAPrefixWithAnotherIsFoundOnlyWhole() {
+        KeywordAutomaton automaton = new KeywordAutomaton(Map.of("data", 0, "data engineer", 1));
+
+        assertEquals(0, automaton.match("Senior Data Engineer"));
+        assertEquals(-1, automaton.match("Database Administrator"));
+    }
+
+    @Test
+    void keywordsOnlyMatchWholeWords() {
+        KeywordAutomaton automaton = new KeywordAutomaton(Map.of("java", 0));
+
+        assertEquals(-1, automaton.match("JavaScript Developer"));
+        assertEquals(-1, automaton.match("Developer (Kjava)"));
+        assertEquals(0, automaton.match("Senior Java Developer"));
+        assertEquals(0, automaton.match("Java"));
+        assertEquals(0, automaton.match("Developer Java"));
+        assertEquals(0, automaton.match("Java/Kotlin Developer"));
+    }
+
+    @Test
+    void punctuationAndCaseAreFoldedOnBothSides() {
+        KeywordAutomaton automaton = new KeywordAutomaton(Map.of("Full-Stack", 0));
+
+        assertEquals(0, automaton.match("full stack engineer"));
+        assertEquals(0, automaton.match("FULL_STACK Engineer"));
+        assertEquals(0, automaton.match("Engineer, full  --  stack!"));
+        assertEquals(-1, automaton.match("Fullstack Engineer"));
+        assertEquals(" full stack ", KeywordAutomaton.fold("  Full--Stack! "));
+    }
+
+    @Test
+    void blankKeywordsAndMissingTextsMatchNothing() {
+        KeywordAutomaton automaton = new KeywordAutomaton(Map.of("--", 0, " ", 1));
+
+        assertEquals(1, automaton.states());
+        assertEquals(-1, automaton.match("Any -- Title"));
+        assertEquals(-1, new KeywordAutomaton(Map.of("java", 0)).match(null));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.linkedin.load;
+
+import java.util.SplittableRandom;
+
+final class JobsPayload {
+
+    private JobsPayload() {
+    }
+
+    static String page(int page, int jobs, double easyApplyShare) {
+        SplittableRandom random = new SplittableRandom(page);
+        StringBuilder json = new StringBuilder(jobs * 200).append('[');
+        for (int i = 0; i < jobs; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            int id = page * 100_000 + i;
+            json.append("{\"id\":\"").append(id).append('"')
+                    .append(",\"title\":\"Software Engineer ").append(id).append('"')
+                    .append(",\"easyApply\":").append(random.nextDouble() < easyApplyShare)
+                    .append(",\"applyUrl\":\"https://careers.example.com/jobs/").append(id).append('"')
+                    .append('}');
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.linkedin.load;
+
+import com.example.linkedin.LinkedinApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Boots the application against a WireMock stand-in for LinkedIn and drives {@code /jobs/search} at a fixed
+ * arrival rate (open model: requests are sent on schedule whether or not earlier ones have completed).
+ * Latency is measured from the scheduled send time, so a stalled server cannot hide its queueing delay.
+ * <p>
+ * Run with {@code ./gradlew loadTest}. Every {@code load.*} setting below can be passed as {@code -Pload.rps=500},
+ * and application settings such as {@code -Plinkedin.cache.fresh-ttl=0s} are forwarded to the application.
+ * The driver and the application share a JVM, so allocation and GC figures cover both.
+ */
+public final class LoadTestRunner {
+
+    public static void main(String[] args) throws IOException {
+        Settings settings = Settings.fromSystemProperties();
+
+        WireMockServer upstream = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(200)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(50));
+        upstream.start();
+        stubUpstream(upstream, settings);
+
+        ConfigurableApplicationContext application = new SpringApplicationBuilder(LinkedinApplication.class)
+                .profiles("test-principal")
+                .properties(
+                        "server.port=0",
+                        "LINKEDIN_CLIENT_ID=load-test",
+                        "LINKEDIN_CLIENT_SECRET=load-test",
+                        "linkedin.api.base-url=http://localhost:" + upstream.port(),
+                        "linkedin.search.page-size=" + settings.jobsPerPage(),
+                        "linkedin.cache.redis-enabled=false",
+                        "linkedin.session.keyspace-events=false",
+                        "linkedin.oauth2.redis-enabled=false",
+                        "linkedin.local-index.enabled=false",
+                        "linkedin.filter.redis-enabled=false",
+                        // Every simulated user shares one access token; lift the LinkedIn quotas unless overridden
+                        "linkedin.rate-limit.global-rate=1000000",
+                        "linkedin.rate-limit.global-burst=1000000",
+                        "linkedin.rate-limit.per-token-rate=1000000",
+                        "linkedin.rate-limit.per-token-burst=1000000",
+                        "linkedin.rate-limit.interactive-queue=100000",
+                        // ...and the per-user admission limits; the adaptive overall limit still applies
+                        "linkedin.admission.per-user-limit=100000",
+                        "linkedin.admission.per-user-queue=100000"
+                )
+                .run(args);
+
+        try {
+            int port = Integer.parseInt(application.getEnvironment().getRequiredProperty("local.server.port"));
+            WebClient client = WebClient.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(ConnectionProvider.builder("load-test")
+                            .maxConnections(settings.maxInFlight())
+                            .pendingAcquireMaxCount(-1)
+                            .build())))
+                    .build();
+
+            System.out.printf("Warming up for %s at %d rps%n", settings.warmup(), settings.rps());
+            run(client, settings, settings.warmup());
+
+            System.out.printf("Measuring for %s at %d rps%n", settings.duration(), settings.rps());
+            Map<String, Object> report = run(client, settings, settings.duration());
+            report.put("settings", settings);
+            print(report);
+            write(report);
+        } finally {
+            application.close();
+            upstream.stop();
+        }
+    }
+
+    private static Map<String, Object> run(WebClient client, Settings settings, Duration duration) {
+        long intervalNanos = 1_000_000_000L / settings.rps();
+        int planned = (int) (duration.toNanos() / intervalNanos);
+        long[] latencies = new long[planned];
+        AtomicInteger completed = new AtomicInteger();
+        LongAdder errors = new LongAdder();
+        LongAdder dropped = new LongAdder();
+        SplittableRandom random = new SplittableRandom(7);
+
+        GcSnapshot gcBefore = GcSnapshot.take();
+        long startNanos = System.nanoTime();
+
+        Flux.interval(Duration.ofNanos(intervalNanos))
+                .take(planned)
+                .onBackpressureDrop(tick -> dropped.increment())
+                .flatMap(tick -> {
+                    long scheduledAt = startNanos + tick * intervalNanos;
+                    String query = "query-" + random.nextInt(settings.distinctQueries());
+                    return client.get()
+                            .uri(uri -> uri.path("/jobs/search")
+                                    .queryParam("query", query)
+                                    .queryParam("country", "de")
+                                    .build())
+                            .exchangeToMono(response -> response.releaseBody()
+                                    .thenReturn(response.statusCode().is2xxSuccessful()))
+                            .onErrorReturn(false)
+                            .doOnNext(success -> {
+                                if (!success) {
+                                    errors.increment();
+                                }
+                                latencies[completed.getAndIncrement()] = System.nanoTime() - scheduledAt;
+                            });
+                }, settings.maxInFlight())
+                .blockLast();
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        GcSnapshot gcAfter = GcSnapshot.take();
+
+        int count = completed.get();
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("requests", count);
+        report.put("throughputPerSecond", count / (elapsedNanos / 1e9));
+        report.put("errorRate", count == 0 ? 0 : errors.sum() / (double) count);
+        report.put("dropped", dropped.sum());
+        report.put("latencyMillis", Map.of(
+                "p50", percentile(sorted, 0.50),
+                "p95", percentile(sorted, 0.95),
+                "p99", percentile(sorted, 0.99),
+                "max", count == 0 ? 0 : sorted[count - 1] / 1e6
+        ));
+        report.put("gc", Map.of(
+                "collections", gcAfter.collections() - gcBefore.collections(),
+                "pauseMillis", gcAfter.timeMillis() - gcBefore.timeMillis(),
+                "allocatedBytes", gcAfter.allocatedBytes() - gcBefore.allocatedBytes(),
+                "allocatedBytesPerRequest", count == 0 ? 0 : (gcAfter.allocatedBytes() - gcBefore.allocatedBytes()) / count,
+                "heapUsedBytes", ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed()
+        ));
+        return report;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static void stubUpstream(WireMockServer upstream, Settings settings) {
+        // Pages past the last one are empty; pages are fetched concurrently, so a few of them are always requested
+        upstream.stubFor(get(urlPathEqualTo("/jobs"))
+                .atPriority(10)
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[]")));
+        for (int page = 0; page < settings.pages(); page++) {
+            boolean last = page == settings.pages() - 1;
+            int jobs = last ? Math.max(settings.jobsPerPage() - 1, 0) : settings.jobsPerPage();
+            upstream.stubFor(get(urlPathEqualTo("/jobs"))
+                    .atPriority(1)
+                    .withQueryParam("start", equalTo(String.valueOf(page * settings.jobsPerPage())))
+                    .willReturn(aResponse()
+                            .withHeader("Content-Type", "application/json")
+                            .withLogNormalRandomDelay(settings.upstreamLatency().toMillis(), 0.25)
+                            .withBody(JobsPayload.page(page, jobs, settings.easyApplyShare()))));
+        }
+    }
+
+    private static void print(Map<String, Object> report) {
+        System.out.println("---- load test result ----");
+        report.forEach((key, value) -> System.out.printf("%-20s %s%n", key, value));
+    }
+
+    private static void write(Map<String, Object> report) throws IOException {
+        File directory = new File("build/reports/loadtest");
+        directory.mkdirs();
+        File file = new File(directory, "loadtest-" + System.currentTimeMillis() + ".json");
+        new ObjectMapper().findAndRegisterModules().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("Report written to " + file.getPath());
+    }
+
+    record Settings(
+            int rps,
+            Duration duration,
+            Duration warmup,
+            int maxInFlight,
+            Duration upstreamLatency,
+            int jobsPerPage,
+            int pages,
+            double easyApplyShare,
+            int distinctQueries
+    ) {
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("load.rps", 200),
+                    Duration.parse(System.getProperty("load.duration", "PT30S")),
+                    Duration.parse(System.getProperty("load.warmup", "PT10S")),
+                    Integer.getInteger("load.max-in-flight", 1_000),
+                    Duration.ofMillis(Long.getLong("load.upstream-latency-ms", 50)),
+                    Integer.getInteger("load.jobs-per-page", 25),
+                    Integer.getInteger("load.pages", 1),
+                    Double.parseDouble(System.getProperty("load.easy-apply-share", "0.3")),
+                    Integer.getInteger("load.distinct-queries", 20)
+            );
+        }
+    }
+
+    private record GcSnapshot(long collections, long timeMillis, long allocatedBytes) {
+        static GcSnapshot take() {
+            long collections = 0;
+            long time = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                collections += Math.max(gc.getCollectionCount(), 0);
+                time += Math.max(gc.getCollectionTime(), 0);
+            }
+            long allocated = ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+            return new GcSnapshot(collections, time, allocated);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.linkedin.localindex;
+
+import com.example.linkedin.model.Job;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobIndexTest {
+    @TempDir
+    Path directory;
+
+    private final List<JobIndex> opened = new ArrayList<>();
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void closeIndexes() {
+        opened.forEach(JobIndex::close);
+    }
+
+    @Test
+    void indexedJobsAreFoundBeforeAndAfterARestart() {
+        JobIndex index = open(3, DataSize.ofMegabytes(1), 0.5);
+        add(index, job("1", "Java Developer", "Acme"), job("2", "Kotlin Developer", "Acme"),
+            job("3", "Java Architect", "Initech"), job("4", "Java Tester", "Acme"));
+
+        assertEquals(List.of("4", "1"), ids(index, "java", "acme"));
+
+        restart(index);
+        JobIndex reopened = open(3, DataSize.ofMegabytes(1), 0.5);
+
+        assertEquals(List.of("4", "1"), ids(reopened, "java", "acme"));
+        assertEquals(List.of("4", "3", "2", "1"), ids(reopened, null, null));
+    }
+
+    @Test
+    void rejectedJobsAreSkippedWithoutCountingTowardsTheLimit() {
+        JobIndex index = open(10, DataSize.ofMegabytes(1), 0.5);
+        add(index, job("1", "Java Developer", "Acme"), job("2", "Java Developer", "Spam Corp"),
+            job("3", "Java Developer", "Spam Corp"), job("4", "Java Developer", "Initech"));
+
+        List<Job> found = index.search(new LocalSearchQuery("java", null, null, null, 2),
+            job -> !"Spam Corp".equals(job.company()));
+
+        assertEquals(List.of("4", "1"), found.stream().map(Job::id).toList());
+    }
+
+    @Test
+    void newerCopyOfAJobSupersedesTheOlderOneAcrossRestarts() {
+        JobIndex index = open(2, DataSize.ofMegabytes(1), 0.5);
+        add(index, job("1", "Java Developer", "Acme"), job("2", "Other", "Acme"), job("1", "Kotlin Developer", "Acme"));
+
+        assertEquals(List.of(), ids(index, "java", null));
+        assertEquals(List.of("1"), ids(index, "kotlin", null));
+
+        restart(index);
+        JobIndex reopened = open(2, DataSize.ofMegabytes(1), 0.5);
+
+        assertEquals(List.of(), ids(reopened, "java", null));
+        assertEquals(List.of("1"), ids(reopened, "kotlin", null));
+    }
+
+    @Test
+    void mergeDropsSupersededJobsAndKeepsTheNewestCopies() throws IOException {
+        JobIndex index = open(3, DataSize.ofMegabytes(1), 1.0);
+        add(index, job("a", "a v1", null), job("b", "b v1", null), job("c", "c v1", null),
+            job("a", "a v2", null), job("b", "b v2", null), job("a", "a v3", null),
+            job("e", "e v1", null));
+        assertEquals(3, segmentFiles());
+
+        maintain(index);
+
+        // The two sealed segments with three live jobs left were merged; the active one was sealed beforehand
+        assertEquals(2, segmentFiles());
+        assertEquals(List.of("a", "b", "c", "e"), ids(index, null, null).stream().sorted().toList());
+        assertEquals(List.of("b"), ids(index, "b v2", null));
+        assertEquals(List.of(), ids(index, "a v2", null));
+    }
+
+    @Test
+    void copyWrittenAfterAMergeWinsAfterARestart() {
+        JobIndex index = open(3, DataSize.ofMegabytes(1), 1.0);
+        add(index, job("a", "a v1", null), job("b", "b v1", null), job("c", "c v1", null),
+            job("a", "a v2", null), job("b", "b v2", null), job("a", "a v3", null),
+            job("e", "e v1", null));
+        maintain(index);
+        add(index, job("a", "a v4", null));
+
+        assertEquals(List.of("a"), ids(index, "a v4", null));
+        assertEquals(List.of(), ids(index, "a v3", null));
+
+        restart(index);
+        JobIndex reopened = open(3, DataSize.ofMegabytes(1), 1.0);
+
+        assertEquals(List.of("a"), ids(reopened, "a v4", null));
+        assertEquals(List.of(), ids(reopened, "a v3", null));
+        assertEquals(List.of("a", "b", "c", "e"), ids(reopened, null, null).stream().sorted().toList());
+    }
+
+    @Test
+    void oldestSegmentsAreDeletedBeyondMaxSize() throws IOException {
+        JobIndex index = open(1, DataSize.ofBytes(1), 0.5);
+        add(index, job("1", "Java Developer", "Acme"), job("2", "Java Developer", "Acme"), job("3", "Java Developer", "Acme"));
+
+        index.maintain();
+        await(() -> meterRegistry.counter("linkedin.local_index.segments.expired").count() == 2);
+
+        assertEquals(1, segmentFiles());
+        assertEquals(List.of("3"), ids(index, "java", null));
+    }
+
+    @Test
+    void disabledIndexKeepsNothing() throws IOException {
+        JobIndex index = new JobIndex(properties(false, 3, DataSize.ofMegabytes(1), 0.5), new SimpleMeterRegistry());
+
+        index.addAll(List.of(job("1", "Java Developer", "Acme")));
+
+        assertEquals(List.of(), ids(index, null, null));
+        assertEquals(0, segmentFiles());
+    }
+
+    private JobIndex open(int segmentMaxJobs, DataSize maxSize, double maxDeadRatio) {
+        meterRegistry = new SimpleMeterRegistry();
+        JobIndex index = new JobIndex(properties(true, segmentMaxJobs, maxSize, maxDeadRatio), meterRegistry);
+        opened.add(index);
+        return index;
+    }
+
+    private LocalIndexProperties properties(boolean enabled, int segmentMaxJobs, DataSize maxSize, double maxDeadRatio) {
+        return new LocalIndexProperties(enabled, directory, segmentMaxJobs, maxSize, 100, Duration.ofMinutes(10), maxDeadRatio);
+    }
+
+    private void restart(JobIndex index) {
+        index.close();
+        opened.remove(index);
+    }
+
+    private void add(JobIndex index, Job... jobs) {
+        double before = indexed();
+        // One job per call keeps the order in which they are written
+        for (Job job : jobs) {
+            index.addAll(List.of(job));
+        }
+        await(() -> indexed() == before + jobs.length);
+    }
+
+    private void maintain(JobIndex index) {
+        double before = meterRegistry.counter("linkedin.local_index.compactions").count();
+        index.maintain();
+        await(() -> meterRegistry.counter("linkedin.local_index.compactions").count() > before);
+    }
+
+    private double indexed() {
+        return meterRegistry.counter("linkedin.local_index.jobs", "result", "indexed").count();
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static List<String> ids(JobIndex index, String keywords, String company) {
+        return index.search(new LocalSearchQuery(keywords, company, null, null, 100)).stream().map(Job::id).toList();
+    }
+
+    private static Job job(String id, String title, String company) {
+        return new Job(id, "https://company.com/apply/" + id, false, title, company, "Berlin");
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the index writer");
+            Thread.onSpinWait();
+        }
+    }
+}
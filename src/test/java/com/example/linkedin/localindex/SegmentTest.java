@@ -0,0 +1,122 @@
+package com.example.linkedin.localindex;
+
+import com.example.linkedin.model.Job;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentTest {
+    private static final Job JAVA = new Job("1", "https://a.com/1", false, "Java Developer", "Acme", "Berlin");
+    private static final Job KOTLIN = new Job("2", "https://b.com/2", true, "Kotlin Developer", null, "Munich");
+    private static final Job JAVA_LEAD = new Job("3", null, false, "Lead Java Engineer", "Acme Recruiting", "Berlin");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void jobsAreReadBackBeforeAndAfterSealing() throws IOException {
+        Segment segment = Segment.create(directory, 0, 10);
+        segment.append(JAVA);
+        segment.append(KOTLIN);
+        assertFalse(segment.isSealed());
+        assertEquals(KOTLIN, segment.read(1));
+
+        segment.seal();
+
+        assertTrue(segment.isSealed());
+        assertEquals(2, segment.count());
+        assertEquals(JAVA, segment.read(0));
+        assertEquals(KOTLIN, segment.read(1));
+        assertEquals(Files.size(segment.file), segment.size());
+    }
+
+    @Test
+    void reopenedSegmentHoldsTheSameJobs() throws IOException {
+        Segment written = Segment.create(directory, 7, 10);
+        written.append(JAVA);
+        written.append(KOTLIN);
+        written.append(JAVA_LEAD);
+        written.seal();
+
+        Segment reopened = Segment.open(written.file, 7);
+
+        assertTrue(reopened.isSealed());
+        assertEquals(3, reopened.count());
+        assertEquals(List.of(JAVA, KOTLIN, JAVA_LEAD), List.of(reopened.read(0), reopened.read(1), reopened.read(2)));
+        assertEquals(List.of(2, 0), search(reopened, List.of("t:java"), List.of()));
+    }
+
+    @Test
+    void partiallyWrittenLastRecordIsDroppedOnOpen() throws IOException {
+        Segment written = Segment.create(directory, 0, 10);
+        written.append(JAVA);
+        written.append(KOTLIN);
+        written.seal();
+        long complete = Files.size(written.file);
+        // A record header announcing 100 bytes of which only 3 made it to disk
+        Files.write(written.file, ByteBuffer.allocate(7).putInt(100).array(), StandardOpenOption.APPEND);
+
+        Segment reopened = Segment.open(written.file, 0);
+
+        assertEquals(2, reopened.count());
+        assertEquals(KOTLIN, reopened.read(1));
+        assertEquals(complete, Files.size(written.file));
+    }
+
+    @Test
+    void searchReturnsLiveMatchesNewestFirst() throws IOException {
+        Segment segment = Segment.create(directory, 0, 10);
+        segment.append(JAVA);
+        segment.append(KOTLIN);
+        segment.append(JAVA_LEAD);
+
+        assertEquals(List.of(2, 0), search(segment, List.of("t:java"), List.of()));
+        assertEquals(List.of(2, 1, 0), search(segment, List.of(), List.of()));
+        assertEquals(List.of(0), search(segment, List.of("t:java", "l:berlin"), List.of("c:recruiting")));
+
+        segment.markDead(2);
+        segment.markDead(2);
+        segment.seal();
+
+        assertEquals(1, segment.deadCount());
+        assertEquals(List.of(0), search(segment, List.of("t:java"), List.of()));
+        assertEquals(List.of(), search(segment, List.of("t:python"), List.of()));
+    }
+
+    @Test
+    void searchStopsWhenTheConsumerHasEnough() throws IOException {
+        Segment segment = Segment.create(directory, 0, 10);
+        segment.append(JAVA);
+        segment.append(KOTLIN);
+        segment.append(JAVA_LEAD);
+        List<Integer> found = new ArrayList<>();
+
+        segment.search(List.of(), List.of(), ordinal -> found.add(ordinal) && found.size() < 2);
+
+        assertEquals(List.of(2, 1), found);
+    }
+
+    @Test
+    void segmentIsFullAtItsCapacity() throws IOException {
+        Segment segment = Segment.create(directory, 0, 2);
+        segment.append(JAVA);
+        assertFalse(segment.isFull());
+        segment.append(KOTLIN);
+        assertTrue(segment.isFull());
+    }
+
+    private static List<Integer> search(Segment segment, List<String> required, List<String> excluded) {
+        List<Integer> found = new ArrayList<>();
+        segment.search(required, excluded, found::add);
+        return found;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.linkedin.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamSchedulerTest {
+    private static final String TOKEN = "token";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void throttledCallIsRetriedWithAFreshPermit() {
+        UpstreamScheduler scheduler = new UpstreamScheduler(properties(1000, 1000), meterRegistry);
+        Mono<String> call = Mono.defer(() -> calls.incrementAndGet() == 1
+            ? Mono.error(new UpstreamRateLimitedException("throttled", Duration.ZERO))
+            : Mono.just("links"));
+
+        assertEquals("links", scheduler.schedule(TOKEN, call).block(Duration.ofSeconds(5)));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void fullLaneFailsAtOnceWithoutRetrying() {
+        // One permit, refilled only after 1000 seconds: the first call takes it and the second one waits
+        UpstreamScheduler scheduler = new UpstreamScheduler(properties(0.001, 1), meterRegistry);
+        assertEquals("first", scheduler.schedule(TOKEN, counted("first")).block());
+        Disposable waiting = scheduler.schedule(TOKEN, counted("second")).subscribe();
+
+        StepVerifier.create(scheduler.schedule(TOKEN, counted("third")))
+            .expectError(UpstreamQueueFullException.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, meterRegistry.counter("linkedin.upstream.rejected").count());
+        waiting.dispose();
+    }
+
+    @Test
+    void cancelledWaiterFreesItsPlaceInTheLane() {
+        UpstreamScheduler scheduler = new UpstreamScheduler(properties(0.001, 1), meterRegistry);
+        scheduler.schedule(TOKEN, counted("first")).block();
+
+        Disposable cancelled = scheduler.schedule(TOKEN, counted("second")).subscribe();
+        assertEquals(1, queueDepth());
+        cancelled.dispose();
+        assertEquals(0, queueDepth());
+
+        Disposable waiting = scheduler.schedule(TOKEN, counted("third")).subscribe();
+        assertEquals(1, queueDepth());
+        assertEquals(0, meterRegistry.counter("linkedin.upstream.rejected").count());
+        waiting.dispose();
+    }
+
+    @Test
+    void lanesAreCountedSeparately() {
+        UpstreamScheduler scheduler = new UpstreamScheduler(properties(0.001, 1), meterRegistry);
+        scheduler.schedule(TOKEN, counted("first")).block();
+
+        Disposable interactive = scheduler.schedule(TOKEN, counted("interactive")).subscribe();
+        Disposable background = scheduler.schedule(TOKEN, counted("background"))
+            .contextWrite(Priority.BACKGROUND.asContext())
+            .subscribe();
+
+        assertEquals(0, meterRegistry.counter("linkedin.upstream.rejected").count());
+        interactive.dispose();
+        background.dispose();
+    }
+
+    private Mono<String> counted(String value) {
+        return Mono.fromSupplier(() -> {
+            calls.incrementAndGet();
+            return value;
+        });
+    }
+
+    private double queueDepth() {
+        return meterRegistry.get("linkedin.upstream.queue.depth").tag("lane", "interactive").gauge().value();
+    }
+
+    /**
+     * One waiting call per lane and generous per-token limits, so only the global bucket decides.
+     */
+    private static RateLimitProperties properties(double globalRate, int globalBurst) {
+        return new RateLimitProperties(globalRate, globalBurst, 1000, 1000, 1, 1, 1, 3,
+            Duration.ofMillis(10), Duration.ofSeconds(1));
+    }
+}
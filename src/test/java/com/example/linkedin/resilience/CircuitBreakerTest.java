@@ -0,0 +1,131 @@
+package com.example.linkedin.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+    private static final long OPEN_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private final List<CircuitBreaker.State> transitions = new ArrayList<>();
+    private final CircuitBreaker breaker = new CircuitBreaker(
+        new ResilienceProperties(Duration.ofSeconds(1), false, Duration.ZERO, 0.5, 4, 4, Duration.ofSeconds(10), 2),
+        transitions::add);
+
+    @Test
+    void staysClosedBeforeMinimumCalls() {
+        for (int i = 0; i < 3; i++) {
+            call(0, false);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(transitions.isEmpty());
+    }
+
+    @Test
+    void opensOnceTheFailureRateReachesTheThreshold() {
+        call(0, true);
+        call(0, false);
+        call(0, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        call(0, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(List.of(CircuitBreaker.State.OPEN), transitions);
+    }
+
+    @Test
+    void slidingWindowForgetsTheOldestCall() {
+        call(0, true);
+        call(0, false);
+        call(0, false);
+        call(0, false);
+        // The first failure drops out of the window, leaving one failure in four
+        call(0, true);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void rejectsCallsWhileOpen() {
+        open(0);
+
+        assertFalse(breaker.tryAcquire(OPEN_NANOS / 2));
+        assertEquals(Duration.ofNanos(OPEN_NANOS / 2), breaker.remainingOpen(OPEN_NANOS / 2));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void letsTrialCallsThroughAfterTheOpenDuration() {
+        open(0);
+
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertFalse(breaker.tryAcquire(OPEN_NANOS), "only halfOpenCalls trials are let through");
+        assertEquals(Duration.ZERO, breaker.remainingOpen(OPEN_NANOS));
+    }
+
+    @Test
+    void closesWhenAllTrialsSucceed() {
+        open(0);
+        breaker.tryAcquire(OPEN_NANOS);
+        breaker.tryAcquire(OPEN_NANOS);
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(List.of(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED),
+            transitions);
+        // The window starts empty again, so a single failure does not reopen the circuit
+        call(OPEN_NANOS, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void reopensWhenATrialFails() {
+        open(0);
+        breaker.tryAcquire(OPEN_NANOS);
+
+        breaker.onFailure(OPEN_NANOS);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(OPEN_NANOS + OPEN_NANOS / 2), "the open duration restarts from the failed trial");
+        assertTrue(breaker.tryAcquire(2 * OPEN_NANOS));
+    }
+
+    @Test
+    void ignoredTrialReturnsItsPermit() {
+        open(0);
+        breaker.tryAcquire(OPEN_NANOS);
+        breaker.tryAcquire(OPEN_NANOS);
+        assertFalse(breaker.tryAcquire(OPEN_NANOS));
+
+        breaker.onIgnored();
+
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    }
+
+    private void open(long now) {
+        for (int i = 0; i < 4; i++) {
+            call(now, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    private void call(long now, boolean failed) {
+        assertTrue(breaker.tryAcquire(now));
+        if (failed) {
+            breaker.onFailure(now);
+        } else {
+            breaker.onSuccess();
+        }
+    }
+}
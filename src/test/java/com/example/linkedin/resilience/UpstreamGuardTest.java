@@ -0,0 +1,138 @@
+package com.example.linkedin.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamGuardTest {
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(50);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    void hedgeAnswersWhenThePrimaryIsSlow() {
+        UpstreamGuard guard = new UpstreamGuard(properties(true, 20), meterRegistry);
+        Mono<String> call = attempts(
+            Mono.delay(Duration.ofSeconds(2)).thenReturn("primary"),
+            Mono.just("hedge"));
+
+        assertEquals("hedge", guard.execute(call, () -> true).block(Duration.ofSeconds(5)));
+        assertEquals(1, meterRegistry.counter("linkedin.upstream.hedge.winner", "attempt", "hedge").count());
+    }
+
+    @Test
+    void primaryFailureDoesNotCancelTheHedgeInFlight() {
+        UpstreamGuard guard = new UpstreamGuard(properties(true, 20), meterRegistry);
+        Mono<String> call = attempts(
+            Mono.delay(Duration.ofMillis(150)).then(Mono.error(new UpstreamUnavailableException("primary", null))),
+            Mono.delay(Duration.ofMillis(300)).thenReturn("hedge"));
+
+        assertEquals("hedge", guard.execute(call, () -> true).block(Duration.ofSeconds(5)));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void primaryFailureBeforeTheHedgeDelayIsReportedAtOnce() {
+        UpstreamGuard guard = new UpstreamGuard(properties(true, 20), meterRegistry);
+        Mono<String> call = attempts(
+            Mono.error(new UpstreamUnavailableException("primary", null)),
+            Mono.just("hedge"));
+
+        StepVerifier.create(guard.execute(call, () -> true))
+            .expectErrorSatisfies(error -> assertEquals("primary", ((UpstreamUnavailableException) error).getReason()))
+            .verify(Duration.ofSeconds(5));
+        assertEquals(1, attempts.get());
+        assertEquals(0, meterRegistry.counter("linkedin.upstream.hedge", "result", "sent").count());
+    }
+
+    @Test
+    void bothAttemptsFailingSurfacesThePrimaryError() {
+        UpstreamGuard guard = new UpstreamGuard(properties(true, 20), meterRegistry);
+        Mono<String> call = attempts(
+            Mono.delay(Duration.ofMillis(150)).then(Mono.error(new IllegalStateException("primary"))),
+            Mono.delay(Duration.ofMillis(50)).then(Mono.error(new IllegalArgumentException("hedge"))));
+
+        StepVerifier.create(guard.execute(call, () -> true))
+            .expectErrorSatisfies(error -> {
+                assertInstanceOf(IllegalStateException.class, error);
+                assertEquals("primary", error.getMessage());
+            })
+            .verify(Duration.ofSeconds(5));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void withoutAPermitThePrimaryAloneDecides() {
+        UpstreamGuard guard = new UpstreamGuard(properties(true, 20), meterRegistry);
+        Mono<String> call = attempts(
+            Mono.delay(Duration.ofMillis(150)).thenReturn("primary"),
+            Mono.just("hedge"));
+
+        assertEquals("primary", guard.execute(call, () -> false).block(Duration.ofSeconds(5)));
+        assertEquals(1, attempts.get());
+        assertEquals(1, meterRegistry.counter("linkedin.upstream.hedge", "result", "skipped").count());
+    }
+
+    @Test
+    void slowAttemptTimesOutAsUnavailable() {
+        UpstreamGuard guard = new UpstreamGuard(properties(false, 20), meterRegistry);
+
+        StepVerifier.create(guard.execute(Mono.never(), () -> true))
+            .expectError(UpstreamUnavailableException.class)
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void openCircuitFailsFastWithoutCallingUpstream() {
+        UpstreamGuard guard = new UpstreamGuard(properties(false, 2), meterRegistry);
+        Mono<String> failing = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new UpstreamUnavailableException("down", null));
+        });
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(guard.execute(failing, () -> true))
+                .expectError(UpstreamUnavailableException.class)
+                .verify(Duration.ofSeconds(5));
+        }
+
+        StepVerifier.create(guard.execute(failing, () -> true))
+            .expectError(UpstreamUnavailableException.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertEquals(2, attempts.get());
+        assertEquals(1, meterRegistry.counter("linkedin.upstream.breaker.rejected").count());
+        assertEquals(2, meterRegistry.get("linkedin.upstream.breaker.state").gauge().value());
+    }
+
+    @Test
+    void errorsOtherThanUpstreamFailuresDoNotOpenTheCircuit() {
+        UpstreamGuard guard = new UpstreamGuard(properties(false, 2), meterRegistry);
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(guard.execute(Mono.error(new IllegalArgumentException("bad request")), () -> true))
+                .expectError(IllegalArgumentException.class)
+                .verify(Duration.ofSeconds(5));
+        }
+
+        assertEquals(0, meterRegistry.get("linkedin.upstream.breaker.state").gauge().value());
+    }
+
+    /**
+     * The first subscription is the primary attempt, every later one the hedge.
+     */
+    private Mono<String> attempts(Mono<String> primary, Mono<String> hedge) {
+        return Mono.defer(() -> attempts.incrementAndGet() == 1 ? primary : hedge);
+    }
+
+    private static ResilienceProperties properties(boolean hedgeEnabled, int minimumCalls) {
+        return new ResilienceProperties(Duration.ofSeconds(1), hedgeEnabled, HEDGE_DELAY, 0.5, minimumCalls,
+            minimumCalls, Duration.ofMinutes(1), 1);
+    }
+}
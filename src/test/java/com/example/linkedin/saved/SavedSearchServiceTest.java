@@ -0,0 +1,105 @@
+package com.example.linkedin.saved;
+
+import com.example.linkedin.filter.JobFilter;
+import com.example.linkedin.model.Job;
+import com.example.linkedin.model.SearchRequest;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SavedSearchServiceTest {
+    private static final SearchOwner OWNER = new SearchOwner("linkedin", "member-1");
+
+    private final SavedSearchStore store = mock(SavedSearchStore.class);
+    private final SavedSearchPoller poller = mock(SavedSearchPoller.class);
+    private final JobFilter jobFilter = mock(JobFilter.class);
+    private final SavedSearchService service = new SavedSearchService(store, poller, jobFilter);
+
+    @Test
+    void memberAtTheLimitIsTurnedAwayBeforeTheBaseline() {
+        when(store.requireCapacity(OWNER)).thenReturn(Mono.error(new ResponseStatusException(HttpStatus.CONFLICT)));
+
+        StepVerifier.create(create())
+            .expectErrorSatisfies(error -> assertEquals(HttpStatus.CONFLICT,
+                assertInstanceOf(ResponseStatusException.class, error).getStatusCode()))
+            .verify();
+
+        verify(poller, never()).baseline(any(), any());
+        verify(store, never()).create(any(), any());
+        verify(store, never()).delete(any(), anyString());
+    }
+
+    @Test
+    void searchIsSavedOnceItsBaselineIsComplete() {
+        when(store.requireCapacity(OWNER)).thenReturn(Mono.empty());
+        when(poller.baseline(any(), any())).thenReturn(Mono.just(3L));
+        when(store.create(any(), any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(1)));
+
+        StepVerifier.create(create())
+            .assertNext(saved -> assertEquals("java", saved.query()))
+            .verifyComplete();
+
+        InOrder order = inOrder(store, poller);
+        order.verify(store).requireCapacity(OWNER);
+        order.verify(poller).baseline(any(), any());
+        order.verify(store).create(any(), any());
+    }
+
+    @Test
+    void searchIsRemovedWhenTheAtomicLimitCheckRejectsIt() {
+        when(store.requireCapacity(OWNER)).thenReturn(Mono.empty());
+        when(poller.baseline(any(), any())).thenReturn(Mono.just(3L));
+        when(store.create(any(), any())).thenReturn(Mono.error(new ResponseStatusException(HttpStatus.CONFLICT)));
+        when(store.delete(any(), anyString())).thenReturn(Mono.just(false));
+
+        StepVerifier.create(create()).expectError(ResponseStatusException.class).verify();
+
+        verify(store).delete(any(), anyString());
+    }
+
+    @Test
+    void pendingJobsMatchedByCurrentRulesAreDropped() {
+        Job kept = new Job("1", "https://acme.com/apply/1", false);
+        Job blocked = new Job("2", "https://spam.com/apply/2", false);
+        when(store.find(OWNER, "s1")).thenReturn(Mono.just(new SavedSearch("s1", "java", "de", Instant.EPOCH)));
+        when(store.takePending(OWNER, "s1")).thenReturn(Flux.just(kept, blocked));
+        when(jobFilter.retain(List.of(kept, blocked))).thenReturn(List.of(kept));
+
+        StepVerifier.create(service.takeNewJobs("s1")
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication())))
+            .expectNext(List.of(kept))
+            .verifyComplete();
+    }
+
+    private Mono<SavedSearch> create() {
+        return service.create(new SearchRequest("java", "de"))
+            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication()));
+    }
+
+    private static OAuth2AuthenticationToken authentication() {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        return new OAuth2AuthenticationToken(
+            new DefaultOAuth2User(authorities, Map.of("sub", "member-1"), "sub"), authorities, "linkedin");
+    }
+}
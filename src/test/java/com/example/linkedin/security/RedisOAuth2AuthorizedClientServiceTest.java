@@ -0,0 +1,150 @@
+package com.example.linkedin.security;
+
+import com.example.linkedin.support.MutableClock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisOAuth2AuthorizedClientServiceTest {
+    private static final ClientRegistration REGISTRATION = ClientRegistration.withRegistrationId("linkedin")
+        .clientId("client")
+        .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+        .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+        .authorizationUri("https://www.linkedin.com/oauth/v2/authorization")
+        .tokenUri("https://www.linkedin.com/oauth/v2/accessToken")
+        .build();
+    private static final String MEMBER = "member-1";
+    private static final String KEY = "test:linkedin:member-1";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ReactiveValueOperations<String, String> values = mock(ReactiveValueOperations.class);
+    private final ReactiveClientRegistrationRepository registrations = mock(ReactiveClientRegistrationRepository.class);
+
+    RedisOAuth2AuthorizedClientServiceTest() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.set(anyString(), anyString())).thenReturn(Mono.just(true));
+        when(values.set(anyString(), anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+        when(redisTemplate.delete(anyString())).thenReturn(Mono.just(1L));
+        when(registrations.findByRegistrationId("linkedin")).thenReturn(Mono.just(REGISTRATION));
+    }
+
+    @Test
+    void savedClientIsReadBackFromRedisByAnotherInstance() {
+        Instant now = clock.instant();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access",
+            now, now.plus(Duration.ofHours(1)), Set.of("openid", "profile"));
+        OAuth2RefreshToken refreshToken = new OAuth2RefreshToken("refresh", now, now.plus(Duration.ofDays(30)));
+        service().saveAuthorizedClient(new OAuth2AuthorizedClient(REGISTRATION, MEMBER, accessToken, refreshToken),
+            new TestingAuthenticationToken(MEMBER, null)).block();
+
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(values).set(eq(KEY), json.capture(), eq(Duration.ofDays(30)));
+        when(values.get(KEY)).thenReturn(Mono.just(json.getValue()));
+
+        OAuth2AuthorizedClient loaded = service().<OAuth2AuthorizedClient>loadAuthorizedClient("linkedin", MEMBER).block();
+
+        assertEquals(REGISTRATION, loaded.getClientRegistration());
+        assertEquals(MEMBER, loaded.getPrincipalName());
+        assertEquals("access", loaded.getAccessToken().getTokenValue());
+        assertEquals(OAuth2AccessToken.TokenType.BEARER, loaded.getAccessToken().getTokenType());
+        assertEquals(accessToken.getIssuedAt(), loaded.getAccessToken().getIssuedAt());
+        assertEquals(accessToken.getExpiresAt(), loaded.getAccessToken().getExpiresAt());
+        assertEquals(Set.of("openid", "profile"), loaded.getAccessToken().getScopes());
+        assertEquals("refresh", loaded.getRefreshToken().getTokenValue());
+        assertEquals(refreshToken.getExpiresAt(), loaded.getRefreshToken().getExpiresAt());
+    }
+
+    @Test
+    void clientWithoutRefreshTokenRoundTripsAndExpiresWithItsAccessToken() {
+        Instant now = clock.instant();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access",
+            now, now.plus(Duration.ofHours(1)));
+        service().saveAuthorizedClient(new OAuth2AuthorizedClient(REGISTRATION, MEMBER, accessToken),
+            new TestingAuthenticationToken(MEMBER, null)).block();
+
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(values).set(eq(KEY), json.capture(), eq(Duration.ofHours(1)));
+        when(values.get(KEY)).thenReturn(Mono.just(json.getValue()));
+
+        OAuth2AuthorizedClient loaded = service().<OAuth2AuthorizedClient>loadAuthorizedClient("linkedin", MEMBER).block();
+        assertEquals("access", loaded.getAccessToken().getTokenValue());
+        assertNull(loaded.getRefreshToken());
+    }
+
+    @Test
+    void refreshTokenWithoutExpiryIsStoredWithoutTtl() {
+        Instant now = clock.instant();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access",
+            now, now.plus(Duration.ofHours(1)));
+        service().saveAuthorizedClient(new OAuth2AuthorizedClient(REGISTRATION, MEMBER, accessToken,
+            new OAuth2RefreshToken("refresh", now)), new TestingAuthenticationToken(MEMBER, null)).block();
+
+        verify(values).set(eq(KEY), anyString());
+    }
+
+    @Test
+    void alreadyExpiredClientIsKeptBriefly() {
+        Instant issued = clock.instant();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access",
+            issued, issued.plus(Duration.ofMinutes(1)));
+        clock.advance(Duration.ofMinutes(5));
+
+        service().saveAuthorizedClient(new OAuth2AuthorizedClient(REGISTRATION, MEMBER, accessToken),
+            new TestingAuthenticationToken(MEMBER, null)).block();
+
+        verify(values).set(eq(KEY), anyString(), eq(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void loadedClientIsServedFromTheLocalCacheUntilRemoved() throws Exception {
+        Instant now = clock.instant();
+        String json = objectMapper.writeValueAsString(new RedisOAuth2AuthorizedClientService.StoredClient(
+            new RedisOAuth2AuthorizedClientService.StoredAccessToken("access", now, now.plusSeconds(3600), Set.of()),
+            null));
+        when(values.get(KEY)).thenReturn(Mono.just(json));
+        RedisOAuth2AuthorizedClientService service = service();
+
+        assertNotNull(service.loadAuthorizedClient("linkedin", MEMBER).block());
+        assertNotNull(service.loadAuthorizedClient("linkedin", MEMBER).block());
+        verify(values, times(1)).get(KEY);
+
+        service.removeAuthorizedClient("linkedin", MEMBER).block();
+        when(values.get(KEY)).thenReturn(Mono.empty());
+
+        assertNull(service.loadAuthorizedClient("linkedin", MEMBER).block());
+        verify(redisTemplate).delete(KEY);
+    }
+
+    private RedisOAuth2AuthorizedClientService service() {
+        return new RedisOAuth2AuthorizedClientService(registrations, redisTemplate, objectMapper,
+            new AuthorizedClientProperties(true, "test:", Duration.ofMinutes(1), 100, Duration.ofMinutes(10),
+                Duration.ofSeconds(30)),
+            clock);
+    }
+}
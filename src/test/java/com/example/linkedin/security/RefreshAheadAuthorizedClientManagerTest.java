@@ -0,0 +1,174 @@
+package com.example.linkedin.security;
+
+import com.example.linkedin.support.MutableClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.client.ClientAuthorizationRequiredException;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshAheadAuthorizedClientManagerTest {
+    private static final ClientRegistration REGISTRATION = ClientRegistration.withRegistrationId("linkedin")
+        .clientId("client")
+        .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+        .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+        .authorizationUri("https://www.linkedin.com/oauth/v2/authorization")
+        .tokenUri("https://www.linkedin.com/oauth/v2/accessToken")
+        .build();
+    private static final String MEMBER = "member-1";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReactiveOAuth2AuthorizedClientService authorizedClientService =
+        mock(ReactiveOAuth2AuthorizedClientService.class);
+    private final ReactiveOAuth2AuthorizedClientManager authorizedClientManager =
+        mock(ReactiveOAuth2AuthorizedClientManager.class);
+    private final AtomicInteger refreshes = new AtomicInteger();
+    private final RefreshAheadAuthorizedClientManager manager = new RefreshAheadAuthorizedClientManager(
+        authorizedClientService,
+        authorizedClientManager,
+        new AuthorizedClientProperties(true, "test:", Duration.ofSeconds(30), 100, Duration.ofMinutes(10),
+            Duration.ofSeconds(30)),
+        meterRegistry,
+        clock
+    );
+
+    @Test
+    void tokenWithMoreThanRefreshAheadLeftIsUsedAsIs() {
+        OAuth2AuthorizedClient stored = stored(Duration.ofMinutes(11), true);
+
+        assertSame(stored, manager.authorizedClient("linkedin", MEMBER).block());
+        verify(authorizedClientManager, never()).authorize(any());
+    }
+
+    @Test
+    void tokenWithinRefreshAheadIsUsedWhileItIsRefreshedInTheBackground() {
+        OAuth2AuthorizedClient stored = stored(Duration.ofMinutes(5), true);
+        OAuth2AuthorizedClient refreshed = client(Duration.ofHours(1), true);
+        refreshWith(Mono.just(refreshed));
+
+        assertSame(stored, manager.authorizedClient("linkedin", MEMBER).block());
+        assertEquals(1, refreshes.get());
+        assertEquals(1, refreshCount("ahead", "success"));
+    }
+
+    @Test
+    void tokenWithinExpirySkewIsRefreshedBeforeItIsReturned() {
+        stored(Duration.ofSeconds(10), true);
+        OAuth2AuthorizedClient refreshed = client(Duration.ofHours(1), true);
+        refreshWith(Mono.just(refreshed));
+
+        assertSame(refreshed, manager.authorizedClient("linkedin", MEMBER).block());
+        assertEquals(1, refreshCount("inline", "success"));
+    }
+
+    @Test
+    void bandsFollowTheClock() {
+        OAuth2AuthorizedClient stored = stored(Duration.ofMinutes(11), true);
+        OAuth2AuthorizedClient refreshed = client(Duration.ofHours(1), true);
+        refreshWith(Mono.just(refreshed));
+
+        assertSame(stored, manager.authorizedClient("linkedin", MEMBER).block());
+        assertEquals(0, refreshes.get());
+
+        clock.advance(Duration.ofMinutes(2));
+        assertSame(stored, manager.authorizedClient("linkedin", MEMBER).block());
+        assertEquals(1, refreshes.get());
+
+        clock.advance(Duration.ofMinutes(9));
+        assertSame(refreshed, manager.authorizedClient("linkedin", MEMBER).block());
+        assertEquals(2, refreshes.get());
+    }
+
+    @Test
+    void concurrentInlineRefreshesShareOneTokenRequest() {
+        stored(Duration.ofSeconds(10), true);
+        OAuth2AuthorizedClient refreshed = client(Duration.ofHours(1), true);
+        Sinks.One<OAuth2AuthorizedClient> response = Sinks.one();
+        refreshWith(response.asMono());
+
+        Mono<OAuth2AuthorizedClient> first = manager.authorizedClient("linkedin", MEMBER).cache();
+        Mono<OAuth2AuthorizedClient> second = manager.authorizedClient("linkedin", MEMBER).cache();
+        first.subscribe();
+        second.subscribe();
+        response.tryEmitValue(refreshed);
+
+        assertSame(refreshed, first.block(Duration.ofSeconds(5)));
+        assertSame(refreshed, second.block(Duration.ofSeconds(5)));
+        assertEquals(1, refreshes.get());
+        assertEquals(1, meterRegistry.counter("linkedin.oauth2.refresh.coalesced").count());
+    }
+
+    @Test
+    void expiredTokenWithoutRefreshTokenRequiresANewLogin() {
+        stored(Duration.ofSeconds(10), false);
+
+        StepVerifier.create(manager.authorizedClient("linkedin", MEMBER))
+            .expectError(ClientAuthorizationRequiredException.class)
+            .verify(Duration.ofSeconds(5));
+        verify(authorizedClientManager, never()).authorize(any());
+        assertEquals(1, refreshCount("any", "no_refresh_token"));
+    }
+
+    @Test
+    void tokenWithinRefreshAheadWithoutRefreshTokenIsUsedUntilItExpires() {
+        OAuth2AuthorizedClient stored = stored(Duration.ofMinutes(5), false);
+
+        assertSame(stored, manager.authorizedClient("linkedin", MEMBER).block());
+        verify(authorizedClientManager, never()).authorize(any());
+    }
+
+    @Test
+    void memberWithoutStoredClientRequiresALogin() {
+        when(authorizedClientService.loadAuthorizedClient("linkedin", MEMBER)).thenReturn(Mono.empty());
+
+        StepVerifier.create(manager.authorizedClient("linkedin", MEMBER))
+            .expectError(ClientAuthorizationRequiredException.class)
+            .verify(Duration.ofSeconds(5));
+    }
+
+    private OAuth2AuthorizedClient stored(Duration accessTokenLeft, boolean refreshable) {
+        OAuth2AuthorizedClient client = client(accessTokenLeft, refreshable);
+        when(authorizedClientService.loadAuthorizedClient("linkedin", MEMBER)).thenReturn(Mono.just(client));
+        return client;
+    }
+
+    private OAuth2AuthorizedClient client(Duration accessTokenLeft, boolean refreshable) {
+        Instant now = clock.instant();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(
+            OAuth2AccessToken.TokenType.BEARER, "access-" + accessTokenLeft, now.minusSeconds(60), now.plus(accessTokenLeft));
+        OAuth2RefreshToken refreshToken = refreshable ? new OAuth2RefreshToken("refresh", now.minusSeconds(60)) : null;
+        return new OAuth2AuthorizedClient(REGISTRATION, MEMBER, accessToken, refreshToken);
+    }
+
+    private void refreshWith(Mono<OAuth2AuthorizedClient> response) {
+        when(authorizedClientManager.authorize(any())).thenReturn(Mono.defer(() -> {
+            refreshes.incrementAndGet();
+            return response;
+        }));
+    }
+
+    private double refreshCount(String mode, String result) {
+        return meterRegistry.counter("linkedin.oauth2.refresh", "mode", mode, "result", result).count();
+    }
+}
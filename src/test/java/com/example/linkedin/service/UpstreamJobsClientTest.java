@@ -0,0 +1,31 @@
+package com.example.linkedin.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamJobsClientTest {
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Test
+    void retryAfterInSecondsIsTakenAsIs() {
+        assertEquals(Duration.ofSeconds(120), UpstreamJobsClient.retryAfter(" 120 ", NOW));
+        assertEquals(Duration.ZERO, UpstreamJobsClient.retryAfter("-5", NOW));
+    }
+
+    @Test
+    void retryAfterAsHttpDateIsRelativeToTheClock() {
+        assertEquals(Duration.ofSeconds(90), UpstreamJobsClient.retryAfter("Sun, 01 Mar 2026 12:01:30 GMT", NOW));
+        assertEquals(Duration.ZERO, UpstreamJobsClient.retryAfter("Sun, 01 Mar 2026 11:59:00 GMT", NOW));
+    }
+
+    @Test
+    void missingOrUnreadableRetryAfterMeansNoDelay() {
+        assertEquals(Duration.ZERO, UpstreamJobsClient.retryAfter(null, NOW));
+        assertEquals(Duration.ZERO, UpstreamJobsClient.retryAfter("", NOW));
+        assertEquals(Duration.ZERO, UpstreamJobsClient.retryAfter("tomorrow", NOW));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.linkedin.session;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactSessionSerializerTest {
+    private static final Instant ISSUED_AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CompactSessionSerializer serializer =
+        new CompactSessionSerializer(getClass().getClassLoader(), meterRegistry);
+
+    @Test
+    void simpleValuesRoundTrip() {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("list", List.of("a", 1L, true));
+        nested.put("missing", null);
+        for (Object value : List.of("text", 42L, 7, 1.5, false, ISSUED_AT, nested)) {
+            byte[] bytes = serializer.serialize(value);
+            assertEquals('L', bytes[0]);
+            assertEquals(value, serializer.deserialize(bytes));
+        }
+        assertEquals(7, compactWrites());
+    }
+
+    @Test
+    void oidcSecurityContextRoundTripsInCompactForm() throws Exception {
+        OidcIdToken idToken = new OidcIdToken("id-token", ISSUED_AT, ISSUED_AT.plusSeconds(3600), Map.of(
+            "sub", "member-1",
+            "iss", URI.create("https://www.linkedin.com/oauth").toURL(),
+            "iat", ISSUED_AT,
+            "email_verified", true));
+        OidcUserInfo userInfo = new OidcUserInfo(Map.of("sub", "member-1", "name", "Jane Doe"));
+        List<GrantedAuthority> authorities = List.of(
+            new OidcUserAuthority(idToken, userInfo),
+            new SimpleGrantedAuthority("SCOPE_openid"));
+        DefaultOidcUser user = new DefaultOidcUser(authorities, idToken, userInfo, "sub");
+        SecurityContextImpl context = new SecurityContextImpl(new OAuth2AuthenticationToken(user, authorities, "linkedin"));
+
+        byte[] bytes = serializer.serialize(context);
+        SecurityContextImpl read = (SecurityContextImpl) serializer.deserialize(bytes);
+
+        assertEquals('L', bytes[0]);
+        assertTrue(bytes.length < new JdkSerializationRedisSerializer().serialize(context).length);
+        OAuth2AuthenticationToken token = (OAuth2AuthenticationToken) read.getAuthentication();
+        assertEquals("linkedin", token.getAuthorizedClientRegistrationId());
+        assertEquals("member-1", token.getName());
+        assertTrue(token.isAuthenticated());
+        assertEquals(authorities, List.copyOf(token.getAuthorities()));
+        DefaultOidcUser readUser = (DefaultOidcUser) token.getPrincipal();
+        assertEquals(idToken, readUser.getIdToken());
+        assertEquals(idToken.getClaims(), readUser.getIdToken().getClaims());
+        assertEquals("Jane Doe", readUser.getFullName());
+    }
+
+    @Test
+    void oauth2SecurityContextRoundTripsInCompactForm() {
+        Map<String, Object> attributes = Map.of("id", "member-2", "localizedFirstName", "Jane");
+        List<GrantedAuthority> authorities = List.of(new OAuth2UserAuthority(attributes));
+        DefaultOAuth2User user = new DefaultOAuth2User(authorities, attributes, "id");
+        SecurityContextImpl context = new SecurityContextImpl(new OAuth2AuthenticationToken(user, authorities, "linkedin"));
+
+        byte[] bytes = serializer.serialize(context);
+        OAuth2AuthenticationToken token =
+            (OAuth2AuthenticationToken) ((SecurityContextImpl) serializer.deserialize(bytes)).getAuthentication();
+
+        assertEquals('L', bytes[0]);
+        assertEquals("member-2", token.getName());
+        assertEquals(attributes, token.getPrincipal().getAttributes());
+        assertEquals(authorities, List.copyOf(token.getAuthorities()));
+    }
+
+    @Test
+    void valueWithoutCompactFormFallsBackToJdkSerialization() {
+        UUID id = UUID.randomUUID();
+        Map<Object, Object> numberKeys = new HashMap<>(Map.of(1, "one"));
+
+        for (Object value : List.of(id, numberKeys)) {
+            byte[] bytes = serializer.serialize(value);
+            assertEquals((byte) 0xAC, bytes[0]);
+            assertEquals(value, serializer.deserialize(bytes));
+        }
+        assertEquals(2, jdkWrites());
+        assertEquals(0, compactWrites());
+    }
+
+    @Test
+    void stringTooLongForTheCompactFormFallsBackToJdkSerialization() {
+        String value = "x".repeat(70_000);
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertEquals((byte) 0xAC, bytes[0]);
+        assertEquals(value, serializer.deserialize(bytes));
+        assertEquals(1, jdkWrites());
+    }
+
+    @Test
+    void legacyJdkBlobIsRead() {
+        Map<String, Object> legacy = new HashMap<>(Map.of("written", "before the compact format"));
+
+        assertEquals(legacy, serializer.deserialize(new JdkSerializationRedisSerializer().serialize(legacy)));
+    }
+
+    @Test
+    void nullIsWrittenAsEmptyBlob() {
+        assertEquals(0, serializer.serialize(null).length);
+        assertNull(serializer.deserialize(new byte[0]));
+        assertNull(serializer.deserialize(null));
+    }
+
+    @Test
+    void unknownVersionAndFormatAreRejected() {
+        byte[] future = {CompactSessionSerializer.MAGIC_0, CompactSessionSerializer.MAGIC_1, 2, 1, 0, 0};
+        byte[] unknown = {'X', 'Y', 1, 1};
+        byte[] truncated = {CompactSessionSerializer.MAGIC_0, CompactSessionSerializer.MAGIC_1, 1, 1, 0, 5};
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(future));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(unknown));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(truncated));
+    }
+
+    private double compactWrites() {
+        return meterRegistry.counter("linkedin.session.attributes.serialized", "format", "compact").count();
+    }
+
+    private double jdkWrites() {
+        return meterRegistry.counter("linkedin.session.attributes.serialized", "format", "jdk").count();
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.linkedin.session;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NearCachingRedisSessionRepositoryTest {
+    private static final String PREFIX = "spring:session:sessions:";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CompactSessionSerializer serializer =
+        new CompactSessionSerializer(getClass().getClassLoader(), meterRegistry);
+    @SuppressWarnings("unchecked")
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate = mock(ReactiveRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ReactiveHashOperations<String, String, byte[]> hashOperations = mock(ReactiveHashOperations.class);
+
+    NearCachingRedisSessionRepositoryTest() {
+        when(redisTemplate.<String, byte[]>opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.<Long>execute(any(), anyList(), anyList())).thenReturn(Flux.just(1L));
+        when(redisTemplate.delete(anyString())).thenReturn(Mono.just(1L));
+    }
+
+    @Test
+    void newSessionIsWrittenInFullAndThenServedFromTheNearCache() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ofMinutes(1));
+        NearCachingRedisSessionRepository.RedisSession session = repository.createSession().block();
+        session.setAttribute("country", "de");
+
+        repository.save(session).block();
+
+        Save save = captureSaves(1).get(0);
+        assertEquals(PREFIX + session.getId(), save.key());
+        assertEquals(Set.of("creationTime", "lastAccessedTime", "maxInactiveInterval", "sessionAttr:country", "writeNonce"),
+            save.writes().keySet());
+        assertEquals(1800, serializer.deserialize(save.writes().get("maxInactiveInterval")));
+        assertEquals(1800, save.ttl());
+        assertEquals("", save.expectedNonce());
+
+        assertEquals("de", repository.findById(session.getId()).block().getAttribute("country"));
+        verify(hashOperations, never()).entries(anyString());
+    }
+
+    @Test
+    void onlyChangedFieldsAreWrittenBack() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ofMinutes(1));
+        String id = saved(repository, "country", "de");
+
+        NearCachingRedisSessionRepository.RedisSession unchanged = repository.findById(id).block();
+        repository.save(unchanged).block();
+        captureSaves(1);
+
+        NearCachingRedisSessionRepository.RedisSession changed = repository.findById(id).block();
+        changed.setAttribute("query", "java");
+        changed.removeAttribute("country");
+        repository.save(changed).block();
+
+        List<Save> saves = captureSaves(2);
+        assertEquals(Set.of("sessionAttr:query", "writeNonce"), saves.get(1).writes().keySet());
+        assertEquals(List.of("sessionAttr:country"), saves.get(1).removals());
+        assertArrayEquals(saves.get(0).writes().get("writeNonce"), saves.get(1).expectedNonceBytes());
+        assertFalse(Arrays.equals(saves.get(0).writes().get("writeNonce"), saves.get(1).writes().get("writeNonce")));
+    }
+
+    @Test
+    void lastAccessTimeIsWrittenOnlyOnceItAdvancedByTheTouchInterval() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ofMinutes(1));
+        String id = saved(repository, "country", "de");
+        NearCachingRedisSessionRepository.RedisSession session = repository.findById(id).block();
+        Instant lastAccessed = session.getLastAccessedTime();
+
+        session.setLastAccessedTime(lastAccessed.plusSeconds(10));
+        repository.save(session).block();
+        captureSaves(1);
+
+        session.setLastAccessedTime(lastAccessed.plusSeconds(90));
+        repository.save(session).block();
+        Map<String, byte[]> written = captureSaves(2).get(1).writes();
+        assertEquals(Set.of("lastAccessedTime", "writeNonce"), written.keySet());
+        assertEquals(lastAccessed.plusSeconds(90).toEpochMilli(), serializer.deserialize(written.get("lastAccessedTime")));
+    }
+
+    @Test
+    void sessionMissingFromTheNearCacheIsLoadedFromRedis() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ofMinutes(1));
+        Instant now = Instant.now();
+        when(hashOperations.entries(PREFIX + "abc")).thenReturn(Flux.just(
+            Map.entry("creationTime", serializer.serialize(now.toEpochMilli())),
+            Map.entry("lastAccessedTime", serializer.serialize(now.toEpochMilli())),
+            Map.entry("maxInactiveInterval", serializer.serialize(1800)),
+            Map.entry("sessionAttr:country", serializer.serialize("de")),
+            Map.entry("writeNonce", serializer.serialize("other:1"))));
+
+        assertEquals("de", repository.findById("abc").block().getAttribute("country"));
+        NearCachingRedisSessionRepository.RedisSession session = repository.findById("abc").block();
+        assertEquals(Set.of("country"), session.getAttributeNames());
+
+        verify(hashOperations, times(1)).entries(PREFIX + "abc");
+        assertEquals(1, meterRegistry.get("linkedin.session.load").tag("source", "redis").timer().count());
+        assertEquals(1, meterRegistry.get("linkedin.session.load").tag("source", "near_cache").timer().count());
+
+        session.setAttribute("query", "java");
+        repository.save(session).block();
+        assertArrayEquals(serializer.serialize("other:1"), captureSaves(1).get(0).expectedNonceBytes());
+    }
+
+    @Test
+    void unreadableOrMissingSessionIsNotFound() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ofMinutes(1));
+        when(hashOperations.entries(PREFIX + "broken")).thenReturn(Flux.just(
+            Map.entry("creationTime", new byte[] {'L', 'S', 9, 0})));
+        when(hashOperations.entries(PREFIX + "gone")).thenReturn(Flux.empty());
+
+        assertNull(repository.findById("broken").block());
+        assertNull(repository.findById("gone").block());
+    }
+
+    @Test
+    void echoOfOwnSaveKeepsTheNearCacheCopy() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ofMinutes(1));
+        String id = saved(repository, "country", "de");
+        byte[] nonce = captureSaves(1).get(0).writes().get("writeNonce");
+        when(hashOperations.get(PREFIX + id, "writeNonce")).thenReturn(Mono.just(nonce));
+
+        for (String event : new String[] {"hset", "hdel", "expire"}) {
+            repository.invalidateKey(PREFIX + id, event).block();
+        }
+
+        assertNotNull(repository.findById(id).block());
+        verify(hashOperations, never()).entries(anyString());
+        assertEquals(0, meterRegistry.counter("linkedin.session.near_cache.invalidations").count());
+    }
+
+    @Test
+    void saveByAnotherInstanceRightAfterOwnSaveEvicts() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ofMinutes(1));
+        String id = saved(repository, "country", "de");
+        when(hashOperations.get(PREFIX + id, "writeNonce")).thenReturn(Mono.just(serializer.serialize("other:7")));
+        when(hashOperations.entries(PREFIX + id)).thenReturn(Flux.empty());
+
+        repository.invalidateKey(PREFIX + id, "hset").block();
+
+        assertNull(repository.findById(id).block());
+        assertEquals(1, meterRegistry.counter("linkedin.session.near_cache.invalidations").count());
+    }
+
+    @Test
+    void unreadableNonceEvicts() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ofMinutes(1));
+        String id = saved(repository, "country", "de");
+        when(hashOperations.get(PREFIX + id, "writeNonce")).thenReturn(Mono.error(new IllegalStateException("down")));
+
+        repository.invalidateKey(PREFIX + id, "expire").block();
+
+        assertEquals(1, meterRegistry.counter("linkedin.session.near_cache.invalidations").count());
+    }
+
+    @Test
+    void deletionOrExpiryEvictsEvenRightAfterOwnSave() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ofMinutes(1));
+        String deleted = saved(repository, "country", "de");
+        String expired = saved(repository, "country", "fr");
+        when(hashOperations.entries(anyString())).thenReturn(Flux.empty());
+
+        repository.invalidateKey(PREFIX + deleted, "del").block();
+        repository.invalidateKey(PREFIX + expired, "expired").block();
+
+        assertNull(repository.findById(deleted).block());
+        assertNull(repository.findById(expired).block());
+        assertEquals(2, meterRegistry.counter("linkedin.session.near_cache.invalidations").count());
+        verify(hashOperations, never()).get(anyString(), any());
+    }
+
+    @Test
+    void sessionChangedElsewhereSinceItWasLoadedIsNotCachedOnSave() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ofMinutes(1));
+        String id = saved(repository, "country", "de");
+        when(redisTemplate.<Long>execute(any(), anyList(), anyList())).thenReturn(Flux.just(0L));
+        when(hashOperations.entries(PREFIX + id)).thenReturn(Flux.empty());
+
+        NearCachingRedisSessionRepository.RedisSession session = repository.findById(id).block();
+        session.setAttribute("query", "java");
+        repository.save(session).block();
+
+        assertNull(repository.findById(id).block());
+        verify(hashOperations).entries(PREFIX + id);
+    }
+
+    @Test
+    void saveAnsweredAfterTheOwnWriteWindowIsNotCached() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ZERO);
+        String id = saved(repository, "country", "de");
+        when(hashOperations.entries(PREFIX + id)).thenReturn(Flux.empty());
+
+        repository.invalidateKey(PREFIX + id, "hset").block();
+
+        assertNull(repository.findById(id).block());
+        verify(hashOperations, never()).get(anyString(), any());
+    }
+
+    @Test
+    void keysOutsideTheNamespaceAreIgnored() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ofMinutes(1));
+        String id = saved(repository, "country", "de");
+
+        repository.invalidateKey("other:sessions:" + id, "hset").block();
+
+        assertNotNull(repository.findById(id).block());
+    }
+
+    @Test
+    void deleteDropsTheNearCacheCopy() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ofMinutes(1));
+        String id = saved(repository, "country", "de");
+        when(hashOperations.entries(PREFIX + id)).thenReturn(Flux.empty());
+
+        repository.deleteById(id).block();
+
+        verify(redisTemplate).delete(PREFIX + id);
+        assertNull(repository.findById(id).block());
+    }
+
+    @Test
+    void changedSessionIdRenamesTheKey() {
+        NearCachingRedisSessionRepository repository = repository(Duration.ofMinutes(1));
+        String id = saved(repository, "country", "de");
+        when(redisTemplate.rename(anyString(), anyString())).thenReturn(Mono.just(true));
+
+        NearCachingRedisSessionRepository.RedisSession session = repository.findById(id).block();
+        String newId = session.changeSessionId();
+        repository.save(session).block();
+
+        verify(redisTemplate).rename(PREFIX + id, PREFIX + newId);
+        captureSaves(1);
+    }
+
+    private String saved(NearCachingRedisSessionRepository repository, String attribute, Object value) {
+        NearCachingRedisSessionRepository.RedisSession session = repository.createSession().block();
+        session.setAttribute(attribute, value);
+        repository.save(session).block();
+        return session.getId();
+    }
+
+    /**
+     * Decodes the arguments of every save script run so far, in order.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Save> captureSaves(int count) {
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<byte[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate, times(count)).execute(any(), keys.capture(), args.capture());
+        List<Save> saves = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<byte[]> values = args.getAllValues().get(i);
+            int fields = Integer.parseInt(text(values.get(3)));
+            Map<String, byte[]> writes = new HashMap<>();
+            for (int field = 0; field < fields; field++) {
+                writes.put(text(values.get(4 + 2 * field)), values.get(5 + 2 * field));
+            }
+            List<String> removals = values.subList(4 + 2 * fields, values.size()).stream()
+                .map(NearCachingRedisSessionRepositoryTest::text)
+                .toList();
+            assertEquals("writeNonce", text(values.get(0)));
+            saves.add(new Save(keys.getAllValues().get(i).get(0), values.get(1), Long.parseLong(text(values.get(2))),
+                writes, removals));
+        }
+        return saves;
+    }
+
+    private static String text(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private NearCachingRedisSessionRepository repository(Duration ownWriteWindow) {
+        SessionProperties properties = new SessionProperties("spring:session", Duration.ofMinutes(30),
+            Duration.ofSeconds(60), 100, Duration.ofMinutes(1), true, ownWriteWindow, false);
+        return new NearCachingRedisSessionRepository(redisTemplate, serializer, properties, meterRegistry);
+    }
+
+    private record Save(String key, byte[] expectedNonceBytes, long ttl, Map<String, byte[]> writes, List<String> removals) {
+        String expectedNonce() {
+            return text(expectedNonceBytes);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.linkedin.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private final Counter coalesced = new SimpleMeterRegistry().counter("coalesced");
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>(coalesced);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void concurrentCallsForOneKeyShareOneExecution() {
+        Sinks.One<String> upstream = Sinks.one();
+        List<String> results = new ArrayList<>();
+
+        singleFlight.execute("java", counted(upstream.asMono())).subscribe(results::add);
+        singleFlight.execute("java", counted(upstream.asMono())).subscribe(results::add);
+        assertTrue(singleFlight.isInFlight("java"));
+
+        upstream.tryEmitValue("links");
+
+        assertEquals(List.of("links", "links"), results);
+        assertEquals(1, executions.get());
+        assertEquals(1, coalesced.count());
+        assertFalse(singleFlight.isInFlight("java"));
+    }
+
+    @Test
+    void callsForDifferentKeysAreNotCoalesced() {
+        singleFlight.execute("java", counted(Mono.never())).subscribe();
+        singleFlight.execute("kotlin", counted(Mono.never())).subscribe();
+
+        assertEquals(2, executions.get());
+        assertEquals(0, coalesced.count());
+    }
+
+    @Test
+    void callIsCancelledOnlyWhenTheLastWaiterCancels() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> call = Mono.<String>never().doOnCancel(() -> cancelled.set(true));
+
+        Disposable first = singleFlight.execute("java", call).subscribe();
+        Disposable second = singleFlight.execute("java", call).subscribe();
+
+        first.dispose();
+        assertFalse(cancelled.get());
+        assertTrue(singleFlight.isInFlight("java"));
+
+        second.dispose();
+        assertTrue(cancelled.get());
+        assertFalse(singleFlight.isInFlight("java"));
+    }
+
+    @Test
+    void callAfterEveryWaiterCancelledStartsAFreshExecution() {
+        singleFlight.execute("java", counted(Mono.never())).subscribe().dispose();
+
+        assertEquals("links", singleFlight.execute("java", counted(Mono.just("links"))).block());
+        assertEquals(2, executions.get());
+        assertEquals(0, coalesced.count());
+    }
+
+    @Test
+    void errorReachesEveryWaiter() {
+        Sinks.One<String> upstream = Sinks.one();
+        List<Throwable> errors = new ArrayList<>();
+
+        singleFlight.execute("java", upstream.asMono()).subscribe(value -> { }, errors::add);
+        singleFlight.execute("java", upstream.asMono()).subscribe(value -> { }, errors::add);
+        IllegalStateException failure = new IllegalStateException("upstream failed");
+        upstream.tryEmitError(failure);
+
+        assertEquals(List.of(failure, failure), errors);
+        assertFalse(singleFlight.isInFlight("java"));
+    }
+
+    @Test
+    void emptyResultCompletesEveryWaiter() {
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger completed = new AtomicInteger();
+
+        singleFlight.execute("java", upstream.asMono()).subscribe(null, null, completed::incrementAndGet);
+        singleFlight.execute("java", upstream.asMono()).subscribe(null, null, completed::incrementAndGet);
+        upstream.tryEmitEmpty();
+
+        assertEquals(2, completed.get());
+        assertFalse(singleFlight.isInFlight("java"));
+    }
+
+    @Test
+    void finishedCallIsNotReused() {
+        assertEquals("first", singleFlight.execute("java", counted(Mono.just("first"))).block());
+        assertEquals("second", singleFlight.execute("java", counted(Mono.just("second"))).block());
+
+        assertEquals(2, executions.get());
+        assertEquals(0, coalesced.count());
+    }
+
+    @Test
+    void callRunsWithTheContextOfTheFirstSubscriber() {
+        Mono<String> call = Mono.deferContextual(context -> Mono.just(context.<String>get("member")));
+
+        assertEquals("first", singleFlight.execute("java", call).contextWrite(Context.of("member", "first")).block());
+    }
+
+    private Mono<String> counted(Mono<String> call) {
+        return Mono.defer(() -> {
+            executions.incrementAndGet();
+            return call;
+        });
+    }
+}
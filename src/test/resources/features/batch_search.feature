@@ -0,0 +1,26 @@
+Feature: Batch search over many query and country pairs
+
+  Scenario: Every search of a batch answers with its own links
+    When I run a batch search for queries "Java,Paged" in country "Germany"
+    Then the batch should hold 2 results
+    And the batch result for query "Java" should hold 1 direct application URLs
+    And the batch result for query "Paged" should hold 4 direct application URLs
+
+  Scenario: A link found by two searches is returned once
+    When I run a batch search for queries "Java,Kotlin" in country "Germany"
+    Then the batch should hold 2 results
+    And the batch should hold 1 direct application URLs in total
+
+  Scenario: A failing search yields an error code without failing the batch
+    When I run a batch search for queries "Java,Rejected" in country "Germany"
+    Then the batch should hold 2 results
+    And the batch result for query "Java" should hold 1 direct application URLs
+    And the batch result for query "Rejected" should fail with error "search_failed"
+
+  Scenario: A batch of more than 50 searches is refused
+    When I run a batch search with 51 searches
+    Then the batch response status should be 400
+
+  Scenario: A form encoded batch without a CSRF token is refused
+    When I send a form encoded batch search
+    Then the batch response status should be 403
@@ -0,0 +1,10 @@
+Feature: Conditional and binary search responses for pollers
+
+  Scenario: An unchanged result is answered with 304 Not Modified
+    Given I search for direct apply links with query "Java" in country "Germany"
+    When I repeat the search for query "Java" in country "Germany" with the returned ETag
+    Then the response should be 304 Not Modified without a body
+
+  Scenario: Links are sent as CBOR when asked for
+    Given I search for direct apply links with query "Java" in country "Germany" as CBOR
+    Then the CBOR response should hold 1 direct application URLs
@@ -0,0 +1,5 @@
+Feature: Filter rules exclude jobs beyond Easy Apply
+
+  Scenario: Jobs from blocked companies, with spam keywords or on blocked domains are dropped
+    Given I search for direct apply links with query "Filtered" in country "Germany"
+    Then I should get 1 direct application URLs
@@ -0,0 +1,5 @@
+Feature: Slow upstream answers are hedged
+
+  Scenario: A duplicate request answers when the first one stalls
+    Given I search for direct apply links with query "Slow" in country "Germany"
+    Then I should get 1 direct application URLs
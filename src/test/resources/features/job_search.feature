@@ -3,4 +3,8 @@ Feature: Job Search with LinkedIn API
   Scenario: Search for jobs by query and country
     Given I search for jobs with query "\"Java\"" in country "Germany"
     When the request is sent to the API
-    Then I should get a list of direct application URLs
\ No newline at end of file
+    Then I should get a list of direct application URLs
+
+  Scenario: Stream direct application URLs as NDJSON
+    Given I stream jobs with query "Java" in country "Germany"
+    Then every streamed line should be a direct application URL
\ No newline at end of file
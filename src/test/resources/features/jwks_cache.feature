@@ -0,0 +1,13 @@
+Feature: ID token decoders reuse the cached JWK set
+
+  Scenario: Repeated logins fetch the key set once
+    Given a JWKS endpoint publishing key "key-1"
+    When I decode 3 ID tokens signed with key "key-1"
+    Then the JWKS endpoint should have been fetched 1 time
+
+  Scenario: A rotated key triggers one refresh
+    Given a JWKS endpoint publishing key "key-1"
+    And I decode 1 ID tokens signed with key "key-1"
+    When the JWKS endpoint rotates to key "key-2"
+    And I decode 2 ID tokens signed with key "key-2"
+    Then the JWKS endpoint should have been fetched 2 times
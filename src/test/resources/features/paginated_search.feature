@@ -0,0 +1,9 @@
+Feature: Paginated job search across every upstream page
+
+  Scenario: All pages are merged and Easy Apply jobs are dropped
+    Given I search for direct apply links with query "Paged" in country "Germany"
+    Then I should get 4 direct application URLs
+
+  Scenario: Pagination stops once the limit is met
+    Given I search for direct apply links with query "Paged" in country "Germany" and limit 2
+    Then I should get 2 direct application URLs
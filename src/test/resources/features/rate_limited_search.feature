@@ -0,0 +1,5 @@
+Feature: Searches survive LinkedIn rate limiting
+
+  Scenario: A 429 is retried after the Retry-After period
+    Given I search for direct apply links with query "Throttled" in country "Germany"
+    Then I should get 1 direct application URLs
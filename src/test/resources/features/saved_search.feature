@@ -0,0 +1,25 @@
+Feature: Saved searches report only the jobs posted after they were saved
+
+  Scenario: Jobs listed when the search is saved are not new
+    Given LinkedIn lists the jobs "old-1" for a new query
+    When I save a search for that query
+    And the saved searches are polled
+    Then the saved search should report no new jobs
+    And I delete the saved search
+
+  Scenario: Jobs posted later are reported once
+    Given LinkedIn lists the jobs "old-1" for a new query
+    And I save a search for that query
+    When LinkedIn starts listing the jobs "new-1,old-1"
+    And the saved searches are polled
+    Then the saved search should report the new jobs "new-1"
+    And the saved search should report no new jobs
+    When the saved searches are polled
+    Then the saved search should report no new jobs
+    And I delete the saved search
+
+  Scenario: Another member can neither read nor delete a saved search
+    Given LinkedIn lists the jobs "old-1" for a new query
+    And I save a search for that query
+    Then another member should get status 404 for the saved search
+    And I delete the saved search